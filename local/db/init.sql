@@ -1,15 +1,15 @@
 create table bet (
     id varchar(64) not null,
     xref varchar(64) not null,
-    created_at timestamp not null default now(),
+    created_at timestamptz not null default now(),
     creator_id varchar(64) not null,
     commissioner_id varchar(64),
     title varchar(64) not null,
     description varchar(512),
     conditions varchar(512) not null,
     punishment varchar(512) not null,
-    conditions_deadline timestamp not null,
-    punishment_deadline timestamp not null,
+    conditions_deadline timestamptz not null,
+    punishment_deadline timestamptz not null,
     result_xref varchar(64),
     is_complete boolean default false,
     version decimal(10, 1),
@@ -41,8 +41,15 @@ create table user_bet_relation (
 create table comment (
     id varchar(64) not null,
     xref varchar(64) not null,
-    hi_low_user_id varchar(64) not null references hi_low_user(id),
+    hi_low_user_id varchar(64) references hi_low_user(id),
+    bet_id varchar(64) references bet(id) on delete cascade,
     comment varchar(512) not null,
     likes integer,
     primary key (id)
-)
\ No newline at end of file
+);
+
+create index bet_conditions_deadline_idx on bet (conditions_deadline, xref);
+create index bet_punishment_deadline_idx on bet (punishment_deadline, xref);
+create index bet_creator_idx on bet (creator_id, created_at desc, xref desc);
+create index user_bet_relation_bet_idx on user_bet_relation (bet_id);
+create unique index comment_bet_comment_idx on comment (bet_id, comment);
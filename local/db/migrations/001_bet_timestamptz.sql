@@ -0,0 +1,6 @@
+-- Bet timestamps were written from the JVM default time zone into columns without one. Lambda
+-- runs in UTC, so reinterpret the stored values as UTC instants.
+alter table bet
+    alter column created_at type timestamptz using created_at at time zone 'UTC',
+    alter column conditions_deadline type timestamptz using conditions_deadline at time zone 'UTC',
+    alter column punishment_deadline type timestamptz using punishment_deadline at time zone 'UTC';
@@ -0,0 +1,2 @@
+create index concurrently if not exists bet_conditions_deadline_idx on bet (conditions_deadline, xref);
+create index concurrently if not exists bet_punishment_deadline_idx on bet (punishment_deadline, xref);
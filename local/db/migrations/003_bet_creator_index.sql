@@ -0,0 +1 @@
+create index concurrently if not exists bet_creator_idx on bet (creator_id, created_at desc, xref desc);
@@ -0,0 +1,4 @@
+-- Comments are filed under the bet they are on so BetStore.addComment/removeComment can use this
+-- table. Comments added through the API carry no author, so hi_low_user_id becomes optional.
+alter table comment add column if not exists bet_id varchar(64) references bet(id) on delete cascade;
+alter table comment alter column hi_low_user_id drop not null;
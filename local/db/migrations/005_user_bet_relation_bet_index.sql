@@ -0,0 +1,3 @@
+-- Deleting a bet's participants and loading them filter user_bet_relation on bet_id, which the
+-- (hi_low_user_id, bet_id) unique constraint's index cannot serve.
+create index concurrently if not exists user_bet_relation_bet_idx on user_bet_relation (bet_id);
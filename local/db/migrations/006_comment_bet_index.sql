@@ -0,0 +1,3 @@
+-- Kept apart from 004: create index concurrently cannot run inside the transaction a multi-statement
+-- migration runs in, and must follow 004's bet_id column.
+create unique index concurrently if not exists comment_bet_comment_idx on comment (bet_id, comment);
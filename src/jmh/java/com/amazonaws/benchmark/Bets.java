@@ -0,0 +1,58 @@
+package com.amazonaws.benchmark;
+
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.BetRequest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Representative bets for benchmarks.
+ */
+public final class Bets {
+    private Bets() {
+    }
+
+    public static Bet bet(final int participants) {
+        final List<String> users = new ArrayList<>(participants);
+        final List<String> comments = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            users.add(UUID.randomUUID().toString());
+            comments.add("Comment " + i + ": \"no way\" you make that jump, see you at the lake");
+        }
+        final Date now = new Date();
+        return Bet.builder()
+                .id(UUID.randomUUID().toString())
+                .xref(UUID.randomUUID().toString())
+                .creatorXref(users.get(0))
+                .participants(users)
+                .commissionerXref(users.get(0))
+                .createdAt(now)
+                .title("Packers win the division")
+                .description("Loser wears the other team's jersey to work for a week.\nPhotos required.")
+                .conditions("Packers finish first in the NFC North")
+                .punishment("Jersey for five working days")
+                .conditionsDeadline(now)
+                .punishmentDeadline(now)
+                .comments(comments)
+                .isComplete(false)
+                .version(1L)
+                .build();
+    }
+
+    public static BetRequest request(final int participants) {
+        final Bet bet = bet(participants);
+        return BetRequest.builder()
+                .creatorXref(bet.getCreatorXref())
+                .participants(bet.getParticipants())
+                .title(bet.getTitle())
+                .description(bet.getDescription())
+                .conditions(bet.getConditions())
+                .punishment(bet.getPunishment())
+                .conditionsDeadline(bet.getConditionsDeadline())
+                .punishmentDeadline(bet.getPunishmentDeadline())
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.amazonaws.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against a baseline and exits non-zero if any benchmark's
+ * average time grew by more than the threshold. Benchmarks missing from either file are listed
+ * but not counted as regressions.
+ *
+ * <p>Usage: {@code CompareResults <current.json> <thresholdPercent> [baseline.json]}. With no
+ * baseline the comparison is skipped.
+ */
+public final class CompareResults {
+    private CompareResults() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 3 || args[2].isEmpty() || !new File(args[2]).isFile()) {
+            System.out.println("No JMH baseline given, skipping comparison");
+            return;
+        }
+        final double threshold = Double.parseDouble(args[1]);
+        final Map<String, Double> current = read(new File(args[0]));
+        final Map<String, Double> baseline = read(new File(args[2]));
+        int regressions = 0;
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            final Double before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %12.3f  (new)%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+            final double change = (entry.getValue() - before) / before * 100;
+            final boolean regressed = change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %12.3f %12.3f %+8.1f%%%s%n", entry.getKey(), before, entry.getValue(), change,
+                    regressed ? "  REGRESSION" : "");
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-70s  (missing)%n", name);
+            }
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Double> read(final File file) throws IOException {
+        final Map<String, Double> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            final StringBuilder name = new StringBuilder(result.get("benchmark").asText());
+            final JsonNode params = result.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param ->
+                        name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            scores.put(name.toString(), result.get("primaryMetric").get("score").asDouble());
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,50 @@
+package com.amazonaws.benchmark;
+
+import com.amazonaws.handler.ApiGatewayEventParser;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.request.BetRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a create bet request by building the whole event tree and searching it with
+ * findValue against {@link ApiGatewayEventParser}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventParsingBenchmark {
+    private ObjectMapper objectMapper;
+    private ApiGatewayEventParser eventParser;
+    private byte[] event;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new ObjectMapper();
+        eventParser = new ApiGatewayEventParser(objectMapper);
+        event = Events.postBet(objectMapper, Bets.request(2));
+    }
+
+    @Benchmark
+    public BetRequest tree() throws IOException {
+        final JsonNode tree = objectMapper.readTree(new ByteArrayInputStream(event));
+        return objectMapper.treeToValue(objectMapper.readTree(tree.findValue("body").asText()), BetRequest.class);
+    }
+
+    @Benchmark
+    public BetRequest streaming() throws IOException {
+        final ApiGatewayEvent parsed = eventParser.parse(new ByteArrayInputStream(event));
+        return objectMapper.readValue(parsed.getBody(), BetRequest.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.amazonaws.benchmark;
+
+import com.amazonaws.handler.GatewayResponseWriter;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.response.GatewayResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a bet response by serializing the body to a String and then serializing a
+ * {@link GatewayResponse} around it against {@link GatewayResponseWriter}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GatewayResponseBenchmark {
+    private static final Map<String, String> HEADERS = Collections.singletonMap("Content-Type", "application/json");
+
+    /**
+     * small is a freshly created bet; large has many participants and comments, close to a
+     * completed group bet.
+     */
+    @Param({"small", "large"})
+    public String payload;
+
+    private ObjectMapper objectMapper;
+    private GatewayResponseWriter responseWriter;
+    private Bet bet;
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        responseWriter = new GatewayResponseWriter(objectMapper);
+        bet = Bets.bet("large".equals(payload) ? 50 : 2);
+        output = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    @Benchmark
+    public int doubleSerialized() throws IOException {
+        output.reset();
+        objectMapper.writeValue(output,
+                new GatewayResponse<>(objectMapper.writeValueAsString(bet), HEADERS, 200));
+        return output.size();
+    }
+
+    @Benchmark
+    public int streaming() throws IOException {
+        output.reset();
+        responseWriter.write(output, bet, HEADERS, 200);
+        return output.size();
+    }
+}
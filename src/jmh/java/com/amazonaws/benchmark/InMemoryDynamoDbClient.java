@@ -0,0 +1,271 @@
+package com.amazonaws.benchmark;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A string-keyed DynamoDbClient held in memory so handler round trips can be benchmarked without
+ * a network hop. It supports the calls BetDao makes and understands only the
+ * attribute_exists/attribute_not_exists conditions on the key and plain "SET a = :a, ..." update
+ * expressions; other conditions are ignored. Writes are serialized, and transactions check
+ * every condition before applying any write.
+ */
+public class InMemoryDynamoDbClient implements DynamoDbClient {
+    private final String keyName;
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an InMemoryDynamoDbClient.
+     *
+     * @param keyName name of the string hash key attribute of tables not declared with withTable
+     */
+    public InMemoryDynamoDbClient(final String keyName) {
+        this.keyName = keyName;
+    }
+
+    /**
+     * Declares the key of a table.
+     *
+     * @param tableName name of the table
+     * @param keyNames  names of the string hash key and, if the table has one, range key
+     * @return this client
+     */
+    public InMemoryDynamoDbClient withTable(final String tableName, final String... keyNames) {
+        tables.put(tableName, new Table(Arrays.asList(keyNames)));
+        return this;
+    }
+
+    @Override
+    public GetItemResponse getItem(final GetItemRequest request) {
+        final Table table = table(request.tableName());
+        return GetItemResponse.builder().item(table.items.get(table.key(request.key()))).build();
+    }
+
+    @Override
+    public synchronized PutItemResponse putItem(final PutItemRequest request) {
+        final Table table = table(request.tableName());
+        final String key = table.key(request.item());
+        checkCondition(request.conditionExpression(), table.items.containsKey(key));
+        table.items.put(key, new HashMap<>(request.item()));
+        return PutItemResponse.builder().build();
+    }
+
+    @Override
+    public synchronized UpdateItemResponse updateItem(final UpdateItemRequest request) {
+        final Table table = table(request.tableName());
+        final String key = table.key(request.key());
+        checkCondition(request.conditionExpression(), table.items.containsKey(key));
+        return UpdateItemResponse.builder().attributes(update(table, key, request.key(),
+                request.updateExpression(), request.expressionAttributeValues())).build();
+    }
+
+    @Override
+    public synchronized DeleteItemResponse deleteItem(final DeleteItemRequest request) {
+        final Table table = table(request.tableName());
+        final String key = table.key(request.key());
+        checkCondition(request.conditionExpression(), table.items.containsKey(key));
+        return DeleteItemResponse.builder().attributes(table.items.remove(key)).build();
+    }
+
+    @Override
+    public synchronized TransactWriteItemsResponse transactWriteItems(final TransactWriteItemsRequest request) {
+        final List<CancellationReason> reasons = new ArrayList<>(request.transactItems().size());
+        boolean cancelled = false;
+        for (TransactWriteItem write : request.transactItems()) {
+            final String tableName;
+            final Map<String, AttributeValue> key;
+            final String condition;
+            if (write.put() != null) {
+                tableName = write.put().tableName();
+                key = write.put().item();
+                condition = write.put().conditionExpression();
+            } else if (write.update() != null) {
+                tableName = write.update().tableName();
+                key = write.update().key();
+                condition = write.update().conditionExpression();
+            } else if (write.delete() != null) {
+                tableName = write.delete().tableName();
+                key = write.delete().key();
+                condition = write.delete().conditionExpression();
+            } else {
+                tableName = write.conditionCheck().tableName();
+                key = write.conditionCheck().key();
+                condition = write.conditionCheck().conditionExpression();
+            }
+            final Table table = table(tableName);
+            if (passes(condition, table.items.containsKey(table.key(key)))) {
+                reasons.add(CancellationReason.builder().code("None").build());
+            } else {
+                reasons.add(CancellationReason.builder().code("ConditionalCheckFailed").build());
+                cancelled = true;
+            }
+        }
+        if (cancelled) {
+            throw TransactionCanceledException.builder().message("Transaction cancelled")
+                    .cancellationReasons(reasons).build();
+        }
+        for (TransactWriteItem write : request.transactItems()) {
+            if (write.put() != null) {
+                final Table table = table(write.put().tableName());
+                table.items.put(table.key(write.put().item()), new HashMap<>(write.put().item()));
+            } else if (write.update() != null) {
+                final Table table = table(write.update().tableName());
+                update(table, table.key(write.update().key()), write.update().key(),
+                        write.update().updateExpression(), write.update().expressionAttributeValues());
+            } else if (write.delete() != null) {
+                final Table table = table(write.delete().tableName());
+                table.items.remove(table.key(write.delete().key()));
+            }
+        }
+        return TransactWriteItemsResponse.builder().build();
+    }
+
+    @Override
+    public ScanResponse scan(final ScanRequest request) {
+        final Table table = table(request.tableName());
+        final NavigableMap<String, Map<String, AttributeValue>> from =
+                request.exclusiveStartKey() == null || request.exclusiveStartKey().isEmpty() ? table.items
+                        : table.items.tailMap(table.key(request.exclusiveStartKey()), false);
+        final int limit = request.limit() == null ? Integer.MAX_VALUE : request.limit();
+        final List<Map<String, AttributeValue>> page = new ArrayList<>(Math.min(limit, 100));
+        for (Map<String, AttributeValue> item : from.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(item);
+        }
+        final ScanResponse.Builder response = ScanResponse.builder().items(page).count(page.size());
+        if (page.size() == limit && from.size() > limit) {
+            final Map<String, AttributeValue> last = page.get(page.size() - 1);
+            final Map<String, AttributeValue> lastKey = new HashMap<>();
+            table.keyNames.forEach(name -> lastKey.put(name, last.get(name)));
+            response.lastEvaluatedKey(lastKey);
+        }
+        return response.build();
+    }
+
+    @Override
+    public BatchGetItemResponse batchGetItem(final BatchGetItemRequest request) {
+        final Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+        for (Map.Entry<String, KeysAndAttributes> requested : request.requestItems().entrySet()) {
+            final Table table = table(requested.getKey());
+            final List<Map<String, AttributeValue>> found = new ArrayList<>();
+            for (Map<String, AttributeValue> key : requested.getValue().keys()) {
+                final Map<String, AttributeValue> item = table.items.get(table.key(key));
+                if (item != null) {
+                    found.add(item);
+                }
+            }
+            responses.put(requested.getKey(), found);
+        }
+        return BatchGetItemResponse.builder().responses(responses).build();
+    }
+
+    @Override
+    public synchronized BatchWriteItemResponse batchWriteItem(final BatchWriteItemRequest request) {
+        for (Map.Entry<String, List<WriteRequest>> writes : request.requestItems().entrySet()) {
+            final Table table = table(writes.getKey());
+            for (WriteRequest write : writes.getValue()) {
+                if (write.putRequest() != null) {
+                    table.items.put(table.key(write.putRequest().item()), new HashMap<>(write.putRequest().item()));
+                } else if (write.deleteRequest() != null) {
+                    table.items.remove(table.key(write.deleteRequest().key()));
+                }
+            }
+        }
+        return BatchWriteItemResponse.builder().build();
+    }
+
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private Table table(final String tableName) {
+        return tables.computeIfAbsent(tableName, name -> new Table(Collections.singletonList(keyName)));
+    }
+
+    private static Map<String, AttributeValue> update(final Table table, final String key,
+                                                      final Map<String, AttributeValue> keyAttributes,
+                                                      final String updateExpression,
+                                                      final Map<String, AttributeValue> values) {
+        final Map<String, AttributeValue> existing = table.items.get(key);
+        final Map<String, AttributeValue> updated = existing == null ? new HashMap<>(keyAttributes)
+                : new HashMap<>(existing);
+        final String expression = updateExpression.trim();
+        for (String assignment : expression.substring("SET".length()).split(",")) {
+            final String[] parts = assignment.split("=");
+            final AttributeValue value = values.get(parts[1].trim());
+            if (value != null) {
+                updated.put(parts[0].trim(), value);
+            }
+        }
+        table.items.put(key, updated);
+        return updated;
+    }
+
+    private static void checkCondition(final String condition, final boolean exists) {
+        if (!passes(condition, exists)) {
+            throw ConditionalCheckFailedException.builder().message("The conditional request failed").build();
+        }
+    }
+
+    private static boolean passes(final String condition, final boolean exists) {
+        if (condition == null) {
+            return true;
+        }
+        return !(condition.contains("attribute_not_exists") && exists
+                || condition.contains("attribute_exists") && !condition.contains("attribute_not_exists") && !exists);
+    }
+
+    private static final class Table {
+        private final List<String> keyNames;
+        private final NavigableMap<String, Map<String, AttributeValue>> items = new ConcurrentSkipListMap<>();
+
+        private Table(final List<String> keyNames) {
+            this.keyNames = keyNames;
+        }
+
+        private String key(final Map<String, AttributeValue> item) {
+            if (keyNames.size() == 1) {
+                return item.get(keyNames.get(0)).s();
+            }
+            return item.get(keyNames.get(0)).s() + '\u0000' + item.get(keyNames.get(1)).s();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.benchmark.Bets;
+import com.amazonaws.benchmark.InMemoryDynamoDbClient;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.BetRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping between bets and DynamoDB items, which every read and write pays for, against
+ * the NullPointerException-catching mapping in {@link LegacyBetItems}. The item has no resultXref,
+ * comments or isComplete, like most stored bets. The legacy code reads dates stored as strings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BetDaoBenchmark {
+    private BetDao betDao;
+    private BetRequest createRequest;
+    private BetRequest updateRequest;
+    private Map<String, AttributeValue> item;
+    private Map<String, AttributeValue> legacyItem;
+
+    @Setup
+    public void setup() {
+        betDao = new BetDao(new InMemoryDynamoDbClient("xref")
+                .withTable("user_bet", "userXref", "betKey"), "bet", "user_bet", 10);
+        createRequest = Bets.request(5);
+        item = betDao.createBetItem(createRequest);
+        legacyItem = LegacyBetItems.createBetItem(createRequest);
+        updateRequest = Bets.request(5);
+        updateRequest.setXref(item.get("xref").s());
+        updateRequest.setVersion(1L);
+    }
+
+    @Benchmark
+    public Bet convert() {
+        return betDao.convert(item);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> createBetItem() {
+        return betDao.createBetItem(createRequest);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> updateBetItem() {
+        return betDao.updateBetItem(updateRequest);
+    }
+
+    /**
+     * Reads an item whose dates were stored before they became epoch milliseconds.
+     */
+    @Benchmark
+    public Bet convertStringDates() {
+        return betDao.convert(legacyItem);
+    }
+
+    @Benchmark
+    public Bet legacyConvert() {
+        return LegacyBetItems.convert(legacyItem);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> legacyCreateBetItem() {
+        return LegacyBetItems.createBetItem(createRequest);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> legacyUpdateBetItem() {
+        return LegacyBetItems.updateBetItem(updateRequest);
+    }
+}
@@ -0,0 +1,35 @@
+package com.amazonaws.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating one id with {@link TimeOrderedIdGenerator} against the random UUIDs bets
+ * used to get, with four threads generating at once so contention on the SecureRandom behind
+ * {@link java.util.UUID#randomUUID()} shows up. Every new bet takes two ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class IdGeneratorBenchmark {
+    private final IdGenerator randomUuids = IdGenerator.randomUuids();
+    private final IdGenerator timeOrdered = new TimeOrderedIdGenerator();
+
+    @Benchmark
+    public String randomUuid() {
+        return randomUuids.newId();
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return timeOrdered.newId();
+    }
+}
@@ -0,0 +1,103 @@
+package com.amazonaws.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures inserting rows keyed like bets (an id primary key and a unique xref, both varchar) into
+ * Postgres with random UUIDs against time-ordered ones. The table is first filled with
+ * {@link #prefillRows} rows from the same generator, so the indexes are larger than the pages a
+ * handful of inserts touch and random keys have to dirty pages all over them. The score is the
+ * time per row; rows per second is its inverse.
+ *
+ * <p>Needs a running Postgres, so it is excluded from the default run. Start the local database
+ * ({@code docker-compose -f local/docker-compose.yml up -d}) and run it with
+ * {@code mvn -Pbenchmark test -Djmh.args="IdInsertBenchmark -f 1 -wi 2 -i 5"}. It connects with the
+ * same JDBC_URL, DB_USER and DB_PASSWORD settings as the functions and only touches its own table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdInsertBenchmark {
+    private static final int BATCH = 100;
+    private static final String TABLE = "id_insert_benchmark";
+
+    @Param({"random", "uuidv7"})
+    public String generator;
+
+    @Param({"1000000"})
+    public int prefillRows;
+
+    private IdGenerator idGenerator;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        idGenerator = "random".equals(generator) ? IdGenerator.randomUuids() : new TimeOrderedIdGenerator();
+        connection = DriverManager.getConnection(env("JDBC_URL", "jdbc:postgresql://localhost:5432/hilow"),
+                env("DB_USER", "hilow"), env("DB_PASSWORD", "hilow"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + TABLE);
+            statement.execute("create table " + TABLE + " (id varchar(64) primary key, "
+                    + "xref varchar(64) not null unique, title varchar(512) not null)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("insert into " + TABLE + " (id, xref, title) values (?, ?, ?)");
+        for (int rows = 0; rows < prefillRows; rows += BATCH) {
+            insertBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute("vacuum analyze " + TABLE);
+            connection.setAutoCommit(false);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + TABLE);
+            connection.commit();
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Inserts and commits one batch of rows, like a bulk create.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            insert.setString(1, idGenerator.newId());
+            insert.setString(2, idGenerator.newId());
+            insert.setString(3, "title");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private static String env(final String name, final String defaultValue) {
+        return Optional.ofNullable(System.getenv(name)).filter(value -> !value.isEmpty()).orElse(defaultValue);
+    }
+}
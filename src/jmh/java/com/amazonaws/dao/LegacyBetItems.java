@@ -0,0 +1,125 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.BetRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The item mapping BetDao used before {@link BetItemMapper}, which caught NullPointerException
+ * for absent attributes, kept so BetDaoBenchmark can compare against it.
+ */
+final class LegacyBetItems {
+    private LegacyBetItems() {
+    }
+
+    @SuppressWarnings("deprecation")
+    static Bet convert(final Map<String, AttributeValue> item) {
+        if (item == null || item.isEmpty()) {
+            return null;
+        }
+        Bet.BetBuilder builder = Bet.builder();
+        builder.xref(item.get("xref").s())
+                .creatorXref(item.get("creatorXref").s())
+                .participants(item.get("participants").ss())
+                .commissionerXref(item.get("commissionerXref").s())
+                .createdAt(new Date(item.get("createdAt").s()))
+                .title(item.get("title").s())
+                .description(item.get("description").s())
+                .conditions(item.get("conditions").s())
+                .punishment(item.get("punishment").s())
+                .conditionsDeadline(new Date(item.get("conditionsDeadline").s()))
+                .punishmentDeadline(new Date(item.get("punishmentDeadline").s()))
+                .version(Long.valueOf(item.get("version").n()));
+        try {
+            builder.resultXref(item.get("resultXref").s());
+        } catch (NullPointerException e) { }
+        try {
+            builder.comments(item.get("comments").ss());
+        } catch (NullPointerException e) { }
+        try {
+            builder.isComplete(item.get("isComplete").bool());
+        } catch (NullPointerException e) { }
+        return builder.build();
+    }
+
+    static Map<String, AttributeValue> createBetItem(final BetRequest bet) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("betId", AttributeValue.builder().s(UUID.randomUUID().toString()).build());
+        item.put("xref", AttributeValue.builder().s(UUID.randomUUID().toString()).build());
+        item.put("version", AttributeValue.builder().n("1").build());
+        item.put("creatorXref", AttributeValue.builder().s(bet.getCreatorXref()).build());
+        item.put("participants", AttributeValue.builder().ss(bet.getParticipants()).build());
+        try {
+            item.put("commissionerXref", AttributeValue.builder().s(bet.getCommissionerXref().toString()).build());
+        } catch (NullPointerException e) {
+            item.put("commissionerXref", AttributeValue.builder().s(bet.getCreatorXref()).build());
+        }
+        item.put("createdAt", AttributeValue.builder().s(new Date().toString()).build());
+        try {
+            item.put("title", AttributeValue.builder().s(bet.getTitle().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("title must be defined");
+        }
+        item.put("description", AttributeValue.builder().s(bet.getDescription()).build());
+        try {
+            item.put("conditions", AttributeValue.builder().s(bet.getConditions().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("conditions must be defined");
+        }
+        try {
+            item.put("punishment", AttributeValue.builder().s(bet.getPunishment().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("punishment must be defined");
+        }
+        try {
+            item.put("conditionsDeadline", AttributeValue.builder().s(bet.getConditionsDeadline().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("conditionsDeadline must be defined");
+        }
+        try {
+            item.put("punishmentDeadline", AttributeValue.builder().s(bet.getPunishmentDeadline().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("punishmentDeadline must be defined");
+        }
+        return item;
+    }
+
+    static Map<String, AttributeValue> updateBetItem(final BetRequest bet) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put(":comxref", AttributeValue.builder().s(bet.getCommissionerXref()).build());
+        try {
+            item.put(":t", AttributeValue.builder().s(bet.getTitle().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("title must be defined");
+        }
+        item.put(":des", AttributeValue.builder().s(bet.getDescription()).build());
+        try {
+            item.put(":con", AttributeValue.builder().s(bet.getConditions().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("conditions must be defined");
+        }
+        try {
+            item.put(":pun", AttributeValue.builder().s(bet.getPunishment().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("punishment must be defined");
+        }
+        try {
+            item.put(":cond", AttributeValue.builder().s(bet.getConditionsDeadline().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("conditionsDeadline must be defined");
+        }
+        try {
+            item.put(":pund", AttributeValue.builder().s(bet.getPunishmentDeadline().toString()).build());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("punishmentDeadline must be defined");
+        }
+        item.put(":rxref", AttributeValue.builder().s(bet.getResultXref()).build());
+        item.put(":com", AttributeValue.builder().bool(bet.getIsComplete()).build());
+        return item;
+    }
+}
@@ -0,0 +1,84 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.benchmark.Bets;
+import com.amazonaws.benchmark.Events;
+import com.amazonaws.benchmark.InMemoryDynamoDbClient;
+import com.amazonaws.config.BetModule;
+import com.amazonaws.config.DaggerBetComponent;
+import com.amazonaws.dao.BetDao;
+import com.amazonaws.model.Bet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full handleRequest round trips through {@link BetRouterHandler}, from proxy event bytes to
+ * response bytes, against an {@link InMemoryDynamoDbClient}. getBet is served by the bet cache
+ * after the first call, as it is in a warm container; getBetFromTable reads through the DAO.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HandlerBenchmark {
+    private BetRouterHandler router;
+    private BetDao betDao;
+    private String betXref;
+    private byte[] getBet;
+    private byte[] getBets;
+    private byte[] createBet;
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setup() throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final InMemoryDynamoDbClient dynamoDb = new InMemoryDynamoDbClient("xref")
+                .withTable("user_bet", "userXref", "betKey");
+        router = new BetRouterHandler(DaggerBetComponent.builder().betModule(new BetModule(dynamoDb)).build());
+        betDao = new BetDao(dynamoDb, "bet", "user_bet", 10);
+        Bet bet = null;
+        for (int i = 0; i < 20; i++) {
+            bet = betDao.createBet(Bets.request(3));
+        }
+        betXref = bet.getXref();
+        getBet = Events.event(objectMapper, "GET", "/bets/{betXref}", betXref, null);
+        getBets = Events.event(objectMapper, "GET", "/bets", null, null);
+        createBet = Events.postBet(objectMapper, Bets.request(3));
+        output = new ByteArrayOutputStream(16 * 1024);
+    }
+
+    @Benchmark
+    public int getBet() throws IOException {
+        return roundTrip(getBet);
+    }
+
+    @Benchmark
+    public Bet getBetFromTable() {
+        return betDao.getBet(betXref);
+    }
+
+    @Benchmark
+    public int getBets() throws IOException {
+        return roundTrip(getBets);
+    }
+
+    @Benchmark
+    public int createBet() throws IOException {
+        return roundTrip(createBet);
+    }
+
+    private int roundTrip(final byte[] event) throws IOException {
+        output.reset();
+        router.handleRequest(new ByteArrayInputStream(event), output, null);
+        return output.size();
+    }
+}
@@ -1,9 +1,23 @@
 package com.amazonaws.config;
 
+import com.amazonaws.dao.BetCache;
+import com.amazonaws.handler.BackfillUserBetsHandler;
+import com.amazonaws.handler.BatchGetBetsHandler;
+import com.amazonaws.handler.BetCommentsHandler;
+import com.amazonaws.handler.BetRouterHandler;
+import com.amazonaws.handler.BulkCreateBetsHandler;
 import com.amazonaws.handler.CreateBetHandler;
 import com.amazonaws.handler.DeleteBetHandler;
+import com.amazonaws.handler.FindBetsByDeadlineHandler;
 import com.amazonaws.handler.GetBetHandler;
+import com.amazonaws.handler.GetBetsHandler;
+import com.amazonaws.handler.GetUserBetsHandler;
+import com.amazonaws.handler.MigrateBetDatesHandler;
 import com.amazonaws.handler.UpdateBetHandler;
+import com.amazonaws.metrics.BetMetrics;
+import com.amazonaws.metrics.ConnectionPoolMetrics;
+import com.amazonaws.metrics.HttpClientMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dagger.Component;
 
 import javax.inject.Singleton;
@@ -12,11 +26,41 @@ import javax.inject.Singleton;
 @Component(modules = {BetModule.class})
 public interface BetComponent {
 
+    ConnectionPoolMetrics connectionPoolMetrics();
+
+    HttpClientMetrics httpClientMetrics();
+
+    BetMetrics betMetrics();
+
+    BetCache betCache();
+
+    ObjectMapper objectMapper();
+
+    Warmup warmup();
+
+    void inject(BackfillUserBetsHandler requestHandler);
+
+    void inject(BatchGetBetsHandler requestHandler);
+
+    void inject(BetCommentsHandler requestHandler);
+
+    void inject(BetRouterHandler requestHandler);
+
+    void inject(BulkCreateBetsHandler requestHandler);
+
     void inject(CreateBetHandler requestHandler);
 
     void inject(DeleteBetHandler requestHandler);
 
+    void inject(FindBetsByDeadlineHandler requestHandler);
+
     void inject(GetBetHandler requestHandler);
 
+    void inject(GetBetsHandler requestHandler);
+
+    void inject(GetUserBetsHandler requestHandler);
+
+    void inject(MigrateBetDatesHandler requestHandler);
+
     void inject(UpdateBetHandler requestHandler);
 }
@@ -0,0 +1,35 @@
+package com.amazonaws.config;
+
+import com.amazonaws.metrics.StartupTimings;
+
+/**
+ * Holds the one {@link BetComponent} per JVM.
+ *
+ * <p>Handlers fetch the component from their constructors, which Lambda runs during the init
+ * phase, so building the clients and running the {@link Warmup} happen before the first
+ * invocation and are shared by every handler instance in the container.
+ */
+public final class BetComponents {
+    private static final BetComponent COMPONENT = build();
+
+    private BetComponents() {
+    }
+
+    /**
+     * Returns the component, building and warming it on first use.
+     *
+     * @return the shared component
+     */
+    public static BetComponent get() {
+        return COMPONENT;
+    }
+
+    private static BetComponent build() {
+        final long start = System.nanoTime();
+        final BetComponent component = DaggerBetComponent.builder().build();
+        final long built = System.nanoTime();
+        component.warmup().run();
+        StartupTimings.recordInit(built - start, System.nanoTime() - built);
+        return component;
+    }
+}
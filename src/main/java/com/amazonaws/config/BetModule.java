@@ -1,21 +1,67 @@
 package com.amazonaws.config;
 
+import com.amazonaws.dao.AsyncBetDao;
+import com.amazonaws.dao.BetCache;
 import com.amazonaws.dao.BetDao;
+import com.amazonaws.dao.BetDateMigration;
+import com.amazonaws.dao.BetStore;
+import com.amazonaws.dao.BetUserIndexBackfill;
+import com.amazonaws.dao.CachingBetStore;
+import com.amazonaws.dao.IdGenerator;
+import com.amazonaws.dao.InstrumentedBetStore;
+import com.amazonaws.dao.JdbcBetDao;
+import com.amazonaws.dao.TimeOrderedIdGenerator;
+import com.amazonaws.handler.ApiGatewayEventParser;
+import com.amazonaws.handler.GatewayResponseWriter;
+import com.amazonaws.metrics.BetMetrics;
+import com.amazonaws.metrics.ConnectionPoolMetrics;
+import com.amazonaws.metrics.ConsumedCapacityInterceptor;
+import com.amazonaws.metrics.HttpClientMetrics;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import dagger.Lazy;
 import dagger.Module;
 import dagger.Provides;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
 import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 @Module
 public class BetModule {
+    private final DynamoDbClient dynamoDb;
+
+    public BetModule() {
+        this(null);
+    }
+
+    /**
+     * Constructs a BetModule that hands out the given client instead of building one, for
+     * benchmarks and tests that run against a stand-in.
+     *
+     * @param dynamoDb client to provide, or null to build one from the environment
+     */
+    public BetModule(final DynamoDbClient dynamoDb) {
+        this.dynamoDb = dynamoDb;
+    }
+
     @Singleton
     @Provides
     @Named("tableName")
@@ -25,11 +71,77 @@ public class BetModule {
 
     @Singleton
     @Provides
-    DynamoDbClient dynamoDb() {
+    @Named("userBetsTableName")
+    String userBetsTableName() {
+        return Optional.ofNullable(System.getenv("USER_BETS_TABLE_NAME")).orElse("user_bet");
+    }
+
+    @Singleton
+    @Provides
+    HttpClientMetrics httpClientMetrics() {
+        return new HttpClientMetrics();
+    }
+
+    /**
+     * METRICS_FLUSH_SECONDS sets how often aggregated metrics are written to the log; 0 writes after
+     * every invocation.
+     */
+    @Singleton
+    @Provides
+    BetMetrics betMetrics() {
+        return new BetMetrics(System.out, env("METRICS_NAMESPACE", "HiLow"),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(env("METRICS_FLUSH_SECONDS", "10"))));
+    }
+
+    /**
+     * Timeouts and retries shared by the sync and async DynamoDB clients. An attempt that stalls is
+     * abandoned after DYNAMODB_API_CALL_ATTEMPT_TIMEOUT_MILLIS and retried, and the whole call gives
+     * up after DYNAMODB_API_CALL_TIMEOUT_MILLIS. The adaptive retry mode also rate limits the client
+     * while DynamoDB is throttling it, so a burst does not turn into a retry storm.
+     */
+    @Singleton
+    @Provides
+    ClientOverrideConfiguration dynamoDbOverrides(HttpClientMetrics httpClientMetrics, BetMetrics betMetrics) {
+        final RetryMode retryMode = RetryMode.valueOf(env("DYNAMODB_RETRY_MODE", "adaptive").toUpperCase(Locale.ROOT));
+        return ClientOverrideConfiguration.builder()
+                .apiCallAttemptTimeout(Duration.ofMillis(Long.parseLong(env("DYNAMODB_API_CALL_ATTEMPT_TIMEOUT_MILLIS", "1000"))))
+                .apiCallTimeout(Duration.ofMillis(Long.parseLong(env("DYNAMODB_API_CALL_TIMEOUT_MILLIS", "5000"))))
+                .retryPolicy(RetryPolicy.builder(retryMode)
+                        .numRetries(Integer.parseInt(env("DYNAMODB_MAX_RETRIES", "3")))
+                        .build())
+                .addMetricPublisher(httpClientMetrics)
+                .addMetricPublisher(betMetrics)
+                .addExecutionInterceptor(new ConsumedCapacityInterceptor(betMetrics))
+                .build();
+    }
+
+    /**
+     * Connections are kept alive between invocations, but retired after DYNAMODB_CONNECTION_TTL_SECONDS
+     * or DYNAMODB_CONNECTION_MAX_IDLE_SECONDS so that ones the service or a frozen container has
+     * dropped are not handed out. A request waits at most DYNAMODB_CONNECTION_ACQUISITION_TIMEOUT_MILLIS
+     * for a free connection before failing fast.
+     */
+    @Singleton
+    @Provides
+    DynamoDbClient dynamoDb(Lazy<ClientOverrideConfiguration> overrides) {
+        if (dynamoDb != null) {
+            return dynamoDb;
+        }
         final String endpoint = System.getenv("ENDPOINT_OVERRIDE");
 
         DynamoDbClientBuilder builder = DynamoDbClient.builder();
-        builder.httpClient(ApacheHttpClient.builder().build());
+        builder.httpClient(ApacheHttpClient.builder()
+                .maxConnections(Integer.parseInt(env("DYNAMODB_MAX_CONNECTIONS", "50")))
+                .connectionTimeout(Duration.ofMillis(Long.parseLong(env("DYNAMODB_CONNECTION_TIMEOUT_MILLIS", "1000"))))
+                .socketTimeout(Duration.ofMillis(Long.parseLong(env("DYNAMODB_SOCKET_TIMEOUT_MILLIS", "2000"))))
+                .connectionAcquisitionTimeout(Duration.ofMillis(
+                        Long.parseLong(env("DYNAMODB_CONNECTION_ACQUISITION_TIMEOUT_MILLIS", "1000"))))
+                .connectionTimeToLive(Duration.ofSeconds(Long.parseLong(env("DYNAMODB_CONNECTION_TTL_SECONDS", "300"))))
+                .connectionMaxIdleTime(Duration.ofSeconds(Long.parseLong(env("DYNAMODB_CONNECTION_MAX_IDLE_SECONDS", "60"))))
+                .tcpKeepAlive(Boolean.parseBoolean(env("DYNAMODB_TCP_KEEP_ALIVE", "true")))
+                .expectContinueEnabled(Boolean.parseBoolean(env("DYNAMODB_EXPECT_CONTINUE", "false")))
+                .build());
+        builder.overrideConfiguration(overrides.get());
         if (endpoint != null && !endpoint.isEmpty()) {
             builder.endpointOverride(URI.create(endpoint));
         }
@@ -37,6 +149,68 @@ public class BetModule {
         return builder.build();
     }
 
+    /**
+     * Non-blocking client for reads that fan out into many independent calls. It is only built when
+     * the first such read needs it, so cold starts that never fan out do not pay for the event loop.
+     */
+    @Singleton
+    @Provides
+    DynamoDbAsyncClient dynamoDbAsync(ClientOverrideConfiguration overrides) {
+        final String endpoint = System.getenv("ENDPOINT_OVERRIDE");
+
+        DynamoDbAsyncClientBuilder builder = DynamoDbAsyncClient.builder();
+        builder.httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(Integer.parseInt(env("DYNAMODB_ASYNC_MAX_CONCURRENCY", "50")))
+                .connectionTimeout(Duration.ofMillis(Long.parseLong(env("DYNAMODB_CONNECTION_TIMEOUT_MILLIS", "1000"))))
+                .connectionAcquisitionTimeout(Duration.ofMillis(
+                        Long.parseLong(env("DYNAMODB_CONNECTION_ACQUISITION_TIMEOUT_MILLIS", "1000"))))
+                .connectionTimeToLive(Duration.ofSeconds(Long.parseLong(env("DYNAMODB_CONNECTION_TTL_SECONDS", "300"))))
+                .connectionMaxIdleTime(Duration.ofSeconds(Long.parseLong(env("DYNAMODB_CONNECTION_MAX_IDLE_SECONDS", "60"))))
+                .tcpKeepAlive(Boolean.parseBoolean(env("DYNAMODB_TCP_KEEP_ALIVE", "true"))));
+        builder.overrideConfiguration(overrides);
+        if (endpoint != null && !endpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+
+        return builder.build();
+    }
+
+    @Singleton
+    @Provides
+    ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    /**
+     * The pool outlives individual invocations, so warm containers reuse open connections
+     * instead of paying a TCP and auth handshake per request. Lifetimes are kept below typical
+     * Postgres/proxy idle cutoffs so connections frozen between invocations are retired rather
+     * than handed out dead.
+     */
+    @Singleton
+    @Provides
+    HikariDataSource dataSource(ConnectionPoolMetrics connectionPoolMetrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("hilow");
+        config.setJdbcUrl(env("JDBC_URL", "jdbc:postgresql://localhost:5432/hilow"));
+        config.setUsername(env("DB_USER", "hilow"));
+        config.setPassword(env("DB_PASSWORD", "hilow"));
+        config.setMaximumPoolSize(Integer.parseInt(env("DB_POOL_MAX_SIZE", "2")));
+        config.setMinimumIdle(Integer.parseInt(env("DB_POOL_MIN_IDLE", "1")));
+        config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(Long.parseLong(env("DB_POOL_CONNECTION_TIMEOUT_SECONDS", "5"))));
+        config.setValidationTimeout(TimeUnit.SECONDS.toMillis(2));
+        config.setIdleTimeout(TimeUnit.SECONDS.toMillis(Long.parseLong(env("DB_POOL_IDLE_TIMEOUT_SECONDS", "120"))));
+        config.setMaxLifetime(TimeUnit.SECONDS.toMillis(Long.parseLong(env("DB_POOL_MAX_LIFETIME_SECONDS", "600"))));
+        // do not fail container init if the database is briefly unavailable
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory(connectionPoolMetrics);
+        // pooled connections live long enough that server-side prepared statements pay off on first reuse
+        config.addDataSourceProperty("prepareThreshold", "1");
+        config.addDataSourceProperty("preparedStatementCacheQueries", "256");
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        return new HikariDataSource(config);
+    }
+
     @Singleton
     @Provides
     ObjectMapper objectMapper() {
@@ -45,7 +219,132 @@ public class BetModule {
 
     @Singleton
     @Provides
-    public BetDao betDao(DynamoDbClient dynamoDb, @Named("tableName") String tableName) {
-        return new BetDao(dynamoDb, tableName,10);
+    ApiGatewayEventParser eventParser(ObjectMapper objectMapper) {
+        return new ApiGatewayEventParser(objectMapper);
+    }
+
+    @Singleton
+    @Provides
+    GatewayResponseWriter responseWriter(ObjectMapper objectMapper) {
+        return new GatewayResponseWriter(objectMapper);
+    }
+
+    @Singleton
+    @Provides
+    @Named("batchWriteExecutor")
+    ExecutorService batchWriteExecutor() {
+        return Executors.newFixedThreadPool(Integer.parseInt(env("BATCH_WRITE_CONCURRENCY", "4")), runnable -> {
+            Thread thread = new Thread(runnable, "bet-batch-write");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Singleton
+    @Provides
+    public AsyncBetDao asyncBetDao(DynamoDbAsyncClient dynamoDbAsync, @Named("tableName") String tableName) {
+        return new AsyncBetDao(dynamoDbAsync, tableName);
+    }
+
+    /**
+     * A BetModule built around a stand-in client serves async reads on the calling thread through
+     * that client, so benchmarks and tests never open real connections.
+     */
+    @Singleton
+    @Provides
+    public BetDao betDao(DynamoDbClient dynamoDb, @Named("tableName") String tableName,
+                         @Named("userBetsTableName") String userBetsTableName,
+                         @Named("batchWriteExecutor") ExecutorService batchWriteExecutor,
+                         Lazy<AsyncBetDao> asyncBetDao, IdGenerator idGenerator) {
+        return new BetDao(dynamoDb, tableName, userBetsTableName, 10, batchWriteExecutor,
+                this.dynamoDb == null ? asyncBetDao::get : null, idGenerator);
+    }
+
+    @Singleton
+    @Provides
+    public BetDateMigration betDateMigration(DynamoDbClient dynamoDb, @Named("tableName") String tableName) {
+        return new BetDateMigration(dynamoDb, tableName, Integer.parseInt(env("MIGRATION_PAGE_SIZE", "100")));
+    }
+
+    @Singleton
+    @Provides
+    public BetUserIndexBackfill betUserIndexBackfill(DynamoDbClient dynamoDb, @Named("tableName") String tableName,
+                                                     @Named("userBetsTableName") String userBetsTableName) {
+        return new BetUserIndexBackfill(dynamoDb, tableName, userBetsTableName,
+                Integer.parseInt(env("MIGRATION_PAGE_SIZE", "100")));
+    }
+
+    @Singleton
+    @Provides
+    public JdbcBetDao jdbcBetDao(HikariDataSource dataSource, IdGenerator idGenerator) {
+        return new JdbcBetDao(dataSource, 10, idGenerator);
+    }
+
+    /**
+     * ID_GENERATOR picks how new bets and comments get their ids: time-ordered version 7 UUIDs
+     * (uuidv7, the default) or random version 4 UUIDs (random), as before. Both coexist in one table.
+     */
+    @Singleton
+    @Provides
+    IdGenerator idGenerator() {
+        final String generator = env("ID_GENERATOR", "uuidv7");
+        switch (generator) {
+            case "uuidv7":
+                return new TimeOrderedIdGenerator();
+            case "random":
+                return IdGenerator.randomUuids();
+            default:
+                throw new IllegalStateException("Unknown ID_GENERATOR " + generator);
+        }
+    }
+
+    @Singleton
+    @Provides
+    public BetCache betCache() {
+        return new BetCache(Integer.parseInt(env("BET_CACHE_MAX_SIZE", "1000")),
+                Long.parseLong(env("BET_CACHE_TTL_SECONDS", "30")), TimeUnit.SECONDS);
+    }
+
+    /**
+     * PRIME_CONNECTIONS opts in to contacting the selected backend during init; it is off by
+     * default so builds and tests never reach the network.
+     */
+    @Singleton
+    @Provides
+    Warmup warmup(ObjectMapper objectMapper, Lazy<DynamoDbClient> dynamoDb, Lazy<HikariDataSource> dataSource,
+                  @Named("tableName") String tableName) {
+        return new Warmup(objectMapper, dynamoDb, dataSource, tableName, env("BET_STORE", "dynamodb"),
+                Boolean.parseBoolean(env("PRIME_CONNECTIONS", "false")));
+    }
+
+    /**
+     * Picks the storage backend once at startup from BET_STORE (dynamodb or postgres). Only the
+     * selected backend's clients are ever constructed. Reads go through the bet cache unless
+     * BET_CACHE_MAX_SIZE is 0. Every call is timed, cache hits included.
+     */
+    @Singleton
+    @Provides
+    public BetStore betStore(Lazy<BetDao> betDao, Lazy<JdbcBetDao> jdbcBetDao, BetCache betCache,
+                             BetMetrics betMetrics) {
+        final String backend = env("BET_STORE", "dynamodb");
+        final BetStore betStore;
+        switch (backend) {
+            case "dynamodb":
+                betStore = betDao.get();
+                break;
+            case "postgres":
+                betStore = jdbcBetDao.get();
+                break;
+            default:
+                throw new IllegalStateException("Unknown BET_STORE " + backend);
+        }
+        if (Integer.parseInt(env("BET_CACHE_MAX_SIZE", "1000")) <= 0) {
+            return new InstrumentedBetStore(betStore, betMetrics);
+        }
+        return new InstrumentedBetStore(new CachingBetStore(betStore, betCache), betMetrics);
+    }
+
+    private static String env(final String name, final String defaultValue) {
+        return Optional.ofNullable(System.getenv(name)).filter(value -> !value.isEmpty()).orElse(defaultValue);
     }
 }
@@ -0,0 +1,116 @@
+package com.amazonaws.config;
+
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
+import com.amazonaws.model.response.BulkCreateBetsResponse;
+import com.amazonaws.model.response.ErrorMessage;
+import com.amazonaws.model.response.GatewayResponse;
+import com.amazonaws.model.response.GetBetsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import dagger.Lazy;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Work done once per container during init so the first request does not pay for it.
+ *
+ * <p>Jackson builds and caches a serializer or deserializer per type on first use, which is a
+ * large share of first-invoke latency, so each model the handlers read or write is round-tripped
+ * once. When primeConnections is set the selected backend is also contacted once so that the
+ * SDK marshallers are loaded and a TLS connection (or pooled JDBC connection) is already open.
+ */
+public class Warmup {
+    private final ObjectMapper objectMapper;
+    private final Lazy<DynamoDbClient> dynamoDb;
+    private final Lazy<HikariDataSource> dataSource;
+    private final String tableName;
+    private final String backend;
+    private final boolean primeConnections;
+
+    /**
+     * Constructs a Warmup.
+     *
+     * @param objectMapper     mapper shared by the handlers
+     * @param dynamoDb         client to prime when the backend is dynamodb
+     * @param dataSource       pool to prime when the backend is postgres
+     * @param tableName        name of table to use for bets
+     * @param backend          value of BET_STORE
+     * @param primeConnections whether to open a connection to the backend
+     */
+    public Warmup(final ObjectMapper objectMapper, final Lazy<DynamoDbClient> dynamoDb,
+                  final Lazy<HikariDataSource> dataSource, final String tableName, final String backend,
+                  final boolean primeConnections) {
+        this.objectMapper = objectMapper;
+        this.dynamoDb = dynamoDb;
+        this.dataSource = dataSource;
+        this.tableName = tableName;
+        this.backend = backend;
+        this.primeConnections = primeConnections;
+    }
+
+    /**
+     * Runs the warmup. Failures are logged and otherwise ignored; they only mean the first request
+     * does the work instead.
+     */
+    public void run() {
+        try {
+            warmSerializers();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warmup of serializers failed: " + e);
+        }
+        if (primeConnections) {
+            try {
+                primeConnection();
+            } catch (SQLException | RuntimeException e) {
+                System.out.println("Warmup of " + backend + " connection failed: " + e);
+            }
+        }
+    }
+
+    void warmSerializers() throws IOException {
+        final Date now = new Date();
+        final Bet bet = Bet.builder()
+                .id("warmup").xref("warmup").creatorXref("warmup")
+                .participants(Collections.singletonList("warmup")).commissionerXref("warmup")
+                .createdAt(now).title("warmup").description("warmup").conditions("warmup").punishment("warmup")
+                .conditionsDeadline(now).punishmentDeadline(now).resultXref("warmup")
+                .comments(Collections.singletonList("warmup")).isComplete(false).version(1L)
+                .build();
+        final String betJson = objectMapper.writeValueAsString(bet);
+        final BetRequest betRequest = BetRequest.builder()
+                .xref("warmup").creatorXref("warmup").participants(Collections.singletonList("warmup"))
+                .title("warmup").conditions("warmup").punishment("warmup")
+                .conditionsDeadline(now).punishmentDeadline(now).version(1L)
+                .build();
+        objectMapper.readValue(objectMapper.writeValueAsString(betRequest), BetRequest.class);
+        objectMapper.writeValueAsString(new GatewayResponse<>(betJson,
+                Collections.singletonMap("Content-Type", "application/json"), 200));
+        objectMapper.writeValueAsString(new ErrorMessage("warmup", 400));
+        objectMapper.writeValueAsString(new GetBetsResponse(null, Collections.singletonList(bet)));
+        objectMapper.writeValueAsString(new BulkCreateBetsResponse(
+                Collections.singletonList(BetCreateResult.created(0, bet))));
+    }
+
+    private void primeConnection() throws SQLException {
+        switch (backend) {
+            case "dynamodb":
+                dynamoDb.get().describeTable(DescribeTableRequest.builder().tableName(tableName).build());
+                break;
+            case "postgres":
+                try (Connection connection = dataSource.get().getConnection()) {
+                    connection.isValid(1);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.Bet;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking variant of {@link BetDao}'s batch get over a {@link DynamoDbAsyncClient}.
+ *
+ * <p>It returns as soon as its requests are sent. Independent requests are all in flight
+ * at once, so a read made of several calls takes about as long as the slowest call rather than
+ * the sum of them. Futures complete exceptionally with the same exceptions BetDao throws.
+ */
+public class AsyncBetDao {
+    private static final String XREF = BetItemMapper.XREF;
+    private static final int BATCH_GET_LIMIT = 100;
+
+    private final DynamoDbAsyncClient dynamoDb;
+    private final String tableName;
+
+    /**
+     * Constructs an AsyncBetDao.
+     *
+     * @param dynamoDb  async dynamodb client
+     * @param tableName name of table to use for bets
+     */
+    public AsyncBetDao(final DynamoDbAsyncClient dynamoDb, final String tableName) {
+        this.dynamoDb = dynamoDb;
+        this.tableName = tableName;
+    }
+
+    /**
+     * Returns the bets for many xrefs. Every BatchGetItem call of 100 keys is sent at once, and each
+     * retries its own unprocessed keys with jittered exponential backoff without holding a thread.
+     *
+     * @param xrefs ids of bets to get
+     * @return the bets that exist, in the order their xrefs were given
+     */
+    public CompletableFuture<List<Bet>> getBets(final Collection<String> xrefs) {
+        if (xrefs == null) {
+            throw new IllegalArgumentException("xrefs was null");
+        }
+        final List<String> uniqueXrefs = new ArrayList<>(new LinkedHashSet<>(xrefs));
+        final Map<String, Bet> found = new ConcurrentHashMap<>(uniqueXrefs.size() * 2);
+        final List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < uniqueXrefs.size(); from += BATCH_GET_LIMIT) {
+            final List<Map<String, AttributeValue>> keys = new ArrayList<>(BATCH_GET_LIMIT);
+            for (String xref : uniqueXrefs.subList(from, Math.min(from + BATCH_GET_LIMIT, uniqueXrefs.size()))) {
+                keys.add(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build()));
+            }
+            chunks.add(batchGet(Collections.singletonMap(tableName, KeysAndAttributes.builder().keys(keys).build()),
+                    0, found));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(done -> xrefs.stream().map(found::get).filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<Void> batchGet(final Map<String, KeysAndAttributes> requestItems, final int attempt,
+                                             final Map<String, Bet> found) {
+        if (requestItems == null || requestItems.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (attempt >= Backoff.MAX_ATTEMPTS) {
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(
+                    new IllegalStateException("Unable to read all bets after " + attempt + " attempts"));
+            return failed;
+        }
+        final Executor executor = attempt == 0 ? Runnable::run
+                : CompletableFuture.delayedExecutor(Backoff.delayMillis(attempt), TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> dynamoDb.batchGetItem(
+                        BatchGetItemRequest.builder().requestItems(requestItems).build()), executor)
+                .thenCompose(Function.identity())
+                .handle((result, e) -> {
+                    if (e != null) {
+                        throw translate(e, "Bet table " + tableName);
+                    }
+                    Optional.ofNullable(result.responses()).map(responses -> responses.get(tableName))
+                            .orElse(Collections.emptyList())
+                            .forEach(item -> {
+                                final Bet bet = BetItemMapper.toBet(item);
+                                found.put(bet.getXref(), bet);
+                            });
+                    return result.unprocessedKeys();
+                })
+                .thenCompose(unprocessed -> batchGet(unprocessed, attempt + 1, found));
+    }
+
+    private static CompletionException translate(final Throwable e, final String table) {
+        final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof ResourceNotFoundException) {
+            return new CompletionException(new TableDoesNotExistException(table + " does not exist"));
+        }
+        return e instanceof CompletionException ? (CompletionException) e : new CompletionException(cause);
+    }
+}
@@ -0,0 +1,42 @@
+package com.amazonaws.dao;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter for retrying the unprocessed part of DynamoDB batch calls.
+ */
+final class Backoff {
+    static final int MAX_ATTEMPTS = 8;
+    private static final long BASE_MILLIS = 25;
+    private static final long CAP_MILLIS = 1000;
+
+    private Backoff() {
+    }
+
+    /**
+     * Sleeps before the given retry attempt.
+     *
+     * @param attempt 1 for the first retry, 2 for the second and so on
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     */
+    static void pause(final int attempt) {
+        try {
+            Thread.sleep(delayMillis(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying unprocessed batch items");
+        }
+    }
+
+    /**
+     * Picks how long to wait before the given retry attempt, for callers that schedule the retry
+     * rather than sleep.
+     *
+     * @param attempt 1 for the first retry, 2 for the second and so on
+     * @return milliseconds to wait
+     */
+    static long delayMillis(final int attempt) {
+        final long ceiling = Math.min(CAP_MILLIS, BASE_MILLIS << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
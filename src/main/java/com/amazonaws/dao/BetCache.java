@@ -0,0 +1,180 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.model.Bet;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, expiring, in-memory map of bets keyed by xref.
+ *
+ * <p>Entries are evicted least-recently-used once maxSize is reached and are ignored after ttl.
+ * Writes are version aware: a bet is only stored if its version is not older than what the cache
+ * already holds for that xref, so a slow read that started before an update cannot overwrite the
+ * updated bet. Deletes leave a tombstone carrying the deleted version for the same reason.
+ */
+public class BetCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder staleFills = new LongAdder();
+
+    /**
+     * Constructs a BetCache.
+     *
+     * @param maxSize maximum number of xrefs to hold
+     * @param ttl     how long an entry may be served after it was stored
+     * @param unit    unit of ttl
+     */
+    public BetCache(final int maxSize, final long ttl, final TimeUnit unit) {
+        this(maxSize, ttl, unit, System::nanoTime);
+    }
+
+    BetCache(final int maxSize, final long ttl, final TimeUnit unit, final LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(Math.min(maxSize, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                if (size() > BetCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached bet.
+     *
+     * @param xref bet xref
+     * @return the bet, or null if it is not cached, expired or known to be deleted
+     */
+    public synchronized Bet get(final String xref) {
+        final Entry entry = entries.get(xref);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (clock.getAsLong() - entry.storedAt > ttlNanos) {
+            entries.remove(xref);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        if (entry.bet == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.bet;
+    }
+
+    /**
+     * Stores a bet unless the cache already holds a newer version (or a newer tombstone) for it.
+     *
+     * @param bet bet read from or written to the backing store
+     */
+    public synchronized void put(final Bet bet) {
+        if (bet == null || bet.getXref() == null) {
+            return;
+        }
+        final long version = bet.getVersion() == null ? 0L : bet.getVersion();
+        final Entry existing = entries.get(bet.getXref());
+        if (existing != null && (existing.version > version || existing.bet == null && existing.version == version)) {
+            staleFills.increment();
+            return;
+        }
+        entries.put(bet.getXref(), new Entry(bet, version, clock.getAsLong()));
+    }
+
+    /**
+     * Records that a bet was deleted so that in-flight reads of older versions are not cached.
+     *
+     * @param xref    bet xref
+     * @param version version of the bet that was deleted
+     */
+    public synchronized void putTombstone(final String xref, final long version) {
+        entries.put(xref, new Entry(null, version, clock.getAsLong()));
+    }
+
+    /**
+     * Drops any entry for an xref.
+     *
+     * @param xref bet xref
+     */
+    public synchronized void invalidate(final String xref) {
+        entries.remove(xref);
+    }
+
+    /**
+     * Drops the cached bet for an xref if it is older than version, leaving newer bets and
+     * tombstones in place.
+     *
+     * @param xref    bet xref
+     * @param version version seen for the bet somewhere the cache cannot be filled from
+     */
+    public synchronized void invalidateOlderThan(final String xref, final long version) {
+        final Entry existing = entries.get(xref);
+        if (existing != null && existing.bet != null && existing.version < version) {
+            entries.remove(xref);
+        }
+    }
+
+    /**
+     * Returns the cache counters.
+     *
+     * @return point in time view of the cache
+     */
+    public Stats stats() {
+        final int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return Stats.builder()
+                .size(size)
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .staleFills(staleFills.sum())
+                .build();
+    }
+
+    private static final class Entry {
+        private final Bet bet;
+        private final long version;
+        private final long storedAt;
+
+        private Entry(final Bet bet, final long version, final long storedAt) {
+            this.bet = bet;
+            this.version = version;
+            this.storedAt = storedAt;
+        }
+    }
+
+    @Getter
+    @Builder
+    @ToString
+    public static class Stats {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long staleFills;
+    }
+}
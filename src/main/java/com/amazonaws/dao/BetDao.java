@@ -6,29 +6,62 @@ import com.amazonaws.exception.TableDoesNotExistException;
 import com.amazonaws.exception.UnableToDeleteException;
 import com.amazonaws.exception.UnableToUpdateException;
 import com.amazonaws.model.Bet;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.Deadline;
 import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
 
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
-import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
-public class BetDao {
+public class BetDao implements BetStore {
 
     private static final String UPDATE_EXPRESSION = "SET commissionerXref = :comxref, " +
             "title = :t, " +
@@ -38,227 +71,667 @@ public class BetDao {
             "conditionsDeadline = :cond, " +
             "punishmentDeadline = :pund, " +
             "resultXref = :rxref, " +
-            "isComplete = :com";
-    private static final String XREF = "xref";
+            "isComplete = :com, " +
+            "conditionsDeadlineDay = :condday, " +
+            "punishmentDeadlineDay = :punday, " +
+            "version = :nv";
+    private static final String XREF = BetItemMapper.XREF;
+    private static final int BATCH_GET_LIMIT = 100;
+    private static final int BATCH_WRITE_LIMIT = 25;
+    private static final int MAX_DEADLINE_WINDOW_DAYS = 366;
+    // a transaction holds at most 100 items: the bet and one copy per user
+    private static final int MAX_USERS = 99;
+    // the Postgres comment column is varchar(512); both backends accept the same comments
+    static final int MAX_COMMENT_LENGTH = 512;
 
     private final String tableName;
+    private final String userBetsTableName;
     private final DynamoDbClient dynamoDb;
+    private final int pageSize;
+    private final Executor batchWriteExecutor;
+    private final Supplier<AsyncBetDao> asyncBetDao;
+    private final IdGenerator idGenerator;
+    // shares the unmodifiable item, which each caller converts into a Bet of its own
+    private final SingleFlight<String, Map<String, AttributeValue>> getBetFlights = new SingleFlight<>();
 
     /**
-     * Constructs an BetDao.
+     * Constructs an BetDao that writes bulk creates one chunk at a time on the calling thread.
      * 
-     * @param dynamoDb  dynamodb client
-     * @param tableName name of table to use for bets
-     * @param pageSize  size of pages for getBets
+     * @param dynamoDb          dynamodb client
+     * @param tableName         name of table to use for bets
+     * @param userBetsTableName name of table holding each user's copies of their bets
+     * @param pageSize          size of pages for getBets
+     */
+    public BetDao(final DynamoDbClient dynamoDb, final String tableName, final String userBetsTableName,
+                  final int pageSize) {
+        this(dynamoDb, tableName, userBetsTableName, pageSize, Runnable::run);
+    }
+
+    /**
+     * Constructs an BetDao.
+     *
+     * @param dynamoDb           dynamodb client
+     * @param tableName          name of table to use for bets
+     * @param userBetsTableName  name of table holding each user's copies of their bets
+     * @param pageSize           size of pages for getBets
+     * @param batchWriteExecutor runs the BatchWriteItem chunks of a bulk create in parallel
+     */
+    public BetDao(final DynamoDbClient dynamoDb, final String tableName, final String userBetsTableName,
+                  final int pageSize, final Executor batchWriteExecutor) {
+        this(dynamoDb, tableName, userBetsTableName, pageSize, batchWriteExecutor, null);
+    }
+
+    /**
+     * Constructs an BetDao that serves the async reads through an {@link AsyncBetDao}.
+     *
+     * @param dynamoDb           dynamodb client
+     * @param tableName          name of table to use for bets
+     * @param userBetsTableName  name of table holding each user's copies of their bets
+     * @param pageSize           size of pages for getBets
+     * @param batchWriteExecutor runs the BatchWriteItem chunks of a bulk create in parallel
+     * @param asyncBetDao        called on the first async read, or null to read on the calling thread
+     */
+    public BetDao(final DynamoDbClient dynamoDb, final String tableName, final String userBetsTableName,
+                  final int pageSize, final Executor batchWriteExecutor, final Supplier<AsyncBetDao> asyncBetDao) {
+        this(dynamoDb, tableName, userBetsTableName, pageSize, batchWriteExecutor, asyncBetDao,
+                new TimeOrderedIdGenerator());
+    }
+
+    /**
+     * Constructs an BetDao that serves the async reads through an {@link AsyncBetDao} and gives new
+     * bets ids from idGenerator.
+     *
+     * @param dynamoDb           dynamodb client
+     * @param tableName          name of table to use for bets
+     * @param userBetsTableName  name of table holding each user's copies of their bets
+     * @param pageSize           size of pages for getBets
+     * @param batchWriteExecutor runs the BatchWriteItem chunks of a bulk create in parallel
+     * @param asyncBetDao        called on the first async read, or null to read on the calling thread
+     * @param idGenerator        generator of new bets' ids and xrefs
      */
-    public BetDao(final DynamoDbClient dynamoDb, final String tableName, final int pageSize) {
+    public BetDao(final DynamoDbClient dynamoDb, final String tableName, final String userBetsTableName,
+                  final int pageSize, final Executor batchWriteExecutor, final Supplier<AsyncBetDao> asyncBetDao,
+                  final IdGenerator idGenerator) {
         this.dynamoDb = dynamoDb;
         this.tableName = tableName;
+        this.userBetsTableName = userBetsTableName;
+        this.pageSize = pageSize;
+        this.batchWriteExecutor = batchWriteExecutor;
+        this.asyncBetDao = asyncBetDao;
+        this.idGenerator = idGenerator;
     }
 
-    private Bet convert(final Map<String, AttributeValue> item) {
-        if (item == null || item.isEmpty()) {
-            return null;
-        }
-        Bet.BetBuilder builder = Bet.builder();
-        builder.xref(item.get(XREF).s())
-                .creatorXref(item.get("creatorXref").s())
-                .participants(item.get("participants").ss())
-                .commissionerXref(item.get("commissionerXref").s())
-                .createdAt(new Date(item.get("createdAt").s()))
-                .title(item.get("title").s())
-                .description(item.get("description").s())
-                .conditions(item.get("conditions").s())
-                .punishment(item.get("punishment").s())
-                .conditionsDeadline(new Date(item.get("conditionsDeadline").s()))
-                .punishmentDeadline(new Date(item.get("punishmentDeadline").s()))
-                .version(Long.valueOf(item.get("version").n()));
-        try {
-            builder.resultXref(item.get("resultXref").s());
-        } catch (NullPointerException e) { }
-        try {
-            builder.comments(item.get("comments").ss());
-        } catch (NullPointerException e) { }
-        try {
-            builder.isComplete(item.get("isComplete").bool());
-        } catch (NullPointerException e) { }
-        return builder.build();
+    // package-private so BetDaoBenchmark can measure it
+    Bet convert(final Map<String, AttributeValue> item) {
+        return BetItemMapper.toBet(item);
+    }
+
+    Map<String, AttributeValue> updateBetItem(final BetRequest bet) {
+        return BetItemMapper.toUpdateValues(bet);
+    }
+
+    Map<String, AttributeValue> createBetItem(final BetRequest bet) {
+        return BetItemMapper.toNewItem(bet, idGenerator);
+    }
+
+    /**
+     * Returns an bet or throws if the bet does not exist.
+     * 
+     * Concurrent calls for the same xref share one GetItem call, so a burst of reads of one popular
+     * bet costs a single round trip. Each caller still gets a Bet of its own, and a call that starts
+     * after a write to the bet has returned does not share a GetItem that started before it.
+     *
+     * @param xref id of bet to get
+     * @return the bet if it exists
+     * @throws BetDoesNotExistException if the bet does not exist
+     */
+    @Override
+    public Bet getBet(final String xref) {
+        return convert(getBetFlights.run(xref, () -> readBetItem(xref)));
     }
 
-    private Map<String, AttributeValue> updateBetItem(final BetRequest bet) {
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put(":comxref", AttributeValue.builder().s(bet.getCommissionerXref()).build());
+    private Map<String, AttributeValue> readBetItem(final String xref) {
         try {
-            item.put(":t", AttributeValue.builder().s(bet.getTitle().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("title must be defined");
+            return Optional
+                    .ofNullable(dynamoDb.getItem(GetItemRequest.builder().tableName(tableName)
+                            .key(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build())).build()))
+                    .map(GetItemResponse::item).filter(item -> !item.isEmpty())
+                    .orElseThrow(() -> new BetDoesNotExistException("Bet " + xref + " does not exist"));
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
         }
-        item.put(":des", AttributeValue.builder().s(bet.getDescription()).build());
-        try {
-            item.put(":con", AttributeValue.builder().s(bet.getConditions().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("conditions must be defined");
+    }
+
+    /**
+     * Returns a page of bets. Each call reads at most pageSize items, so listing the whole table
+     * is done by following the returned lastEvaluatedKey until it is null.
+     *
+     * @param exclusiveStartKey continuation token from a previous page, or null for the first page
+     * @return a page of bets and the token for the next page, null when there are no more pages
+     * @throws IllegalArgumentException if the continuation token is malformed
+     */
+    @Override
+    public BetPage getBets(final String exclusiveStartKey) {
+        ScanRequest.Builder scanBuilder = ScanRequest.builder().tableName(tableName).limit(pageSize);
+        if (!isNullOrEmpty(exclusiveStartKey)) {
+            scanBuilder.exclusiveStartKey(PageTokens.decode(exclusiveStartKey));
         }
+        final ScanResponse result;
         try {
-            item.put(":pun", AttributeValue.builder().s(bet.getPunishment().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("punishment must be defined");
+            result = dynamoDb.scan(scanBuilder.build());
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
         }
-        try {
-            item.put(":cond", AttributeValue.builder().s(bet.getConditionsDeadline().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("conditionsDeadline must be defined");
+        final List<Bet> bets = Optional.ofNullable(result.items()).orElse(Collections.emptyList()).stream()
+                .map(this::convert)
+                .collect(Collectors.toList());
+        return BetPage.builder()
+                .bets(bets)
+                .lastEvaluatedKey(PageTokens.encode(result.lastEvaluatedKey()))
+                .build();
+    }
+
+    /**
+     * Returns a page of bets whose deadline falls in [from, to), ordered by deadline within each
+     * day.
+     *
+     * <p>Deadlines are indexed by UTC day ({@code conditionsDeadlineIndex} and
+     * {@code punishmentDeadlineIndex}, hashed on the day and sorted by the deadline) so that no
+     * single partition holds every bet. A page is filled by querying the days in the window in
+     * order; the continuation token records the day to resume in, and the position within it.
+     *
+     * @param deadline          which deadline to match
+     * @param from              inclusive start of the window
+     * @param to                exclusive end of the window, at most 366 days after from
+     * @param exclusiveStartKey continuation token from a previous page, or null for the first page
+     * @return a page of bets and the token for the next page, null when there are no more pages
+     * @throws IllegalArgumentException if the window or the continuation token is invalid
+     */
+    @Override
+    public BetPage findByDeadline(final Deadline deadline, final Date from, final Date to,
+                                  final String exclusiveStartKey) {
+        validateWindow(deadline, from, to);
+        final String indexName;
+        final String dayAttribute;
+        final String deadlineAttribute;
+        if (deadline == Deadline.CONDITIONS) {
+            indexName = "conditionsDeadlineIndex";
+            dayAttribute = BetItemMapper.CONDITIONS_DEADLINE_DAY;
+            deadlineAttribute = BetItemMapper.CONDITIONS_DEADLINE;
+        } else {
+            indexName = "punishmentDeadlineIndex";
+            dayAttribute = BetItemMapper.PUNISHMENT_DEADLINE_DAY;
+            deadlineAttribute = BetItemMapper.PUNISHMENT_DEADLINE;
         }
-        try {
-            item.put(":pund", AttributeValue.builder().s(bet.getPunishmentDeadline().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("punishmentDeadline must be defined");
-        }
-        item.put(":rxref", AttributeValue.builder().s(bet.getResultXref()).build());
-        item.put(":com", AttributeValue.builder().bool(bet.getIsComplete()).build());
-        return item;
-    }
-
-    private Map<String, AttributeValue> createBetItem(final BetRequest bet) {
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put("betId", AttributeValue.builder().s(UUID.randomUUID().toString()).build());
-        item.put(XREF, AttributeValue.builder().s(UUID.randomUUID().toString()).build());
-        item.put("version", AttributeValue.builder().n("1").build());
-        item.put("creatorXref", AttributeValue.builder().s(validateId(bet.getCreatorXref())).build());
-        item.put("participants", AttributeValue.builder().ss(bet.getParticipants()).build());
-        try {
-            item.put("commissionerXref", AttributeValue.builder().s(bet.getCommissionerXref().toString()).build());
-        } catch (NullPointerException e) {
-            item.put("commissionerXref", AttributeValue.builder().s(bet.getCreatorXref()).build());
+        final String firstDay = BetItemMapper.day(from).s();
+        final String lastDay = BetItemMapper.day(new Date(to.getTime() - 1)).s();
+        String day = firstDay;
+        Map<String, AttributeValue> startKey = null;
+        if (!isNullOrEmpty(exclusiveStartKey)) {
+            final Map<String, AttributeValue> token = PageTokens.decode(exclusiveStartKey);
+            final AttributeValue tokenDay = token.get(dayAttribute);
+            // a token from another window, or a forged one, must not walk days outside this window
+            if (tokenDay == null || !isDayWithin(tokenDay.s(), firstDay, lastDay)) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            day = tokenDay.s();
+            // a token holding only the day starts that day from the beginning
+            startKey = token.size() > 1 ? token : null;
         }
-        item.put("createdAt", AttributeValue.builder().s(new Date().toString()).build());
-        try {
-            item.put("title", AttributeValue.builder().s(bet.getTitle().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("title must be defined");
+        final Map<String, AttributeValue> values = new HashMap<>(4);
+        values.put(":from", BetItemMapper.date(from));
+        values.put(":to", BetItemMapper.date(new Date(to.getTime() - 1)));
+        final List<Bet> bets = new ArrayList<>(pageSize);
+        while (true) {
+            values.put(":day", AttributeValue.builder().s(day).build());
+            final QueryRequest.Builder query = QueryRequest.builder()
+                    .tableName(tableName)
+                    .indexName(indexName)
+                    .keyConditionExpression(
+                            dayAttribute + " = :day AND " + deadlineAttribute + " BETWEEN :from AND :to")
+                    .expressionAttributeValues(values)
+                    .limit(pageSize - bets.size());
+            if (startKey != null) {
+                query.exclusiveStartKey(startKey);
+            }
+            final QueryResponse result;
+            try {
+                result = dynamoDb.query(query.build());
+            } catch (ResourceNotFoundException e) {
+                throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
+            }
+            Optional.ofNullable(result.items()).orElse(Collections.emptyList())
+                    .forEach(item -> bets.add(convert(item)));
+            if (result.lastEvaluatedKey() != null && !result.lastEvaluatedKey().isEmpty()) {
+                return BetPage.builder().bets(bets)
+                        .lastEvaluatedKey(PageTokens.encode(result.lastEvaluatedKey())).build();
+            }
+            day = LocalDate.parse(day).plusDays(1).toString();
+            startKey = null;
+            if (day.compareTo(lastDay) > 0) {
+                return BetPage.builder().bets(bets).lastEvaluatedKey(null).build();
+            }
+            if (bets.size() == pageSize) {
+                return BetPage.builder().bets(bets).lastEvaluatedKey(PageTokens.encode(
+                        Collections.singletonMap(dayAttribute, AttributeValue.builder().s(day).build()))).build();
+            }
         }
-        item.put("description", AttributeValue.builder().s(bet.getDescription()).build());
-        try {
-            item.put("conditions", AttributeValue.builder().s(bet.getConditions().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("conditions must be defined");
+    }
+
+    private static boolean isDayWithin(final String day, final String firstDay, final String lastDay) {
+        if (day == null) {
+            return false;
         }
         try {
-            item.put("punishment", AttributeValue.builder().s(bet.getPunishment().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("punishment must be defined");
+            LocalDate.parse(day);
+        } catch (DateTimeParseException e) {
+            return false;
         }
-        try {
-            item.put("conditionsDeadline", AttributeValue.builder().s(bet.getConditionsDeadline().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("conditionsDeadline must be defined");
+        return day.compareTo(firstDay) >= 0 && day.compareTo(lastDay) <= 0;
+    }
+
+    static void validateWindow(final Deadline deadline, final Date from, final Date to) {
+        if (deadline == null) {
+            throw new IllegalArgumentException("deadline must be defined");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to must be defined");
         }
+        if (!from.before(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (to.getTime() - from.getTime() > TimeUnit.DAYS.toMillis(MAX_DEADLINE_WINDOW_DAYS)) {
+            throw new IllegalArgumentException("window must be at most " + MAX_DEADLINE_WINDOW_DAYS + " days");
+        }
+    }
+
+    /**
+     * Returns a page of the bets a user created or participates in, newest first, with a single
+     * query of the user bets table. Each bet is copied there once per user, keyed on the user's
+     * xref and the bet's creation time, and the copies are kept in step with the bet by the
+     * transactions in {@link #createBet}, {@link #updateBet} and {@link #deleteBet}.
+     *
+     * @param userXref          xref of the user
+     * @param exclusiveStartKey continuation token from a previous page, or null for the first page
+     * @return a page of bets and the token for the next page, null when there are no more pages
+     * @throws IllegalArgumentException if userXref is empty or the continuation token is malformed
+     */
+    @Override
+    public BetPage getBetsForUser(final String userXref, final String exclusiveStartKey) {
+        if (isNullOrEmpty(userXref)) {
+            throw new IllegalArgumentException("userXref was null or empty");
+        }
+        final QueryRequest.Builder query = QueryRequest.builder()
+                .tableName(userBetsTableName)
+                .keyConditionExpression(BetItemMapper.USER_XREF + " = :u")
+                .expressionAttributeValues(Collections.singletonMap(":u", AttributeValue.builder().s(userXref).build()))
+                .scanIndexForward(false)
+                .limit(pageSize);
+        if (!isNullOrEmpty(exclusiveStartKey)) {
+            final Map<String, AttributeValue> startKey = PageTokens.decode(exclusiveStartKey);
+            final AttributeValue tokenUser = startKey.get(BetItemMapper.USER_XREF);
+            if (tokenUser == null || !userXref.equals(tokenUser.s())) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            query.exclusiveStartKey(startKey);
+        }
+        final QueryResponse result;
         try {
-            item.put("punishmentDeadline", AttributeValue.builder().s(bet.getPunishmentDeadline().toString()).build());
-        } catch (NullPointerException e) {
-            throw new IllegalArgumentException("punishmentDeadline must be defined");
+            result = dynamoDb.query(query.build());
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("User bets table " + userBetsTableName + " does not exist");
         }
-        item.put("version", AttributeValue.builder().n("1").build());
-        return item;
+        final List<Bet> bets = Optional.ofNullable(result.items()).orElse(Collections.emptyList()).stream()
+                .map(this::convert)
+                .collect(Collectors.toList());
+        return BetPage.builder()
+                .bets(bets)
+                .lastEvaluatedKey(PageTokens.encode(result.lastEvaluatedKey()))
+                .build();
     }
 
-    private String validateId(final String id) {
-        if (isNullOrEmpty(id)) {
-            throw new IllegalArgumentException("id was null or empty");
+    /**
+     * Returns the bets for many xrefs using BatchGetItem, 100 keys per call. Keys DynamoDB leaves
+     * unprocessed are retried with jittered exponential backoff.
+     *
+     * @param xrefs ids of bets to get
+     * @return the bets that exist, in the order their xrefs were given
+     * @throws IllegalStateException if keys are still unprocessed after the retry budget is spent
+     */
+    @Override
+    public List<Bet> getBets(final Collection<String> xrefs) {
+        if (xrefs == null) {
+            throw new IllegalArgumentException("xrefs was null");
+        }
+        final List<String> uniqueXrefs = new ArrayList<>(new LinkedHashSet<>(xrefs));
+        final Map<String, Bet> found = new HashMap<>(uniqueXrefs.size() * 2);
+        for (int from = 0; from < uniqueXrefs.size(); from += BATCH_GET_LIMIT) {
+            batchGet(uniqueXrefs.subList(from, Math.min(from + BATCH_GET_LIMIT, uniqueXrefs.size())), found);
         }
-        return id;
+        return xrefs.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     /**
-     * Returns an bet or throws if the bet does not exist.
-     * 
-     * @param xref id of bet to get
-     * @return the bet if it exists
-     * @throws BetDoesNotExistException if the bet does not exist
+     * Sends every BatchGetItem call at once through the async client when one was given, so a
+     * large batch takes about as long as its slowest chunk.
      */
-    public Bet getBet(final String xref) {
-        try {
-            return Optional
-                    .ofNullable(dynamoDb.getItem(GetItemRequest.builder().tableName(tableName)
-                            .key(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build())).build()))
-                    .map(GetItemResponse::item).map(this::convert)
-                    .orElseThrow(() -> new BetDoesNotExistException("Bet " + xref + " does not exist"));
-        } catch (ResourceNotFoundException e) {
-            throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
+    @Override
+    public CompletableFuture<List<Bet>> getBetsAsync(final Collection<String> xrefs) {
+        return asyncBetDao == null ? BetStore.super.getBetsAsync(xrefs) : asyncBetDao.get().getBets(xrefs);
+    }
+
+    private void batchGet(final List<String> xrefs, final Map<String, Bet> found) {
+        final List<Map<String, AttributeValue>> keys = new ArrayList<>(xrefs.size());
+        for (String xref : xrefs) {
+            keys.add(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build()));
+        }
+        Map<String, KeysAndAttributes> requestItems =
+                Collections.singletonMap(tableName, KeysAndAttributes.builder().keys(keys).build());
+        int attempt = 0;
+        while (requestItems != null && !requestItems.isEmpty()) {
+            if (attempt > 0) {
+                if (attempt >= Backoff.MAX_ATTEMPTS) {
+                    throw new IllegalStateException("Unable to read all bets after " + attempt + " attempts");
+                }
+                Backoff.pause(attempt);
+            }
+            final BatchGetItemResponse result;
+            try {
+                result = dynamoDb.batchGetItem(BatchGetItemRequest.builder().requestItems(requestItems).build());
+            } catch (ResourceNotFoundException e) {
+                throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
+            }
+            Optional.ofNullable(result.responses()).map(responses -> responses.get(tableName))
+                    .orElse(Collections.emptyList())
+                    .forEach(item -> {
+                        final Bet bet = convert(item);
+                        found.put(bet.getXref(), bet);
+                    });
+            requestItems = result.unprocessedKeys();
+            attempt++;
         }
     }
 
     /**
-     * Updates an bet object.
+     * Updates an bet object. The bet and every user's copy of it are written in one transaction,
+     * conditional on the bet still having the version in the request.
      * 
      * @param betRequest bet to update
      * @return updated bet
      */
+    @Override
     public Bet updateBet(final BetRequest betRequest) {
+        final String xref = validateUpdate(betRequest);
+        Map<String, AttributeValue> expressionAttributeValues = updateBetItem(betRequest);
+        if (betRequest.getVersion() == null) {
+            throw new IllegalArgumentException("version must be defined");
+        }
+        final long version = betRequest.getVersion();
+        expressionAttributeValues.put(":nv", AttributeValue.builder().n(Long.toString(version + 1)).build());
+        return writeUpdate(xref, version, UPDATE_EXPRESSION, expressionAttributeValues);
+    }
+
+    /**
+     * Updates only the attributes a request sets. The update expression is built from those
+     * attributes and increments the version in place, conditional on the version in the request,
+     * so flipping isComplete is one plain UpdateItem with no prior read and no transaction.
+     * Each user's copy is then replaced with the updated bet by a put that only lands on an
+     * existing copy of an older version, so copies catch up in any order like the version raises
+     * after a comment, and a copy removed by deleteBet is not recreated.
+     *
+     * @param betRequest xref, current version and the attributes to change
+     * @return updated bet
+     * @throws IllegalArgumentException if the request changes no attribute
+     */
+    @Override
+    public Bet patchBet(final BetRequest betRequest) {
+        final String xref = validateUpdate(betRequest);
+        if (betRequest.getVersion() == null) {
+            throw new IllegalArgumentException("version must be defined");
+        }
+        final Map<String, AttributeValue> expressionAttributeValues = BetItemMapper.toPatchValues(betRequest);
+        if (expressionAttributeValues.isEmpty()) {
+            throw new IllegalArgumentException("No attributes to update");
+        }
+        final String updateExpression = BetItemMapper.toSetExpression(expressionAttributeValues)
+                + ", " + BetItemMapper.VERSION + " = " + BetItemMapper.VERSION + " + :one";
+        expressionAttributeValues.put(":one", AttributeValue.builder().n("1").build());
+        expressionAttributeValues.put(":v", AttributeValue.builder().n(Long.toString(betRequest.getVersion())).build());
+        final Map<String, AttributeValue> updated;
+        try {
+            updated = dynamoDb.updateItem(UpdateItemRequest.builder().tableName(tableName)
+                    .key(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build()))
+                    .updateExpression(updateExpression)
+                    .conditionExpression("attribute_exists(xref) AND version = :v")
+                    .expressionAttributeValues(expressionAttributeValues)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build()).attributes();
+        } catch (ConditionalCheckFailedException e) {
+            throw new UnableToUpdateException("Either the bet did not exist or the provided version was not current");
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
+        }
+        getBetFlights.forget(xref);
+        replaceOlderUserCopies(updated);
+        return convert(updated);
+    }
+
+    private static String validateUpdate(final BetRequest betRequest) {
         if (betRequest == null) {
             throw new IllegalArgumentException("Bet to update was null");
         }
-        String xref = betRequest.getXref();
-        if (isNullOrEmpty(xref)) {
+        if (isNullOrEmpty(betRequest.getXref())) {
             throw new IllegalArgumentException("xref was null or empty");
         }
-        Map<String, AttributeValue> expressionAttributeValues = updateBetItem(betRequest);
-        final UpdateItemResponse result;
+        return betRequest.getXref();
+    }
+
+    private Bet writeUpdate(final String xref, final long version, final String updateExpression,
+                            final Map<String, AttributeValue> expressionAttributeValues) {
+        final Map<String, AttributeValue> existing = getBetItem(xref);
+        if (existing == null || !Long.toString(version).equals(existing.get(BetItemMapper.VERSION).n())) {
+            throw new UnableToUpdateException("Either the bet did not exist or the provided version was not current");
+        }
+        final Map<String, AttributeValue> updated =
+                BetItemMapper.withUpdate(existing, expressionAttributeValues, version + 1);
+        expressionAttributeValues.put(":v", AttributeValue.builder().n(Long.toString(version)).build());
+        final List<TransactWriteItem> writes = new ArrayList<>();
+        writes.add(TransactWriteItem.builder().update(Update.builder().tableName(tableName)
+                .key(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build()))
+                .updateExpression(updateExpression)
+                .conditionExpression("attribute_exists(xref) AND version = :v")
+                .expressionAttributeValues(expressionAttributeValues).build()).build());
+        for (String userXref : BetItemMapper.users(updated)) {
+            writes.add(TransactWriteItem.builder().put(Put.builder().tableName(userBetsTableName)
+                    .item(BetItemMapper.toUserItem(updated, userXref)).build()).build());
+        }
         try {
-            result = dynamoDb.updateItem(UpdateItemRequest.builder().tableName(tableName)
-                    .key(Collections.singletonMap(XREF, AttributeValue.builder().s(betRequest.getXref()).build()))
-                    .returnValues(ReturnValue.ALL_NEW).updateExpression(UPDATE_EXPRESSION)
-                    .conditionExpression("attribute_exists(xref) AND version = :v")
-                    .expressionAttributeValues(expressionAttributeValues).build());
-        } catch (ConditionalCheckFailedException e) {
+            dynamoDb.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(writes).build());
+        } catch (TransactionCanceledException e) {
             throw new UnableToUpdateException("Either the bet did not exist or the provided version was not current");
         } catch (ResourceNotFoundException e) {
             throw new TableDoesNotExistException(
                     "Bet table " + tableName + " does not exist and was deleted after reading the bet");
         }
-        return convert(result.attributes());
+        getBetFlights.forget(xref);
+        return convert(updated);
+    }
+
+    /**
+     * Adds a comment to a bet with a single ADD on its comments set. The write takes no version
+     * condition, so concurrent commenters never conflict with each other, but it does bump the
+     * version so caches and clients holding the old one see the change.
+     *
+     * @param xref    bet id of bet to comment on
+     * @param comment comment to add; adding one the bet already has only bumps the version
+     * @return the bet with the comment
+     * @throws BetDoesNotExistException if the bet does not exist
+     */
+    @Override
+    public Bet addComment(final String xref, final String comment) {
+        return updateComments(xref, comment, "ADD");
+    }
+
+    /**
+     * Removes a comment from a bet with a single DELETE on its comments set, with the same
+     * concurrency as {@link #addComment}.
+     *
+     * @param xref    bet id of bet to remove the comment from
+     * @param comment comment to remove; removing one the bet does not have only bumps the version
+     * @return the bet without the comment
+     * @throws BetDoesNotExistException if the bet does not exist
+     */
+    @Override
+    public Bet removeComment(final String xref, final String comment) {
+        return updateComments(xref, comment, "DELETE");
+    }
+
+    private Bet updateComments(final String xref, final String comment, final String action) {
+        if (isNullOrEmpty(xref)) {
+            throw new IllegalArgumentException("xref was null or empty");
+        }
+        validateComment(comment);
+        final Map<String, AttributeValue> values = new HashMap<>(4);
+        values.put(":c", AttributeValue.builder().ss(comment).build());
+        values.put(":one", AttributeValue.builder().n("1").build());
+        final Map<String, AttributeValue> updated;
+        try {
+            updated = dynamoDb.updateItem(UpdateItemRequest.builder().tableName(tableName)
+                    .key(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build()))
+                    .updateExpression(action + " " + BetItemMapper.COMMENTS + " :c"
+                            // DELETE only applies to sets, so the version bump needs an ADD clause of its own
+                            + ("ADD".equals(action) ? ", " : " ADD ") + BetItemMapper.VERSION + " :one")
+                    .conditionExpression("attribute_exists(xref)")
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build()).attributes();
+        } catch (ConditionalCheckFailedException e) {
+            throw new BetDoesNotExistException("Bet " + xref + " does not exist");
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
+        }
+        getBetFlights.forget(xref);
+        raiseUserCopyVersions(updated);
+        return convert(updated);
+    }
+
+    private void replaceOlderUserCopies(final Map<String, AttributeValue> item) {
+        final Map<String, AttributeValue> values =
+                Collections.singletonMap(":nv", item.get(BetItemMapper.VERSION));
+        for (String userXref : BetItemMapper.users(item)) {
+            try {
+                dynamoDb.putItem(PutItemRequest.builder().tableName(userBetsTableName)
+                        .item(BetItemMapper.toUserItem(item, userXref))
+                        .conditionExpression("attribute_exists(" + BetItemMapper.USER_XREF + ") AND "
+                                + BetItemMapper.VERSION + " < :nv")
+                        .expressionAttributeValues(values)
+                        .build());
+            } catch (ConditionalCheckFailedException e) {
+                // the copy is already at this version or later, or the bet has been deleted
+            } catch (ResourceNotFoundException e) {
+                throw new TableDoesNotExistException("User bets table " + userBetsTableName + " does not exist");
+            }
+        }
+    }
+
+    /**
+     * Brings the version on each user's copy of a bet up to the bet's. Copies do not hold comments,
+     * so nothing else changes. Each copy is only ever raised, never lowered, so these writes can land
+     * in any order relative to updateBet's and patchBet's puts, and a copy removed by deleteBet is not
+     * recreated.
+     */
+    private void raiseUserCopyVersions(final Map<String, AttributeValue> item) {
+        final Map<String, AttributeValue> values =
+                Collections.singletonMap(":nv", item.get(BetItemMapper.VERSION));
+        for (String userXref : BetItemMapper.users(item)) {
+            try {
+                dynamoDb.updateItem(UpdateItemRequest.builder().tableName(userBetsTableName)
+                        .key(BetItemMapper.userKey(item, userXref))
+                        .updateExpression("SET " + BetItemMapper.VERSION + " = :nv")
+                        .conditionExpression("attribute_exists(" + BetItemMapper.USER_XREF + ") AND "
+                                + BetItemMapper.VERSION + " < :nv")
+                        .expressionAttributeValues(values)
+                        .build());
+            } catch (ConditionalCheckFailedException e) {
+                // the copy is already at this version or later, or the bet has been deleted
+            } catch (ResourceNotFoundException e) {
+                throw new TableDoesNotExistException("User bets table " + userBetsTableName + " does not exist");
+            }
+        }
+    }
+
+    static void validateComment(final String comment) {
+        if (comment == null || comment.isEmpty()) {
+            throw new IllegalArgumentException("comment must be defined");
+        }
+        if (comment.length() > MAX_COMMENT_LENGTH) {
+            throw new IllegalArgumentException("comment must be at most " + MAX_COMMENT_LENGTH + " characters");
+        }
     }
 
     /**
-     * Deletes an bet.
+     * Deletes an bet and every user's copy of it in one transaction, conditional on the bet not
+     * having changed since it was read.
      * 
      * @param xref bet id of bet to delete
      * @return the deleted bet
      */
+    @Override
     public Bet deleteBet(final String xref) {
+        final Map<String, AttributeValue> existing = getBetItem(xref);
+        if (existing == null) {
+            throw new BetDoesNotExistException("Bet " + xref + " does not exist");
+        }
+        final List<TransactWriteItem> writes = new ArrayList<>();
+        writes.add(TransactWriteItem.builder().delete(Delete.builder().tableName(tableName)
+                .key(Collections.singletonMap(XREF, existing.get(XREF)))
+                .conditionExpression("version = :v")
+                .expressionAttributeValues(Collections.singletonMap(":v", existing.get(BetItemMapper.VERSION)))
+                .build()).build());
+        for (String userXref : BetItemMapper.users(existing)) {
+            writes.add(TransactWriteItem.builder().delete(Delete.builder().tableName(userBetsTableName)
+                    .key(BetItemMapper.userKey(existing, userXref)).build()).build());
+        }
         try {
-            return Optional
-                    .ofNullable(dynamoDb.deleteItem(DeleteItemRequest.builder().tableName(tableName)
-                            .key(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build()))
-                            .conditionExpression("attribute_exists(xref)").returnValues(ReturnValue.ALL_OLD).build()))
-                    .map(DeleteItemResponse::attributes).map(this::convert)
-                    .orElseThrow(() -> new IllegalStateException("Condition passed but deleted item was null"));
-        } catch (ConditionalCheckFailedException e) {
+            dynamoDb.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(writes).build());
+        } catch (TransactionCanceledException e) {
             throw new UnableToDeleteException("A competing request changed the bet while processing this request");
         } catch (ResourceNotFoundException e) {
             throw new TableDoesNotExistException(
                     "Bet table " + tableName + " does not exist and was deleted after reading the bet");
         }
+        getBetFlights.forget(xref);
+        return convert(existing);
     }
 
     /**
-     * Creates an bet.
+     * Creates an bet and a copy of it for its creator and each participant in one transaction.
      * 
      * @param betRequest details of bet to create
      * @return created bet
      */
+    @Override
     public Bet createBet(final BetRequest betRequest) {
         if (betRequest == null) {
             throw new IllegalArgumentException("BetRequest was null");
         }
         int tries = 0;
         while (tries < 3) {
+            Map<String, AttributeValue> item = createBetItem(betRequest);
+            final List<TransactWriteItem> writes = new ArrayList<>();
+            writes.add(TransactWriteItem.builder().put(Put.builder().tableName(tableName).item(item)
+                    .conditionExpression("attribute_not_exists(xref)").build()).build());
+            for (String userXref : usersWithinLimit(item)) {
+                writes.add(TransactWriteItem.builder().put(Put.builder().tableName(userBetsTableName)
+                        .item(BetItemMapper.toUserItem(item, userXref)).build()).build());
+            }
             try {
-                Map<String, AttributeValue> item = createBetItem(betRequest);
-                dynamoDb.putItem(PutItemRequest.builder().tableName(tableName).item(item)
-                        .conditionExpression("attribute_not_exists(xref)").build());
+                dynamoDb.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(writes).build());
                 return convert(item);
-            } catch (ConditionalCheckFailedException e) {
+            } catch (TransactionCanceledException e) {
+                if (!isConditionalCheckFailed(e)) {
+                    throw new CouldNotCreateBetException("Unable to create bet: " + e.getMessage());
+                }
                 tries++;
             } catch (ResourceNotFoundException e) {
                 throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
@@ -267,6 +740,150 @@ public class BetDao {
         throw new CouldNotCreateBetException("Unable to generate unique bet id after " + tries + " tries");
     }
 
+    /**
+     * Creates many bets with BatchWriteItem, 25 items per call, with chunks written in parallel.
+     * Items DynamoDB leaves unprocessed are retried with jittered exponential backoff.
+     *
+     * <p>BatchWriteItem does not support condition expressions, so unlike {@link #createBet} the
+     * attribute_not_exists(xref) guard cannot be applied. Bulk mode instead relies on every item
+     * getting a freshly generated xref: a collision with an existing bet is as unlikely as two
+     * UUIDs sharing their random bits, but if one happened the existing item would be overwritten rather than
+     * the write retried. Callers that need the hard guarantee should use {@link #createBet}.
+     *
+     * <p>For the same reason the users' copies of each chunk are written after its bets rather
+     * than in a transaction with them. A bet whose copies could not all be written is reported as
+     * failed even though the bet itself exists.
+     *
+     * @param betRequests details of bets to create
+     * @return one result per request, in request order
+     */
+    @Override
+    public List<BetCreateResult> createBets(final List<BetRequest> betRequests) {
+        if (betRequests == null) {
+            throw new IllegalArgumentException("BetRequests was null");
+        }
+        final BetCreateResult[] results = new BetCreateResult[betRequests.size()];
+        final List<Map<String, AttributeValue>> items = new ArrayList<>(betRequests.size());
+        final Map<String, Integer> indexByXref = new HashMap<>(betRequests.size() * 2);
+        for (int i = 0; i < betRequests.size(); i++) {
+            final BetRequest betRequest = betRequests.get(i);
+            if (betRequest == null) {
+                results[i] = BetCreateResult.failed(i, 400, "BetRequest was null");
+                continue;
+            }
+            try {
+                final Map<String, AttributeValue> item = createBetItem(betRequest);
+                usersWithinLimit(item);
+                indexByXref.put(item.get(XREF).s(), i);
+                items.add(item);
+            } catch (IllegalArgumentException e) {
+                results[i] = BetCreateResult.failed(i, 400, e.getMessage());
+            }
+        }
+        final List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BATCH_WRITE_LIMIT) {
+            final List<Map<String, AttributeValue>> chunk =
+                    items.subList(from, Math.min(from + BATCH_WRITE_LIMIT, items.size()));
+            chunks.add(CompletableFuture.runAsync(() -> createChunk(chunk, indexByXref, results), batchWriteExecutor));
+        }
+        try {
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return Arrays.asList(results);
+    }
+
+    private void createChunk(final List<Map<String, AttributeValue>> items, final Map<String, Integer> indexByXref,
+                             final BetCreateResult[] results) {
+        final Set<String> unwritten = batchWrite(tableName, items);
+        final List<Map<String, AttributeValue>> userItems = new ArrayList<>();
+        for (Map<String, AttributeValue> item : items) {
+            if (!unwritten.contains(item.get(XREF).s())) {
+                for (String userXref : BetItemMapper.users(item)) {
+                    userItems.add(BetItemMapper.toUserItem(item, userXref));
+                }
+            }
+        }
+        final Set<String> unindexed = new HashSet<>();
+        for (int from = 0; from < userItems.size(); from += BATCH_WRITE_LIMIT) {
+            unindexed.addAll(batchWrite(userBetsTableName,
+                    userItems.subList(from, Math.min(from + BATCH_WRITE_LIMIT, userItems.size()))));
+        }
+        for (Map<String, AttributeValue> item : items) {
+            final String xref = item.get(XREF).s();
+            final int index = indexByXref.get(xref);
+            if (unwritten.contains(xref)) {
+                results[index] = BetCreateResult.failed(index, 500,
+                        "Unable to write bet after " + Backoff.MAX_ATTEMPTS + " attempts");
+            } else if (unindexed.contains(xref)) {
+                results[index] = BetCreateResult.failed(index, 500,
+                        "Bet " + xref + " was written but could not be added to all of its users' bets");
+            } else {
+                results[index] = BetCreateResult.created(index, convert(item));
+            }
+        }
+    }
+
+    /**
+     * Writes up to 25 items to a table, retrying unprocessed items.
+     *
+     * @return xrefs of the items still unprocessed once the retry budget is spent
+     */
+    private Set<String> batchWrite(final String table, final List<Map<String, AttributeValue>> items) {
+        List<WriteRequest> writeRequests = new ArrayList<>(items.size());
+        for (Map<String, AttributeValue> item : items) {
+            writeRequests.add(WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build());
+        }
+        int attempt = 0;
+        while (!writeRequests.isEmpty() && attempt < Backoff.MAX_ATTEMPTS) {
+            if (attempt > 0) {
+                Backoff.pause(attempt);
+            }
+            final BatchWriteItemResponse result;
+            try {
+                result = dynamoDb.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(Collections.singletonMap(table, writeRequests)).build());
+            } catch (ResourceNotFoundException e) {
+                throw new TableDoesNotExistException("Table " + table + " does not exist");
+            }
+            writeRequests = new ArrayList<>(Optional.ofNullable(result.unprocessedItems())
+                    .map(unprocessedItems -> unprocessedItems.get(table))
+                    .orElse(Collections.emptyList()));
+            attempt++;
+        }
+        final Set<String> unprocessed = new HashSet<>(writeRequests.size() * 2);
+        writeRequests.forEach(request -> unprocessed.add(request.putRequest().item().get(XREF).s()));
+        return unprocessed;
+    }
+
+    private Map<String, AttributeValue> getBetItem(final String xref) {
+        try {
+            final GetItemResponse result = dynamoDb.getItem(GetItemRequest.builder().tableName(tableName)
+                    .key(Collections.singletonMap(XREF, AttributeValue.builder().s(xref).build()))
+                    .consistentRead(true).build());
+            return result == null || result.item() == null || result.item().isEmpty() ? null : result.item();
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
+        }
+    }
+
+    private static Set<String> usersWithinLimit(final Map<String, AttributeValue> item) {
+        final Set<String> users = BetItemMapper.users(item);
+        if (users.size() > MAX_USERS) {
+            throw new IllegalArgumentException("a bet can have at most " + MAX_USERS + " users");
+        }
+        return users;
+    }
+
+    private static boolean isConditionalCheckFailed(final TransactionCanceledException e) {
+        return e.hasCancellationReasons() && e.cancellationReasons().stream()
+                .map(CancellationReason::code).anyMatch("ConditionalCheckFailed"::equals);
+    }
+
     private static boolean isNullOrEmpty(final String string) {
         return string == null || string.isEmpty();
     }
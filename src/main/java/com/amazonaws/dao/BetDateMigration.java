@@ -0,0 +1,157 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.response.MigrationResult;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Rewrites bet dates stored as {@link java.util.Date#toString()} strings as epoch milliseconds,
+ * and fills in the deadline day attributes that the deadline indexes are keyed on.
+ *
+ * <p>Items are rewritten in place with a condition that the dates read are still there, so a bet
+ * updated by the API while the migration runs keeps the update. The version is not changed since
+ * the bet itself is not. Reads accept both formats, so the migration can run at any pace while
+ * the API is serving traffic.
+ */
+public class BetDateMigration {
+    private static final String PROJECTION;
+    private static final String LEGACY_FILTER;
+
+    static {
+        final StringJoiner projection = new StringJoiner(", ");
+        final StringJoiner filter = new StringJoiner(" OR ");
+        projection.add(BetItemMapper.XREF);
+        for (String date : BetItemMapper.DATES) {
+            projection.add(date);
+            filter.add("attribute_type(" + date + ", :string)");
+        }
+        for (String day : BetItemMapper.DEADLINE_DAYS.values()) {
+            projection.add(day);
+            filter.add("attribute_not_exists(" + day + ")");
+        }
+        PROJECTION = projection.toString();
+        LEGACY_FILTER = filter.toString();
+    }
+
+    private final DynamoDbClient dynamoDb;
+    private final String tableName;
+    private final int pageSize;
+
+    /**
+     * Constructs a BetDateMigration.
+     *
+     * @param dynamoDb  dynamodb client
+     * @param tableName name of table to use for bets
+     * @param pageSize  items read per scan call
+     */
+    public BetDateMigration(final DynamoDbClient dynamoDb, final String tableName, final int pageSize) {
+        this.dynamoDb = dynamoDb;
+        this.tableName = tableName;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Migrates pages until the table has been scanned or hasTime returns false.
+     *
+     * @param exclusiveStartKey continuation token from a previous run, or null to start over
+     * @param hasTime           checked before each page
+     * @return what was done and where to resume
+     * @throws IllegalArgumentException if the continuation token is malformed
+     */
+    public MigrationResult run(final String exclusiveStartKey, final BooleanSupplier hasTime) {
+        long scanned = 0;
+        long migrated = 0;
+        long skipped = 0;
+        Map<String, AttributeValue> startKey = exclusiveStartKey == null || exclusiveStartKey.isEmpty()
+                ? null : PageTokens.decode(exclusiveStartKey);
+        do {
+            final ScanResponse page = scan(startKey);
+            for (Map<String, AttributeValue> item : page.items()) {
+                scanned++;
+                if (migrate(item)) {
+                    migrated++;
+                } else {
+                    skipped++;
+                }
+            }
+            startKey = page.lastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty() && hasTime.getAsBoolean());
+        return MigrationResult.builder()
+                .scanned(scanned)
+                .migrated(migrated)
+                .skipped(skipped)
+                .lastEvaluatedKey(PageTokens.encode(startKey))
+                .build();
+    }
+
+    private ScanResponse scan(final Map<String, AttributeValue> startKey) {
+        final ScanRequest.Builder scan = ScanRequest.builder()
+                .tableName(tableName)
+                .limit(pageSize)
+                .projectionExpression(PROJECTION)
+                .filterExpression(LEGACY_FILTER)
+                .expressionAttributeValues(Collections.singletonMap(":string",
+                        AttributeValue.builder().s("S").build()));
+        if (startKey != null) {
+            scan.exclusiveStartKey(startKey);
+        }
+        try {
+            return dynamoDb.scan(scan.build());
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
+        }
+    }
+
+    private boolean migrate(final Map<String, AttributeValue> item) {
+        final StringJoiner update = new StringJoiner(", ", "SET ", "");
+        final StringJoiner condition = new StringJoiner(" AND ");
+        final Map<String, AttributeValue> values = new HashMap<>();
+        boolean changed = false;
+        for (String date : BetItemMapper.DATES) {
+            final AttributeValue value = item.get(date);
+            if (value == null) {
+                continue;
+            }
+            condition.add(date + " = :old" + date);
+            values.put(":old" + date, value);
+            if (BetItemMapper.isLegacyDate(value)) {
+                update.add(date + " = :" + date);
+                values.put(":" + date, BetItemMapper.date(BetItemMapper.date(value)));
+                changed = true;
+            }
+            final String day = BetItemMapper.DEADLINE_DAYS.get(date);
+            if (day != null && !item.containsKey(day)) {
+                update.add(day + " = :" + day);
+                values.put(":" + day, BetItemMapper.day(BetItemMapper.date(value)));
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return false;
+        }
+        try {
+            dynamoDb.updateItem(UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Collections.singletonMap(BetItemMapper.XREF, item.get(BetItemMapper.XREF)))
+                    .updateExpression(update.toString())
+                    .conditionExpression(condition.toString())
+                    .expressionAttributeValues(values)
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+}
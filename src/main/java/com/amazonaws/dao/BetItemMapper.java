@@ -0,0 +1,430 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.BetRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Maps bets to and from DynamoDB items.
+ *
+ * <p>Every attribute is described once in {@link #ATTRIBUTES}: its name, its update expression
+ * placeholder, whether it must be present, and how to read and write it. Absent values are
+ * handled with explicit null checks instead of catching NullPointerException, since most bets
+ * have no resultXref or comments and reads would otherwise throw on the normal path.
+ */
+final class BetItemMapper {
+    static final String XREF = "xref";
+    static final String BET_ID = "betId";
+    static final String VERSION = "version";
+    static final String CREATOR_XREF = "creatorXref";
+    static final String PARTICIPANTS = "participants";
+    static final String COMMISSIONER_XREF = "commissionerXref";
+    static final String CREATED_AT = "createdAt";
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    static final String CONDITIONS = "conditions";
+    static final String PUNISHMENT = "punishment";
+    static final String CONDITIONS_DEADLINE = "conditionsDeadline";
+    static final String PUNISHMENT_DEADLINE = "punishmentDeadline";
+    static final String CONDITIONS_DEADLINE_DAY = "conditionsDeadlineDay";
+    static final String PUNISHMENT_DEADLINE_DAY = "punishmentDeadlineDay";
+    static final String RESULT_XREF = "resultXref";
+    static final String COMMENTS = "comments";
+    static final String IS_COMPLETE = "isComplete";
+    static final String USER_XREF = "userXref";
+    static final String BET_KEY = "betKey";
+
+    static final List<String> DATES = Collections.unmodifiableList(
+            Arrays.asList(CREATED_AT, CONDITIONS_DEADLINE, PUNISHMENT_DEADLINE));
+    static final Map<String, String> DEADLINE_DAYS;
+
+    static {
+        final Map<String, String> deadlineDays = new HashMap<>(4);
+        deadlineDays.put(CONDITIONS_DEADLINE, CONDITIONS_DEADLINE_DAY);
+        deadlineDays.put(PUNISHMENT_DEADLINE, PUNISHMENT_DEADLINE_DAY);
+        DEADLINE_DAYS = Collections.unmodifiableMap(deadlineDays);
+    }
+
+    // the format of Date.toString(), which dates were stored in before epoch milliseconds
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter LEGACY_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US);
+    private static final AttributeValue NULL = AttributeValue.builder().nul(true).build();
+    private static final AttributeValue FIRST_VERSION = AttributeValue.builder().n("1").build();
+
+    /**
+     * Attributes in the order they are validated. Attributes without a writer are generated
+     * (xref, version, createdAt) or maintained elsewhere (comments); attributes without a
+     * placeholder are not touched by updates. The deadline day attributes are the hash keys of
+     * the deadline indexes and are written but not read.
+     */
+    private static final List<Attribute> ATTRIBUTES = Collections.unmodifiableList(Arrays.asList(
+            Attribute.generated(XREF, (bet, value) -> bet.xref(value.s())),
+            Attribute.generated(VERSION, (bet, value) -> bet.version(Long.valueOf(value.n()))),
+            Attribute.generated(CREATED_AT, (bet, value) -> bet.createdAt(date(value))),
+            Attribute.created(CREATOR_XREF, true, request -> id(request.getCreatorXref()),
+                    (bet, value) -> bet.creatorXref(value.s())),
+            Attribute.created(PARTICIPANTS, false, request -> ss(request.getParticipants()),
+                    (bet, value) -> bet.participants(value.ss())),
+            Attribute.updated(COMMISSIONER_XREF, ":comxref", false, request -> s(request.getCommissionerXref()),
+                    (bet, value) -> bet.commissionerXref(value.s())),
+            Attribute.updated(TITLE, ":t", true, request -> s(request.getTitle()),
+                    (bet, value) -> bet.title(value.s())),
+            Attribute.updated(DESCRIPTION, ":des", false, request -> s(request.getDescription()),
+                    (bet, value) -> bet.description(value.s())),
+            Attribute.updated(CONDITIONS, ":con", true, request -> s(request.getConditions()),
+                    (bet, value) -> bet.conditions(value.s())),
+            Attribute.updated(PUNISHMENT, ":pun", true, request -> s(request.getPunishment()),
+                    (bet, value) -> bet.punishment(value.s())),
+            Attribute.updated(CONDITIONS_DEADLINE, ":cond", true, request -> date(request.getConditionsDeadline()),
+                    (bet, value) -> bet.conditionsDeadline(date(value))),
+            Attribute.updated(PUNISHMENT_DEADLINE, ":pund", true, request -> date(request.getPunishmentDeadline()),
+                    (bet, value) -> bet.punishmentDeadline(date(value))),
+            Attribute.derived(CONDITIONS_DEADLINE_DAY, ":condday", request -> day(request.getConditionsDeadline())),
+            Attribute.derived(PUNISHMENT_DEADLINE_DAY, ":punday", request -> day(request.getPunishmentDeadline())),
+            Attribute.updateOnly(RESULT_XREF, ":rxref", request -> s(request.getResultXref()),
+                    (bet, value) -> bet.resultXref(value.s())),
+            Attribute.maintained(COMMENTS, (bet, value) -> bet.comments(value.ss())),
+            Attribute.updateOnly(IS_COMPLETE, ":com", request -> bool(request.getIsComplete()),
+                    (bet, value) -> bet.isComplete(value.bool()))));
+
+    private static final Attribute[] READ_ATTRIBUTES = ATTRIBUTES.toArray(new Attribute[0]);
+    private static final Attribute[] CREATE_ATTRIBUTES = ATTRIBUTES.stream()
+            .filter(attribute -> attribute.createWriter != null).toArray(Attribute[]::new);
+    private static final Attribute[] UPDATE_ATTRIBUTES = ATTRIBUTES.stream()
+            .filter(attribute -> attribute.placeholder != null).toArray(Attribute[]::new);
+    // betId is written but never read back
+    private static final int ITEM_CAPACITY = capacity(ATTRIBUTES.size() + 1);
+    private static final int UPDATE_CAPACITY = capacity(UPDATE_ATTRIBUTES.length);
+
+    private BetItemMapper() {
+    }
+
+    /**
+     * Builds the item for a new bet with a fresh id, xref and version 1.
+     *
+     * @param request     details of the bet to create
+     * @param idGenerator generator of the bet's id and xref
+     * @return item for PutItem or BatchWriteItem
+     * @throws IllegalArgumentException if a required attribute is missing
+     */
+    static Map<String, AttributeValue> toNewItem(final BetRequest request, final IdGenerator idGenerator) {
+        final Map<String, AttributeValue> item = new HashMap<>(ITEM_CAPACITY);
+        item.put(BET_ID, s(idGenerator.newId()));
+        item.put(XREF, s(idGenerator.newId()));
+        item.put(VERSION, FIRST_VERSION);
+        item.put(CREATED_AT, date(new Date()));
+        for (Attribute attribute : CREATE_ATTRIBUTES) {
+            final AttributeValue value = attribute.write(request, attribute.createWriter);
+            if (value != null) {
+                item.put(attribute.name, value);
+            }
+        }
+        if (!item.containsKey(COMMISSIONER_XREF)) {
+            item.put(COMMISSIONER_XREF, item.get(CREATOR_XREF));
+        }
+        return item;
+    }
+
+    /**
+     * Builds the expression attribute values for {@link BetDao}'s update expression. Optional
+     * attributes the request leaves unset are written as NULL so every placeholder is bound.
+     *
+     * @param request new details of the bet
+     * @return values keyed by placeholder
+     * @throws IllegalArgumentException if a required attribute is missing
+     */
+    static Map<String, AttributeValue> toUpdateValues(final BetRequest request) {
+        final Map<String, AttributeValue> values = new HashMap<>(UPDATE_CAPACITY);
+        for (Attribute attribute : UPDATE_ATTRIBUTES) {
+            final AttributeValue value = attribute.write(request, attribute.updateWriter);
+            values.put(attribute.placeholder, value == null ? NULL : value);
+        }
+        return values;
+    }
+
+    /**
+     * Builds the expression attribute values for a partial update: only the attributes the request
+     * sets, plus the day of each deadline it sets. Nothing is written as NULL, so a partial update
+     * leaves every attribute the request omits as it was.
+     *
+     * @param request changed details of the bet
+     * @return values keyed by placeholder, empty if the request changes nothing
+     */
+    static Map<String, AttributeValue> toPatchValues(final BetRequest request) {
+        final Map<String, AttributeValue> values = new HashMap<>(UPDATE_CAPACITY);
+        for (Attribute attribute : UPDATE_ATTRIBUTES) {
+            final AttributeValue value = attribute.updateWriter.apply(request);
+            if (value != null) {
+                values.put(attribute.placeholder, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Builds a SET clause assigning every attribute that has a value among values.
+     *
+     * @param values values from {@link #toPatchValues(BetRequest)}
+     * @return the clause, without the version assignment
+     */
+    static String toSetExpression(final Map<String, AttributeValue> values) {
+        final StringJoiner expression = new StringJoiner(", ", "SET ", "");
+        for (Attribute attribute : UPDATE_ATTRIBUTES) {
+            if (values.containsKey(attribute.placeholder)) {
+                expression.add(attribute.name + " = " + attribute.placeholder);
+            }
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Reads a bet from an item.
+     *
+     * @param item item returned by DynamoDB
+     * @return the bet, or null if the item is null or empty
+     * @throws IllegalStateException if a required attribute is missing
+     */
+    static Bet toBet(final Map<String, AttributeValue> item) {
+        if (item == null || item.isEmpty()) {
+            return null;
+        }
+        final Bet.BetBuilder builder = Bet.builder();
+        for (Attribute attribute : READ_ATTRIBUTES) {
+            final AttributeValue value = item.get(attribute.name);
+            if (isAbsent(value)) {
+                if (attribute.requiredOnRead) {
+                    throw new IllegalStateException("Bet item is missing " + attribute.name);
+                }
+                continue;
+            }
+            attribute.reader.accept(builder, value);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the item a bet will have once an update is applied.
+     *
+     * @param item    bet item as read
+     * @param values  values from {@link #toUpdateValues(BetRequest)}
+     * @param version version the update writes
+     * @return the updated item
+     */
+    static Map<String, AttributeValue> withUpdate(final Map<String, AttributeValue> item,
+                                                  final Map<String, AttributeValue> values, final long version) {
+        final Map<String, AttributeValue> updated = new HashMap<>(item);
+        for (Attribute attribute : UPDATE_ATTRIBUTES) {
+            updated.put(attribute.name, values.get(attribute.placeholder));
+        }
+        updated.put(VERSION, AttributeValue.builder().n(Long.toString(version)).build());
+        return updated;
+    }
+
+    /**
+     * Returns the users a bet belongs to: its creator followed by its participants.
+     *
+     * @param item bet item
+     * @return distinct user xrefs in that order
+     */
+    static Set<String> users(final Map<String, AttributeValue> item) {
+        final Set<String> users = new LinkedHashSet<>();
+        final AttributeValue creator = item.get(CREATOR_XREF);
+        if (!isAbsent(creator) && creator.s() != null) {
+            users.add(creator.s());
+        }
+        final AttributeValue participants = item.get(PARTICIPANTS);
+        if (!isAbsent(participants) && participants.ss() != null) {
+            users.addAll(participants.ss());
+        }
+        return users;
+    }
+
+    /**
+     * Builds the per-user copy of a bet item. The copy holds every attribute of the bet except its
+     * comments so that a user's bets are read with one query and no follow-up gets, while comments
+     * stay a single write on the bet. It is keyed on the user and on the bet's creation time, zero
+     * padded so that string order is creation order, then xref.
+     *
+     * @param item     bet item
+     * @param userXref user the copy is filed under
+     * @return item for the user bets table
+     */
+    static Map<String, AttributeValue> toUserItem(final Map<String, AttributeValue> item, final String userXref) {
+        final Map<String, AttributeValue> userItem = new HashMap<>(capacity(item.size() + 2));
+        userItem.putAll(item);
+        userItem.remove(COMMENTS);
+        userItem.putAll(userKey(item, userXref));
+        return userItem;
+    }
+
+    /**
+     * Returns the key of the per-user copy of a bet item.
+     *
+     * @param item     bet item
+     * @param userXref user the copy is filed under
+     * @return key in the user bets table
+     */
+    static Map<String, AttributeValue> userKey(final Map<String, AttributeValue> item, final String userXref) {
+        final Map<String, AttributeValue> key = new HashMap<>(4);
+        key.put(USER_XREF, s(userXref));
+        key.put(BET_KEY, s(String.format("%013d#%s", date(item.get(CREATED_AT)).getTime(), item.get(XREF).s())));
+        return key;
+    }
+
+    static AttributeValue s(final String value) {
+        return value == null ? null : AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue id(final String value) {
+        return value == null || value.isEmpty() ? null : s(value);
+    }
+
+    private static AttributeValue ss(final List<String> values) {
+        return values == null || values.isEmpty() ? null : AttributeValue.builder().ss(values).build();
+    }
+
+    private static AttributeValue bool(final Boolean value) {
+        return value == null ? null : AttributeValue.builder().bool(value).build();
+    }
+
+    /**
+     * Stores a date as epoch milliseconds, which sorts and range-queries correctly.
+     *
+     * @param value date to store, may be null
+     * @return number attribute, or null if value is null
+     */
+    static AttributeValue date(final Date value) {
+        return value == null ? null : AttributeValue.builder().n(Long.toString(value.getTime())).build();
+    }
+
+    /**
+     * Reads a date stored as epoch milliseconds or, for items written before dates were stored as
+     * numbers, as a {@link Date#toString()} string.
+     *
+     * @param value stored date
+     * @return the date
+     * @throws IllegalStateException if the value is neither
+     */
+    static Date date(final AttributeValue value) {
+        if (value.n() != null) {
+            return new Date(Long.parseLong(value.n()));
+        }
+        if (value.s() == null) {
+            throw new IllegalStateException("Bet item has a date that is neither a number nor a string");
+        }
+        try {
+            return Date.from(ZonedDateTime.parse(value.s(), LEGACY_DATE_FORMAT).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("Bet item has an unreadable date " + value, e);
+        }
+    }
+
+    /**
+     * Returns the UTC day bucket a date falls in, as stored in the deadline day attributes.
+     *
+     * @param value date, may be null
+     * @return string attribute holding the ISO-8601 day, or null if value is null
+     */
+    static AttributeValue day(final Date value) {
+        return value == null ? null : s(DAY_FORMAT.format(value.toInstant()));
+    }
+
+    /**
+     * Returns whether a stored date still uses the legacy string format.
+     *
+     * @param value stored date, may be null
+     * @return true if value is a string
+     */
+    static boolean isLegacyDate(final AttributeValue value) {
+        return value != null && value.s() != null;
+    }
+
+    private static boolean isAbsent(final AttributeValue value) {
+        return value == null || Boolean.TRUE.equals(value.nul());
+    }
+
+    private static int capacity(final int entries) {
+        return (int) (entries / 0.75f) + 1;
+    }
+
+    private static final class Attribute {
+        private final String name;
+        private final String placeholder;
+        private final boolean requiredOnWrite;
+        private final boolean requiredOnRead;
+        private final Function<BetRequest, AttributeValue> createWriter;
+        private final Function<BetRequest, AttributeValue> updateWriter;
+        private final BiConsumer<Bet.BetBuilder, AttributeValue> reader;
+
+        private Attribute(final String name, final String placeholder, final boolean requiredOnWrite,
+                          final boolean requiredOnRead, final Function<BetRequest, AttributeValue> createWriter,
+                          final Function<BetRequest, AttributeValue> updateWriter,
+                          final BiConsumer<Bet.BetBuilder, AttributeValue> reader) {
+            this.name = name;
+            this.placeholder = placeholder;
+            this.requiredOnWrite = requiredOnWrite;
+            this.requiredOnRead = requiredOnRead;
+            this.createWriter = createWriter;
+            this.updateWriter = updateWriter;
+            this.reader = reader;
+        }
+
+        static Attribute generated(final String name, final BiConsumer<Bet.BetBuilder, AttributeValue> reader) {
+            return new Attribute(name, null, false, true, null, null, reader);
+        }
+
+        static Attribute derived(final String name, final String placeholder,
+                                 final Function<BetRequest, AttributeValue> writer) {
+            return new Attribute(name, placeholder, false, false, writer, writer, (bet, value) -> { });
+        }
+
+        static Attribute maintained(final String name, final BiConsumer<Bet.BetBuilder, AttributeValue> reader) {
+            return new Attribute(name, null, false, false, null, null, reader);
+        }
+
+        static Attribute created(final String name, final boolean required,
+                                 final Function<BetRequest, AttributeValue> writer,
+                                 final BiConsumer<Bet.BetBuilder, AttributeValue> reader) {
+            return new Attribute(name, null, required, required, writer, null, reader);
+        }
+
+        static Attribute updated(final String name, final String placeholder, final boolean required,
+                                 final Function<BetRequest, AttributeValue> writer,
+                                 final BiConsumer<Bet.BetBuilder, AttributeValue> reader) {
+            return new Attribute(name, placeholder, required, required, writer, writer, reader);
+        }
+
+        static Attribute updateOnly(final String name, final String placeholder,
+                                    final Function<BetRequest, AttributeValue> writer,
+                                    final BiConsumer<Bet.BetBuilder, AttributeValue> reader) {
+            return new Attribute(name, placeholder, false, false, null, writer, reader);
+        }
+
+        AttributeValue write(final BetRequest request, final Function<BetRequest, AttributeValue> writer) {
+            final AttributeValue value = writer.apply(request);
+            if (value == null && requiredOnWrite) {
+                throw new IllegalArgumentException(CREATOR_XREF.equals(name) ? "id was null or empty"
+                        : name + " must be defined");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.BetDoesNotExistException;
+import com.amazonaws.exception.UnableToUpdateException;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.Deadline;
+import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage operations for bets. Handlers depend on this rather than a concrete backend so the
+ * same handler code can be run against DynamoDB or Postgres.
+ */
+public interface BetStore {
+
+    /**
+     * Returns an bet or throws if the bet does not exist.
+     *
+     * @param xref id of bet to get
+     * @return the bet if it exists
+     * @throws BetDoesNotExistException if the bet does not exist
+     */
+    Bet getBet(String xref);
+
+    /**
+     * Returns a page of bets.
+     *
+     * @param exclusiveStartKey continuation token from a previous page, or null for the first page
+     * @return a page of bets and the token for the next page, null when there are no more pages
+     * @throws IllegalArgumentException if the continuation token is malformed
+     */
+    BetPage getBets(String exclusiveStartKey);
+
+    /**
+     * Returns a page of bets whose deadline falls in [from, to).
+     *
+     * @param deadline          which deadline to match
+     * @param from              inclusive start of the window
+     * @param to                exclusive end of the window
+     * @param exclusiveStartKey continuation token from a previous page, or null for the first page
+     * @return a page of bets and the token for the next page, null when there are no more pages
+     * @throws IllegalArgumentException if the window or the continuation token is invalid
+     */
+    BetPage findByDeadline(Deadline deadline, Date from, Date to, String exclusiveStartKey);
+
+    /**
+     * Returns a page of the bets a user created or participates in, newest first.
+     *
+     * @param userXref          xref of the user
+     * @param exclusiveStartKey continuation token from a previous page, or null for the first page
+     * @return a page of bets and the token for the next page, null when there are no more pages
+     * @throws IllegalArgumentException if userXref is empty or the continuation token is malformed
+     */
+    BetPage getBetsForUser(String userXref, String exclusiveStartKey);
+
+    /**
+     * Returns the bets for many xrefs in as few round trips as the backend allows.
+     *
+     * @param xrefs ids of bets to get
+     * @return the bets that exist, in the order their xrefs were given
+     */
+    List<Bet> getBets(Collection<String> xrefs);
+
+    /**
+     * Returns the bets for many xrefs without waiting for the backend. Backends without a
+     * non-blocking client read on the calling thread and return a completed future.
+     *
+     * @param xrefs ids of bets to get
+     * @return the bets that exist, in the order their xrefs were given
+     */
+    default CompletableFuture<List<Bet>> getBetsAsync(Collection<String> xrefs) {
+        try {
+            return CompletableFuture.completedFuture(getBets(xrefs));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Updates an bet object.
+     *
+     * @param betRequest bet to update
+     * @return updated bet
+     */
+    Bet updateBet(BetRequest betRequest);
+
+    /**
+     * Updates only the attributes a request sets, leaving the ones it omits as they are. The
+     * request must carry the bet's xref and current version.
+     *
+     * @param betRequest xref, version and attributes to change
+     * @return updated bet
+     * @throws UnableToUpdateException  if the bet does not exist or the version is not current
+     * @throws IllegalArgumentException if the request changes no attribute
+     */
+    Bet patchBet(BetRequest betRequest);
+
+    /**
+     * Adds a comment to a bet. Comments are a set and are written without checking the bet's version,
+     * so concurrent commenters never conflict; the version is still bumped.
+     *
+     * @param xref    bet id of bet to comment on
+     * @param comment comment to add
+     * @return the bet with the comment
+     * @throws BetDoesNotExistException if the bet does not exist
+     * @throws IllegalArgumentException if the comment is empty or too long
+     */
+    Bet addComment(String xref, String comment);
+
+    /**
+     * Removes a comment from a bet, with the same concurrency as {@link #addComment}.
+     *
+     * @param xref    bet id of bet to remove the comment from
+     * @param comment comment to remove
+     * @return the bet without the comment
+     * @throws BetDoesNotExistException if the bet does not exist
+     * @throws IllegalArgumentException if the comment is empty or too long
+     */
+    Bet removeComment(String xref, String comment);
+
+    /**
+     * Deletes an bet.
+     *
+     * @param xref bet id of bet to delete
+     * @return the deleted bet
+     */
+    Bet deleteBet(String xref);
+
+    /**
+     * Creates an bet.
+     *
+     * @param betRequest details of bet to create
+     * @return created bet
+     */
+    Bet createBet(BetRequest betRequest);
+
+    /**
+     * Creates many bets. Every request is validated before anything is written; invalid requests
+     * are reported and skipped. Creation is not atomic across the batch.
+     *
+     * @param betRequests details of bets to create
+     * @return one result per request, in request order
+     */
+    List<BetCreateResult> createBets(List<BetRequest> betRequests);
+}
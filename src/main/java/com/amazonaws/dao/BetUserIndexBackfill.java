@@ -0,0 +1,130 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.response.MigrationResult;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionCheck;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Copies bets written before the user bets table existed into it, once per creator and
+ * participant, so that {@link BetDao#getBetsForUser} finds them.
+ *
+ * <p>Each bet's copies are written in a transaction that checks the bet still has the version
+ * that was scanned, and each copy is only written over one of the same or an older version. A
+ * bet updated or deleted by the API while the backfill runs is skipped, since the API has
+ * already written or removed its copies. Running the backfill again is harmless.
+ */
+public class BetUserIndexBackfill {
+    // a transaction holds at most 100 items: the bet check and one copy per user
+    private static final int MAX_USERS = 99;
+
+    private final DynamoDbClient dynamoDb;
+    private final String tableName;
+    private final String userBetsTableName;
+    private final int pageSize;
+
+    /**
+     * Constructs a BetUserIndexBackfill.
+     *
+     * @param dynamoDb          dynamodb client
+     * @param tableName         name of table to use for bets
+     * @param userBetsTableName name of table holding each user's copies of their bets
+     * @param pageSize          items read per scan call
+     */
+    public BetUserIndexBackfill(final DynamoDbClient dynamoDb, final String tableName,
+                                final String userBetsTableName, final int pageSize) {
+        this.dynamoDb = dynamoDb;
+        this.tableName = tableName;
+        this.userBetsTableName = userBetsTableName;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Backfills pages until the table has been scanned or hasTime returns false.
+     *
+     * @param exclusiveStartKey continuation token from a previous run, or null to start over
+     * @param hasTime           checked before each page
+     * @return what was done and where to resume
+     * @throws IllegalArgumentException if the continuation token is malformed
+     */
+    public MigrationResult run(final String exclusiveStartKey, final BooleanSupplier hasTime) {
+        long scanned = 0;
+        long migrated = 0;
+        long skipped = 0;
+        Map<String, AttributeValue> startKey = exclusiveStartKey == null || exclusiveStartKey.isEmpty()
+                ? null : PageTokens.decode(exclusiveStartKey);
+        do {
+            final ScanResponse page = scan(startKey);
+            for (Map<String, AttributeValue> item : page.items()) {
+                scanned++;
+                if (backfill(item)) {
+                    migrated++;
+                } else {
+                    skipped++;
+                }
+            }
+            startKey = page.lastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty() && hasTime.getAsBoolean());
+        return MigrationResult.builder()
+                .scanned(scanned)
+                .migrated(migrated)
+                .skipped(skipped)
+                .lastEvaluatedKey(PageTokens.encode(startKey))
+                .build();
+    }
+
+    private ScanResponse scan(final Map<String, AttributeValue> startKey) {
+        final ScanRequest.Builder scan = ScanRequest.builder().tableName(tableName).limit(pageSize);
+        if (startKey != null) {
+            scan.exclusiveStartKey(startKey);
+        }
+        try {
+            return dynamoDb.scan(scan.build());
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("Bet table " + tableName + " does not exist");
+        }
+    }
+
+    private boolean backfill(final Map<String, AttributeValue> item) {
+        final Set<String> users = BetItemMapper.users(item);
+        if (users.isEmpty() || users.size() > MAX_USERS) {
+            return false;
+        }
+        final Map<String, AttributeValue> version =
+                Collections.singletonMap(":v", item.get(BetItemMapper.VERSION));
+        final List<TransactWriteItem> writes = new ArrayList<>(users.size() + 1);
+        writes.add(TransactWriteItem.builder().conditionCheck(ConditionCheck.builder().tableName(tableName)
+                .key(Collections.singletonMap(BetItemMapper.XREF, item.get(BetItemMapper.XREF)))
+                .conditionExpression("version = :v")
+                .expressionAttributeValues(version).build()).build());
+        for (String userXref : users) {
+            writes.add(TransactWriteItem.builder().put(Put.builder().tableName(userBetsTableName)
+                    .item(BetItemMapper.toUserItem(item, userXref))
+                    .conditionExpression("attribute_not_exists(" + BetItemMapper.USER_XREF + ") OR version <= :v")
+                    .expressionAttributeValues(version).build()).build());
+        }
+        try {
+            dynamoDb.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(writes).build());
+            return true;
+        } catch (TransactionCanceledException e) {
+            return false;
+        } catch (ResourceNotFoundException e) {
+            throw new TableDoesNotExistException("User bets table " + userBetsTableName + " does not exist");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.BetDoesNotExistException;
+import com.amazonaws.exception.UnableToDeleteException;
+import com.amazonaws.exception.UnableToUpdateException;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.Deadline;
+import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache in front of another {@link BetStore}. Writes made through this store refresh
+ * or invalidate the cached entry; writes made by other containers become visible once the entry's
+ * ttl runs out.
+ *
+ * <p>Pages and batch reads refresh the entries of the bets they fetch, and a bet listed for a user
+ * drops an older cached entry. Bets a batch read serves from the cache are as fresh as getBet's.
+ */
+public class CachingBetStore implements BetStore {
+    private final BetStore delegate;
+    private final BetCache cache;
+
+    /**
+     * Constructs a CachingBetStore.
+     *
+     * @param delegate store to read through to
+     * @param cache    cache to serve reads from
+     */
+    public CachingBetStore(final BetStore delegate, final BetCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Bet getBet(final String xref) {
+        final Bet cached = cache.get(xref);
+        if (cached != null) {
+            return cached;
+        }
+        final Bet bet = delegate.getBet(xref);
+        cache.put(bet);
+        return bet;
+    }
+
+    @Override
+    public BetPage getBets(final String exclusiveStartKey) {
+        final BetPage page = delegate.getBets(exclusiveStartKey);
+        page.getBets().forEach(cache::put);
+        return page;
+    }
+
+    @Override
+    public BetPage findByDeadline(final Deadline deadline, final Date from, final Date to,
+                                  final String exclusiveStartKey) {
+        final BetPage page = delegate.findByDeadline(deadline, from, to, exclusiveStartKey);
+        page.getBets().forEach(cache::put);
+        return page;
+    }
+
+    /**
+     * Does not fill the cache: bets listed for a user come without their comments but with the
+     * bet's current version, so caching them would hide the comments from getBet until the entry
+     * expired. A listed bet newer than the cached one drops the cached one instead, so getBet does
+     * not go back to a version older than the listing showed.
+     */
+    @Override
+    public BetPage getBetsForUser(final String userXref, final String exclusiveStartKey) {
+        final BetPage page = delegate.getBetsForUser(userXref, exclusiveStartKey);
+        page.getBets().stream().filter(bet -> bet.getXref() != null && bet.getVersion() != null)
+                .forEach(bet -> cache.invalidateOlderThan(bet.getXref(), bet.getVersion()));
+        return page;
+    }
+
+    /**
+     * Serves what it can from the cache and fetches only the misses from the backing store, in one
+     * call.
+     */
+    @Override
+    public List<Bet> getBets(final Collection<String> xrefs) {
+        if (xrefs == null) {
+            throw new IllegalArgumentException("xrefs was null");
+        }
+        final Map<String, Bet> found = new HashMap<>(xrefs.size() * 2);
+        final List<String> misses = new ArrayList<>();
+        for (String xref : xrefs) {
+            final Bet cached = cache.get(xref);
+            if (cached != null) {
+                found.put(xref, cached);
+            } else {
+                misses.add(xref);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Bet bet : delegate.getBets(misses)) {
+                cache.put(bet);
+                found.put(bet.getXref(), bet);
+            }
+        }
+        return xrefs.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Serves what it can from the cache and fetches only the misses from the backing store, without
+     * waiting for it.
+     */
+    @Override
+    public CompletableFuture<List<Bet>> getBetsAsync(final Collection<String> xrefs) {
+        if (xrefs == null) {
+            throw new IllegalArgumentException("xrefs was null");
+        }
+        final Map<String, Bet> found = new HashMap<>(xrefs.size() * 2);
+        final List<String> misses = new ArrayList<>();
+        for (String xref : xrefs) {
+            final Bet cached = cache.get(xref);
+            if (cached != null) {
+                found.put(xref, cached);
+            } else {
+                misses.add(xref);
+            }
+        }
+        final CompletableFuture<List<Bet>> fetched = misses.isEmpty()
+                ? CompletableFuture.completedFuture(new ArrayList<>()) : delegate.getBetsAsync(misses);
+        return fetched.thenApply(bets -> {
+            for (Bet bet : bets) {
+                cache.put(bet);
+                found.put(bet.getXref(), bet);
+            }
+            return xrefs.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+        });
+    }
+
+    @Override
+    public Bet updateBet(final BetRequest betRequest) {
+        return update(betRequest, delegate::updateBet);
+    }
+
+    @Override
+    public Bet patchBet(final BetRequest betRequest) {
+        return update(betRequest, delegate::patchBet);
+    }
+
+    @Override
+    public Bet addComment(final String xref, final String comment) {
+        return refresh(xref, () -> delegate.addComment(xref, comment));
+    }
+
+    @Override
+    public Bet removeComment(final String xref, final String comment) {
+        return refresh(xref, () -> delegate.removeComment(xref, comment));
+    }
+
+    @Override
+    public Bet deleteBet(final String xref) {
+        try {
+            final Bet bet = delegate.deleteBet(xref);
+            cache.putTombstone(xref, bet.getVersion() == null ? 0L : bet.getVersion());
+            return bet;
+        } catch (BetDoesNotExistException | UnableToDeleteException e) {
+            cache.invalidate(xref);
+            throw e;
+        }
+    }
+
+    @Override
+    public Bet createBet(final BetRequest betRequest) {
+        final Bet bet = delegate.createBet(betRequest);
+        cache.put(bet);
+        return bet;
+    }
+
+    @Override
+    public List<BetCreateResult> createBets(final List<BetRequest> betRequests) {
+        final List<BetCreateResult> results = delegate.createBets(betRequests);
+        results.forEach(result -> cache.put(result.getBet()));
+        return results;
+    }
+
+    private Bet update(final BetRequest betRequest, final Function<BetRequest, Bet> write) {
+        try {
+            final Bet bet = write.apply(betRequest);
+            cache.put(bet);
+            return bet;
+        } catch (UnableToUpdateException e) {
+            cache.invalidate(betRequest.getXref());
+            throw e;
+        }
+    }
+
+    private Bet refresh(final String xref, final Supplier<Bet> write) {
+        try {
+            final Bet bet = write.get();
+            cache.put(bet);
+            return bet;
+        } catch (BetDoesNotExistException e) {
+            cache.invalidate(xref);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.amazonaws.dao;
+
+import java.util.UUID;
+
+/**
+ * Generates the ids and xrefs of new bets and comments. Ids are URL-safe, at most 64 characters
+ * and unique without coordinating with the store.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    /**
+     * Returns a new id.
+     *
+     * @return the id
+     */
+    String newId();
+
+    /**
+     * Returns a generator of random (version 4) UUIDs, the ids bets were created with before
+     * {@link TimeOrderedIdGenerator}. Every call draws from one shared SecureRandom.
+     *
+     * @return the generator
+     */
+    static IdGenerator randomUuids() {
+        return () -> UUID.randomUUID().toString();
+    }
+}
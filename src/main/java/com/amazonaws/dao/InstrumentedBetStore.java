@@ -0,0 +1,132 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.metrics.BetMetrics;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.Deadline;
+import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Times every call on another {@link BetStore} and counts the exceptions it throws by type, so
+ * latency and error rates can be broken down by operation no matter which backend is selected.
+ */
+public class InstrumentedBetStore implements BetStore {
+    private final BetStore delegate;
+    private final BetMetrics betMetrics;
+
+    /**
+     * Constructs an InstrumentedBetStore.
+     *
+     * @param delegate   store to time
+     * @param betMetrics metrics to record into
+     */
+    public InstrumentedBetStore(final BetStore delegate, final BetMetrics betMetrics) {
+        this.delegate = delegate;
+        this.betMetrics = betMetrics;
+    }
+
+    @Override
+    public Bet getBet(final String xref) {
+        return timed("getBet", () -> delegate.getBet(xref));
+    }
+
+    @Override
+    public BetPage getBets(final String exclusiveStartKey) {
+        return timed("getBets", () -> delegate.getBets(exclusiveStartKey));
+    }
+
+    @Override
+    public BetPage findByDeadline(final Deadline deadline, final Date from, final Date to,
+                                  final String exclusiveStartKey) {
+        return timed("findByDeadline", () -> delegate.findByDeadline(deadline, from, to, exclusiveStartKey));
+    }
+
+    @Override
+    public BetPage getBetsForUser(final String userXref, final String exclusiveStartKey) {
+        return timed("getBetsForUser", () -> delegate.getBetsForUser(userXref, exclusiveStartKey));
+    }
+
+    @Override
+    public List<Bet> getBets(final Collection<String> xrefs) {
+        return timed("batchGetBets", () -> delegate.getBets(xrefs));
+    }
+
+    @Override
+    public CompletableFuture<List<Bet>> getBetsAsync(final Collection<String> xrefs) {
+        return timedAsync("batchGetBets", () -> delegate.getBetsAsync(xrefs));
+    }
+
+    @Override
+    public Bet updateBet(final BetRequest betRequest) {
+        return timed("updateBet", () -> delegate.updateBet(betRequest));
+    }
+
+    @Override
+    public Bet patchBet(final BetRequest betRequest) {
+        return timed("patchBet", () -> delegate.patchBet(betRequest));
+    }
+
+    @Override
+    public Bet addComment(final String xref, final String comment) {
+        return timed("addComment", () -> delegate.addComment(xref, comment));
+    }
+
+    @Override
+    public Bet removeComment(final String xref, final String comment) {
+        return timed("removeComment", () -> delegate.removeComment(xref, comment));
+    }
+
+    @Override
+    public Bet deleteBet(final String xref) {
+        return timed("deleteBet", () -> delegate.deleteBet(xref));
+    }
+
+    @Override
+    public Bet createBet(final BetRequest betRequest) {
+        return timed("createBet", () -> delegate.createBet(betRequest));
+    }
+
+    @Override
+    public List<BetCreateResult> createBets(final List<BetRequest> betRequests) {
+        return timed("createBets", () -> delegate.createBets(betRequests));
+    }
+
+    private <T> T timed(final String operation, final Supplier<T> call) {
+        final long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            betMetrics.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            betMetrics.recordStoreCall(operation, System.nanoTime() - start);
+        }
+    }
+
+    private <T> CompletableFuture<T> timedAsync(final String operation, final Supplier<CompletableFuture<T>> call) {
+        final long start = System.nanoTime();
+        final CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            betMetrics.recordError(e.getClass().getSimpleName());
+            betMetrics.recordStoreCall(operation, System.nanoTime() - start);
+            throw e;
+        }
+        return future.whenComplete((result, e) -> {
+            if (e != null) {
+                final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                betMetrics.recordError(cause.getClass().getSimpleName());
+            }
+            betMetrics.recordStoreCall(operation, System.nanoTime() - start);
+        });
+    }
+}
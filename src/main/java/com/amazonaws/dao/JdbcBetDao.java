@@ -0,0 +1,830 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.BetDoesNotExistException;
+import com.amazonaws.exception.CouldNotCreateBetException;
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.exception.UnableToDeleteException;
+import com.amazonaws.exception.UnableToUpdateException;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.Deadline;
+import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+/**
+ * Postgres implementation of {@link BetStore} against the schema in local/db/init.sql.
+ *
+ * <p>Statements are fixed strings so the driver's per-connection prepared statement cache can
+ * reuse server-side plans across pooled connections. Participants are stored in
+ * user_bet_relation and resolved through hi_low_user by xref; creator and commissioner columns
+ * hold the user xrefs the API deals in.
+ */
+public class JdbcBetDao implements BetStore {
+    private static final String BET_COLUMNS = "id, xref, created_at, creator_id, commissioner_id, title, "
+            + "description, conditions, punishment, conditions_deadline, punishment_deadline, result_xref, "
+            + "is_complete, version";
+    private static final String SELECT_BET = "select " + BET_COLUMNS + " from bet where xref = ?";
+    private static final String SELECT_BETS = "select " + BET_COLUMNS + " from bet where xref = any(?)";
+    private static final String SELECT_FIRST_PAGE = "select " + BET_COLUMNS + " from bet order by xref limit ?";
+    private static final String SELECT_NEXT_PAGE = "select " + BET_COLUMNS
+            + " from bet where xref > ? order by xref limit ?";
+    private static final String SELECT_FIRST_CONDITIONS_DUE = "select " + BET_COLUMNS + " from bet "
+            + "where conditions_deadline >= ? and conditions_deadline < ? order by conditions_deadline, xref limit ?";
+    private static final String SELECT_NEXT_CONDITIONS_DUE = "select " + BET_COLUMNS + " from bet "
+            + "where conditions_deadline >= ? and conditions_deadline < ? and (conditions_deadline, xref) > (?, ?) "
+            + "order by conditions_deadline, xref limit ?";
+    private static final String SELECT_FIRST_PUNISHMENT_DUE = "select " + BET_COLUMNS + " from bet "
+            + "where punishment_deadline >= ? and punishment_deadline < ? order by punishment_deadline, xref limit ?";
+    private static final String SELECT_NEXT_PUNISHMENT_DUE = "select " + BET_COLUMNS + " from bet "
+            + "where punishment_deadline >= ? and punishment_deadline < ? and (punishment_deadline, xref) > (?, ?) "
+            + "order by punishment_deadline, xref limit ?";
+    private static final String USER_BETS = "select " + BET_COLUMNS + " from bet "
+            + "where (creator_id = ? or id in (select r.bet_id from user_bet_relation r "
+            + "join hi_low_user u on u.id = r.hi_low_user_id where u.xref = ?))";
+    private static final String SELECT_FIRST_USER_BETS = USER_BETS
+            + " order by created_at desc, xref desc limit ?";
+    private static final String SELECT_NEXT_USER_BETS = USER_BETS
+            + " and (created_at, xref) < (?, ?) order by created_at desc, xref desc limit ?";
+    private static final String SELECT_PARTICIPANTS = "select r.bet_id, u.xref from user_bet_relation r "
+            + "join hi_low_user u on u.id = r.hi_low_user_id where r.bet_id = any(?)";
+    private static final String INSERT_BET = "insert into bet (" + BET_COLUMNS + ") "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 1)";
+    private static final String INSERT_PARTICIPANT = "insert into user_bet_relation (hi_low_user_id, bet_id) "
+            + "select id, ? from hi_low_user where xref = ? on conflict do nothing";
+    private static final String UPDATE_BET = "update bet set commissioner_id = ?, title = ?, description = ?, "
+            + "conditions = ?, punishment = ?, conditions_deadline = ?, punishment_deadline = ?, result_xref = ?, "
+            + "is_complete = ?, version = version + 1 where xref = ? and version = ? returning " + BET_COLUMNS;
+    private static final String DELETE_PARTICIPANTS = "delete from user_bet_relation where bet_id = ?";
+    private static final String DELETE_BET = "delete from bet where id = ? and version = ? returning " + BET_COLUMNS;
+    private static final String SELECT_USER_XREFS = "select xref from hi_low_user where xref = any(?)";
+    private static final String SELECT_COMMENTS = "select bet_id, comment from comment where bet_id = any(?) "
+            + "order by comment";
+    private static final String BUMP_VERSION = "update bet set version = version + 1 where xref = ? returning "
+            + BET_COLUMNS;
+    private static final String INSERT_COMMENT = "insert into comment (id, xref, bet_id, comment) "
+            + "values (?, ?, ?, ?) on conflict (bet_id, comment) do nothing";
+    private static final String DELETE_COMMENT = "delete from comment where bet_id = ? and comment = ?";
+    private static final String UNDEFINED_TABLE = "42P01";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final DataSource dataSource;
+    private final int pageSize;
+    private final IdGenerator idGenerator;
+
+    /**
+     * Constructs a JdbcBetDao.
+     *
+     * @param dataSource pooled data source for the hilow database
+     * @param pageSize   size of pages for getBets
+     */
+    public JdbcBetDao(final DataSource dataSource, final int pageSize) {
+        this(dataSource, pageSize, new TimeOrderedIdGenerator());
+    }
+
+    /**
+     * Constructs a JdbcBetDao that gives new bets and comments ids from idGenerator.
+     *
+     * @param dataSource  pooled data source for the hilow database
+     * @param pageSize    size of pages for getBets
+     * @param idGenerator generator of new rows' ids and xrefs
+     */
+    public JdbcBetDao(final DataSource dataSource, final int pageSize, final IdGenerator idGenerator) {
+        this.dataSource = dataSource;
+        this.pageSize = pageSize;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Bet getBet(final String xref) {
+        try (Connection connection = dataSource.getConnection()) {
+            final Bet bet = selectBet(connection, xref);
+            if (bet == null) {
+                throw new BetDoesNotExistException("Bet " + xref + " does not exist");
+            }
+            return bet;
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public BetPage getBets(final String exclusiveStartKey) {
+        final String startXref = isNullOrEmpty(exclusiveStartKey) ? null : decodeToken(exclusiveStartKey);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     startXref == null ? SELECT_FIRST_PAGE : SELECT_NEXT_PAGE)) {
+            int index = 1;
+            if (startXref != null) {
+                statement.setString(index++, startXref);
+            }
+            statement.setInt(index, pageSize);
+            final List<Bet> bets = new ArrayList<>(pageSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    bets.add(toBet(resultSet));
+                }
+            }
+            loadParticipants(connection, bets);
+            loadComments(connection, bets);
+            final String lastEvaluatedKey = bets.size() < pageSize ? null
+                    : encodeToken(bets.get(bets.size() - 1).getXref());
+            return BetPage.builder().bets(bets).lastEvaluatedKey(lastEvaluatedKey).build();
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * Pages with a keyset on (deadline, xref), served by the bet_*_deadline_idx indexes.
+     */
+    @Override
+    public BetPage findByDeadline(final Deadline deadline, final Date from, final Date to,
+                                  final String exclusiveStartKey) {
+        BetDao.validateWindow(deadline, from, to);
+        Timestamp startDeadline = null;
+        String startXref = null;
+        if (!isNullOrEmpty(exclusiveStartKey)) {
+            final String token = decodeToken(exclusiveStartKey);
+            final int separator = token.indexOf(' ');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            try {
+                startDeadline = new Timestamp(Long.parseLong(token.substring(0, separator)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            startXref = token.substring(separator + 1);
+        }
+        final boolean conditions = deadline == Deadline.CONDITIONS;
+        final String sql = startXref == null
+                ? conditions ? SELECT_FIRST_CONDITIONS_DUE : SELECT_FIRST_PUNISHMENT_DUE
+                : conditions ? SELECT_NEXT_CONDITIONS_DUE : SELECT_NEXT_PUNISHMENT_DUE;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            statement.setTimestamp(index++, toTimestamp(from));
+            statement.setTimestamp(index++, toTimestamp(to));
+            if (startXref != null) {
+                statement.setTimestamp(index++, startDeadline);
+                statement.setString(index++, startXref);
+            }
+            statement.setInt(index, pageSize);
+            final List<Bet> bets = new ArrayList<>(pageSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    bets.add(toBet(resultSet));
+                }
+            }
+            loadParticipants(connection, bets);
+            loadComments(connection, bets);
+            String lastEvaluatedKey = null;
+            if (bets.size() == pageSize) {
+                final Bet last = bets.get(bets.size() - 1);
+                final Date lastDeadline = conditions ? last.getConditionsDeadline() : last.getPunishmentDeadline();
+                lastEvaluatedKey = encodeToken(lastDeadline.getTime() + " " + last.getXref());
+            }
+            return BetPage.builder().bets(bets).lastEvaluatedKey(lastEvaluatedKey).build();
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * Pages newest first with a keyset on (created_at, xref), served by bet_creator_idx for the
+     * bets the user created and by the user_bet_relation key for the bets they participate in.
+     */
+    @Override
+    public BetPage getBetsForUser(final String userXref, final String exclusiveStartKey) {
+        if (isNullOrEmpty(userXref)) {
+            throw new IllegalArgumentException("userXref was null or empty");
+        }
+        Timestamp startCreatedAt = null;
+        String startXref = null;
+        if (!isNullOrEmpty(exclusiveStartKey)) {
+            final String token = decodeToken(exclusiveStartKey);
+            final int separator = token.indexOf(' ');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            try {
+                startCreatedAt = new Timestamp(Long.parseLong(token.substring(0, separator)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            startXref = token.substring(separator + 1);
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     startXref == null ? SELECT_FIRST_USER_BETS : SELECT_NEXT_USER_BETS)) {
+            int index = 1;
+            statement.setString(index++, userXref);
+            statement.setString(index++, userXref);
+            if (startXref != null) {
+                statement.setTimestamp(index++, startCreatedAt);
+                statement.setString(index++, startXref);
+            }
+            statement.setInt(index, pageSize);
+            final List<Bet> bets = new ArrayList<>(pageSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    bets.add(toBet(resultSet));
+                }
+            }
+            loadParticipants(connection, bets);
+            String lastEvaluatedKey = null;
+            if (bets.size() == pageSize) {
+                final Bet last = bets.get(bets.size() - 1);
+                lastEvaluatedKey = encodeToken(last.getCreatedAt().getTime() + " " + last.getXref());
+            }
+            return BetPage.builder().bets(bets).lastEvaluatedKey(lastEvaluatedKey).build();
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public List<Bet> getBets(final Collection<String> xrefs) {
+        if (xrefs == null) {
+            throw new IllegalArgumentException("xrefs was null");
+        }
+        if (xrefs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BETS)) {
+            statement.setArray(1, connection.createArrayOf("varchar", xrefs.toArray()));
+            final List<Bet> bets = new ArrayList<>(xrefs.size());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    bets.add(toBet(resultSet));
+                }
+            }
+            loadParticipants(connection, bets);
+            loadComments(connection, bets);
+            final Map<String, Bet> betsByXref = new HashMap<>(bets.size() * 2);
+            bets.forEach(bet -> betsByXref.put(bet.getXref(), bet));
+            return xrefs.stream().map(betsByXref::get).filter(Objects::nonNull).collect(Collectors.toList());
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public Bet updateBet(final BetRequest betRequest) {
+        if (betRequest == null) {
+            throw new IllegalArgumentException("Bet to update was null");
+        }
+        if (isNullOrEmpty(betRequest.getXref())) {
+            throw new IllegalArgumentException("xref was null or empty");
+        }
+        validateContent(betRequest);
+        if (betRequest.getVersion() == null) {
+            throw new IllegalArgumentException("version must be defined");
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE_BET)) {
+            statement.setString(1, betRequest.getCommissionerXref());
+            statement.setString(2, betRequest.getTitle());
+            statement.setString(3, betRequest.getDescription());
+            statement.setString(4, betRequest.getConditions());
+            statement.setString(5, betRequest.getPunishment());
+            statement.setTimestamp(6, toTimestamp(betRequest.getConditionsDeadline()));
+            statement.setTimestamp(7, toTimestamp(betRequest.getPunishmentDeadline()));
+            statement.setString(8, betRequest.getResultXref());
+            if (betRequest.getIsComplete() == null) {
+                statement.setNull(9, Types.BOOLEAN);
+            } else {
+                statement.setBoolean(9, betRequest.getIsComplete());
+            }
+            statement.setString(10, betRequest.getXref());
+            statement.setLong(11, betRequest.getVersion());
+            final Bet bet;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new UnableToUpdateException(
+                            "Either the bet did not exist or the provided version was not current");
+                }
+                bet = toBet(resultSet);
+            }
+            loadParticipants(connection, bet);
+            loadComments(connection, Collections.singletonList(bet));
+            return bet;
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * Updates only the columns the request sets, in one UPDATE built from those columns.
+     *
+     * @param betRequest xref, current version and the attributes to change
+     * @return updated bet
+     */
+    @Override
+    public Bet patchBet(final BetRequest betRequest) {
+        if (betRequest == null) {
+            throw new IllegalArgumentException("Bet to update was null");
+        }
+        if (isNullOrEmpty(betRequest.getXref())) {
+            throw new IllegalArgumentException("xref was null or empty");
+        }
+        if (betRequest.getVersion() == null) {
+            throw new IllegalArgumentException("version must be defined");
+        }
+        final StringJoiner assignments = new StringJoiner(", ", "update bet set ", ", version = version + 1 ");
+        final List<Object> values = new ArrayList<>();
+        addAssignment(assignments, values, "commissioner_id", betRequest.getCommissionerXref());
+        addAssignment(assignments, values, "title", betRequest.getTitle());
+        addAssignment(assignments, values, "description", betRequest.getDescription());
+        addAssignment(assignments, values, "conditions", betRequest.getConditions());
+        addAssignment(assignments, values, "punishment", betRequest.getPunishment());
+        addAssignment(assignments, values, "conditions_deadline", toTimestamp(betRequest.getConditionsDeadline()));
+        addAssignment(assignments, values, "punishment_deadline", toTimestamp(betRequest.getPunishmentDeadline()));
+        addAssignment(assignments, values, "result_xref", betRequest.getResultXref());
+        addAssignment(assignments, values, "is_complete", betRequest.getIsComplete());
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No attributes to update");
+        }
+        final String sql = assignments + "where xref = ? and version = ? returning " + BET_COLUMNS;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Object value : values) {
+                statement.setObject(index++, value);
+            }
+            statement.setString(index++, betRequest.getXref());
+            statement.setLong(index, betRequest.getVersion());
+            final Bet bet;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new UnableToUpdateException(
+                            "Either the bet did not exist or the provided version was not current");
+                }
+                bet = toBet(resultSet);
+            }
+            loadParticipants(connection, bet);
+            loadComments(connection, Collections.singletonList(bet));
+            return bet;
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    private static void addAssignment(final StringJoiner assignments, final List<Object> values,
+                                      final String column, final Object value) {
+        if (value != null) {
+            assignments.add(column + " = ?");
+            values.add(value);
+        }
+    }
+
+    @Override
+    public Bet deleteBet(final String xref) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                final Bet existing = selectBet(connection, xref);
+                if (existing == null) {
+                    throw new BetDoesNotExistException("Bet " + xref + " does not exist");
+                }
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_PARTICIPANTS)) {
+                    statement.setString(1, existing.getId());
+                    statement.executeUpdate();
+                }
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_BET)) {
+                    statement.setString(1, existing.getId());
+                    statement.setLong(2, existing.getVersion());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            throw new UnableToDeleteException(
+                                    "A competing request changed the bet while processing this request");
+                        }
+                    }
+                }
+                connection.commit();
+                return existing;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * Inserts the comment and bumps the bet's version in one transaction. The version bump takes
+     * the bet's row lock, so concurrent commenters queue briefly instead of failing on a version check.
+     */
+    @Override
+    public Bet addComment(final String xref, final String comment) {
+        return updateComments(xref, comment, true);
+    }
+
+    @Override
+    public Bet removeComment(final String xref, final String comment) {
+        return updateComments(xref, comment, false);
+    }
+
+    private Bet updateComments(final String xref, final String comment, final boolean add) {
+        if (isNullOrEmpty(xref)) {
+            throw new IllegalArgumentException("xref was null or empty");
+        }
+        BetDao.validateComment(comment);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                final Bet bet;
+                try (PreparedStatement statement = connection.prepareStatement(BUMP_VERSION)) {
+                    statement.setString(1, xref);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            throw new BetDoesNotExistException("Bet " + xref + " does not exist");
+                        }
+                        bet = toBet(resultSet);
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(add ? INSERT_COMMENT : DELETE_COMMENT)) {
+                    int index = 1;
+                    if (add) {
+                        statement.setString(index++, idGenerator.newId());
+                        statement.setString(index++, idGenerator.newId());
+                    }
+                    statement.setString(index++, bet.getId());
+                    statement.setString(index, comment);
+                    statement.executeUpdate();
+                }
+                loadParticipants(connection, bet);
+                loadComments(connection, Collections.singletonList(bet));
+                connection.commit();
+                return bet;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public Bet createBet(final BetRequest betRequest) {
+        if (betRequest == null) {
+            throw new IllegalArgumentException("BetRequest was null");
+        }
+        if (isNullOrEmpty(betRequest.getCreatorXref())) {
+            throw new IllegalArgumentException("id was null or empty");
+        }
+        validateContent(betRequest);
+        int tries = 0;
+        while (tries < 3) {
+            final Bet bet = newBet(betRequest);
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    insertBet(connection, bet);
+                    connection.commit();
+                    return bet;
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw translate(e);
+                }
+                tries++;
+            }
+        }
+        throw new CouldNotCreateBetException("Unable to generate unique bet id after " + tries + " tries");
+    }
+
+    /**
+     * Creates many bets in one transaction, with the bet rows and the participant rows each sent as
+     * a single JDBC batch. Requests naming a participant who is not a user fail on their own; of the
+     * rest, either every valid request is created or, if the database rejects the batch, none are.
+     *
+     * @param betRequests details of bets to create
+     * @return one result per request, in request order
+     */
+    @Override
+    public List<BetCreateResult> createBets(final List<BetRequest> betRequests) {
+        if (betRequests == null) {
+            throw new IllegalArgumentException("BetRequests was null");
+        }
+        final BetCreateResult[] results = new BetCreateResult[betRequests.size()];
+        final List<Bet> bets = new ArrayList<>(betRequests.size());
+        final List<Integer> indexes = new ArrayList<>(betRequests.size());
+        for (int i = 0; i < betRequests.size(); i++) {
+            final BetRequest betRequest = betRequests.get(i);
+            if (betRequest == null) {
+                results[i] = BetCreateResult.failed(i, 400, "BetRequest was null");
+                continue;
+            }
+            try {
+                if (isNullOrEmpty(betRequest.getCreatorXref())) {
+                    throw new IllegalArgumentException("id was null or empty");
+                }
+                validateContent(betRequest);
+                bets.add(newBet(betRequest));
+                indexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BetCreateResult.failed(i, 400, e.getMessage());
+            }
+        }
+        if (!bets.isEmpty()) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    rejectUnknownParticipants(connection, bets, indexes, results);
+                    if (!bets.isEmpty()) {
+                        insertBets(connection, bets);
+                    }
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                for (int i = 0; i < bets.size(); i++) {
+                    results[indexes.get(i)] = BetCreateResult.created(indexes.get(i), bets.get(i));
+                }
+            } catch (SQLException e) {
+                final String message = translate(e).getMessage();
+                for (Integer index : indexes) {
+                    results[index] = BetCreateResult.failed(index, 500, message);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void insertBet(final Connection connection, final Bet bet) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_BET)) {
+            bindBet(statement, bet);
+            statement.executeUpdate();
+        }
+        insertParticipants(connection, Collections.singletonList(bet));
+    }
+
+    private void insertBets(final Connection connection, final List<Bet> bets) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_BET)) {
+            for (Bet bet : bets) {
+                bindBet(statement, bet);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        insertParticipants(connection, bets);
+    }
+
+    private void insertParticipants(final Connection connection, final List<Bet> bets) throws SQLException {
+        if (bets.stream().allMatch(bet -> bet.getParticipants() == null || bet.getParticipants().isEmpty())) {
+            return;
+        }
+        final List<String> participants = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_PARTICIPANT)) {
+            for (Bet bet : bets) {
+                if (bet.getParticipants() == null) {
+                    continue;
+                }
+                for (String participant : new LinkedHashSet<>(bet.getParticipants())) {
+                    statement.setString(1, bet.getId());
+                    statement.setString(2, participant);
+                    statement.addBatch();
+                    participants.add(participant);
+                }
+            }
+            final int[] counts = statement.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                // the bets are new and their participants distinct, so no row means no such user
+                if (counts[i] == 0) {
+                    throw new IllegalArgumentException("participant " + participants.get(i) + " does not exist");
+                }
+            }
+        }
+    }
+
+    /**
+     * Fails the bets with a participant that is not a user, so the rest of a bulk create can go
+     * ahead; the bets and their indexes are removed from the lists.
+     */
+    private static void rejectUnknownParticipants(final Connection connection, final List<Bet> bets,
+                                                  final List<Integer> indexes, final BetCreateResult[] results)
+            throws SQLException {
+        final Set<String> participants = new HashSet<>();
+        bets.stream().filter(bet -> bet.getParticipants() != null)
+                .forEach(bet -> participants.addAll(bet.getParticipants()));
+        if (participants.isEmpty()) {
+            return;
+        }
+        final Set<String> users = new HashSet<>(participants.size() * 2);
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_USER_XREFS)) {
+            statement.setArray(1, connection.createArrayOf("varchar", participants.toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    users.add(resultSet.getString(1));
+                }
+            }
+        }
+        for (int i = bets.size() - 1; i >= 0; i--) {
+            final List<String> betParticipants = bets.get(i).getParticipants();
+            final Optional<String> unknown = betParticipants == null ? Optional.empty()
+                    : betParticipants.stream().filter(participant -> !users.contains(participant)).findFirst();
+            if (unknown.isPresent()) {
+                final int index = indexes.remove(i);
+                bets.remove(i);
+                results[index] = BetCreateResult.failed(index, 400, "participant " + unknown.get() + " does not exist");
+            }
+        }
+    }
+
+    private static void bindBet(final PreparedStatement statement, final Bet bet) throws SQLException {
+        statement.setString(1, bet.getId());
+        statement.setString(2, bet.getXref());
+        statement.setTimestamp(3, toTimestamp(bet.getCreatedAt()));
+        statement.setString(4, bet.getCreatorXref());
+        statement.setString(5, bet.getCommissionerXref());
+        statement.setString(6, bet.getTitle());
+        statement.setString(7, bet.getDescription());
+        statement.setString(8, bet.getConditions());
+        statement.setString(9, bet.getPunishment());
+        statement.setTimestamp(10, toTimestamp(bet.getConditionsDeadline()));
+        statement.setTimestamp(11, toTimestamp(bet.getPunishmentDeadline()));
+        statement.setString(12, bet.getResultXref());
+        statement.setBoolean(13, Boolean.TRUE.equals(bet.getIsComplete()));
+    }
+
+    private Bet selectBet(final Connection connection, final String xref) throws SQLException {
+        final Bet bet;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_BET)) {
+            statement.setString(1, xref);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                bet = toBet(resultSet);
+            }
+        }
+        loadParticipants(connection, bet);
+        loadComments(connection, Collections.singletonList(bet));
+        return bet;
+    }
+
+    private void loadParticipants(final Connection connection, final Bet bet) throws SQLException {
+        final List<Bet> bets = new ArrayList<>(1);
+        bets.add(bet);
+        loadParticipants(connection, bets);
+    }
+
+    private void loadParticipants(final Connection connection, final List<Bet> bets) throws SQLException {
+        if (bets.isEmpty()) {
+            return;
+        }
+        final Map<String, Bet> betsById = new HashMap<>(bets.size() * 2);
+        for (Bet bet : bets) {
+            bet.setParticipants(new ArrayList<>());
+            betsById.put(bet.getId(), bet);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_PARTICIPANTS)) {
+            statement.setArray(1, connection.createArrayOf("varchar", betsById.keySet().toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    betsById.get(resultSet.getString(1)).getParticipants().add(resultSet.getString(2));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets each bet's comments, leaving them null on bets without any as DynamoDB does.
+     */
+    private void loadComments(final Connection connection, final List<Bet> bets) throws SQLException {
+        if (bets.isEmpty()) {
+            return;
+        }
+        final Map<String, Bet> betsById = new HashMap<>(bets.size() * 2);
+        bets.forEach(bet -> betsById.put(bet.getId(), bet));
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_COMMENTS)) {
+            statement.setArray(1, connection.createArrayOf("varchar", betsById.keySet().toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    final Bet bet = betsById.get(resultSet.getString(1));
+                    if (bet.getComments() == null) {
+                        bet.setComments(new ArrayList<>());
+                    }
+                    bet.getComments().add(resultSet.getString(2));
+                }
+            }
+        }
+    }
+
+    private Bet newBet(final BetRequest betRequest) {
+        return Bet.builder()
+                .id(idGenerator.newId())
+                .xref(idGenerator.newId())
+                .creatorXref(betRequest.getCreatorXref())
+                .participants(betRequest.getParticipants())
+                .commissionerXref(isNullOrEmpty(betRequest.getCommissionerXref())
+                        ? betRequest.getCreatorXref() : betRequest.getCommissionerXref())
+                .createdAt(new Date())
+                .title(betRequest.getTitle())
+                .description(betRequest.getDescription())
+                .conditions(betRequest.getConditions())
+                .punishment(betRequest.getPunishment())
+                .conditionsDeadline(betRequest.getConditionsDeadline())
+                .punishmentDeadline(betRequest.getPunishmentDeadline())
+                .isComplete(false)
+                .version(1L)
+                .build();
+    }
+
+    private static Bet toBet(final ResultSet resultSet) throws SQLException {
+        return Bet.builder()
+                .id(resultSet.getString("id"))
+                .xref(resultSet.getString("xref"))
+                .createdAt(resultSet.getTimestamp("created_at"))
+                .creatorXref(resultSet.getString("creator_id"))
+                .commissionerXref(resultSet.getString("commissioner_id"))
+                .title(resultSet.getString("title"))
+                .description(resultSet.getString("description"))
+                .conditions(resultSet.getString("conditions"))
+                .punishment(resultSet.getString("punishment"))
+                .conditionsDeadline(resultSet.getTimestamp("conditions_deadline"))
+                .punishmentDeadline(resultSet.getTimestamp("punishment_deadline"))
+                .resultXref(resultSet.getString("result_xref"))
+                .isComplete(resultSet.getBoolean("is_complete"))
+                .version(resultSet.getLong("version"))
+                .build();
+    }
+
+    private static void validateContent(final BetRequest bet) {
+        if (bet.getTitle() == null) {
+            throw new IllegalArgumentException("title must be defined");
+        }
+        if (bet.getConditions() == null) {
+            throw new IllegalArgumentException("conditions must be defined");
+        }
+        if (bet.getPunishment() == null) {
+            throw new IllegalArgumentException("punishment must be defined");
+        }
+        if (bet.getConditionsDeadline() == null) {
+            throw new IllegalArgumentException("conditionsDeadline must be defined");
+        }
+        if (bet.getPunishmentDeadline() == null) {
+            throw new IllegalArgumentException("punishmentDeadline must be defined");
+        }
+    }
+
+    private static Timestamp toTimestamp(final Date date) {
+        return date == null ? null : new Timestamp(date.getTime());
+    }
+
+    private static String encodeToken(final String xref) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(xref.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeToken(final String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+
+    private RuntimeException translate(final SQLException e) {
+        if (UNDEFINED_TABLE.equals(e.getSQLState())) {
+            return new TableDoesNotExistException("Bet table does not exist");
+        }
+        return new IllegalStateException("Database error: " + e.getMessage(), e);
+    }
+
+    private static boolean isNullOrEmpty(final String string) {
+        return string == null || string.isEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package com.amazonaws.dao;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts DynamoDB pagination keys to and from opaque, URL-safe continuation tokens so callers
+ * never see (or depend on) the key schema of the table or index being paged.
+ */
+final class PageTokens {
+    private static final byte STRING = 'S';
+    private static final byte NUMBER = 'N';
+
+    private PageTokens() {
+    }
+
+    /**
+     * Encodes a LastEvaluatedKey as a continuation token.
+     *
+     * @param key the key returned by DynamoDB, may be null or empty
+     * @return the token, or null if there are no more pages
+     */
+    static String encode(final Map<String, AttributeValue> key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(key.size());
+            for (Map.Entry<String, AttributeValue> entry : key.entrySet()) {
+                out.writeUTF(entry.getKey());
+                AttributeValue value = entry.getValue();
+                if (value.s() != null) {
+                    out.writeByte(STRING);
+                    out.writeUTF(value.s());
+                } else if (value.n() != null) {
+                    out.writeByte(NUMBER);
+                    out.writeUTF(value.n());
+                } else {
+                    throw new IllegalStateException("Unsupported key attribute type for " + entry.getKey());
+                }
+            }
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode page token", e);
+        }
+    }
+
+    /**
+     * Decodes a continuation token back into an ExclusiveStartKey.
+     *
+     * @param token token previously returned by {@link #encode(Map)}
+     * @return the key to resume from
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static Map<String, AttributeValue> decode(final String token) {
+        try {
+            DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)));
+            int size = in.readUnsignedByte();
+            Map<String, AttributeValue> key = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                String name = in.readUTF();
+                byte type = in.readByte();
+                String value = in.readUTF();
+                if (type == STRING) {
+                    key.put(name, AttributeValue.builder().s(value).build());
+                } else if (type == NUMBER) {
+                    key.put(name, AttributeValue.builder().n(value).build());
+                } else {
+                    throw new IllegalArgumentException("Invalid page token");
+                }
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            return key;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.amazonaws.dao;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs the call and every
+ * caller that arrives while it is in flight waits for and shares its result or exception. Nothing
+ * is cached once the call returns, so a caller arriving afterwards starts a new call.
+ * <p>
+ * Every caller gets the same result instance, so V must be immutable or be copied by each caller;
+ * a mutable result handed to several callers lets one change what the others see. A caller also
+ * gets whatever the call read when it started, so a writer calls {@link #forget} once its write
+ * lands to keep later callers from joining a call that may have read the value before it.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+final class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs call for key unless a call for key is already in flight, in which case waits for that one.
+     *
+     * @param key  key identifying the call
+     * @param call call to run
+     * @return the result of whichever call ran
+     */
+    V run(final K key, final Supplier<V> call) {
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            final V value = call.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Stops callers from joining the call in flight for key, if any, so the next caller starts a
+     * new one. Callers already waiting still get the forgotten call's result.
+     *
+     * @param key key identifying the call
+     */
+    void forget(final K key) {
+        inFlight.remove(key);
+    }
+
+    private static <V> V await(final CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads an API Gateway proxy event with a streaming {@link JsonParser}, keeping only the fields in
+ * {@link ApiGatewayEvent}. multiValueHeaders and requestContext, usually most of the event, are
+ * skipped token by token without building a tree, and fields are matched at the top
+ * level only rather than searched for recursively.
+ */
+public class ApiGatewayEventParser {
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs an ApiGatewayEventParser.
+     *
+     * @param objectMapper mapper whose factory creates the parser
+     */
+    public ApiGatewayEventParser(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parses an event and closes input.
+     *
+     * @param input the Lambda input stream
+     * @return the event, or null if input was empty
+     * @throws JsonParseException if input is not a JSON object
+     * @throws IOException        if input could not be read
+     */
+    public ApiGatewayEvent parse(final InputStream input) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            final JsonToken start = parser.nextToken();
+            if (start == null) {
+                return null;
+            }
+            if (start != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an event object but found " + start);
+            }
+            final ApiGatewayEvent.ApiGatewayEventBuilder event = ApiGatewayEvent.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "httpMethod":
+                        event.httpMethod(readString(parser));
+                        break;
+                    case "resource":
+                        event.resource(readString(parser));
+                        break;
+                    case "pathParameters":
+                        event.pathParameters(readStringMap(parser));
+                        break;
+                    case "queryStringParameters":
+                        event.queryStringParameters(readStringMap(parser));
+                        break;
+                    case "headers":
+                        event.headers(readStringMap(parser));
+                        break;
+                    case "body":
+                        event.body(readBody(parser));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return event.build();
+        }
+    }
+
+    private static String readString(final JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    private static Map<String, String> readStringMap(final JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return Collections.emptyMap();
+        }
+        final Map<String, String> values = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            parser.nextToken();
+            values.put(name, readString(parser));
+        }
+        return values;
+    }
+
+    /**
+     * API Gateway always sends the body as a string. Direct invocations sometimes send it as JSON;
+     * that is accepted and passed on as text.
+     */
+    private String readBody(final JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            return objectMapper.readTree(parser).toString();
+        }
+        return parser.getValueAsString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.config.BetComponent;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.dao.BetUserIndexBackfill;
+import com.amazonaws.model.response.MigrationResult;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.inject.Inject;
+
+/**
+ * Invoked directly rather than through API Gateway. Copies existing bets into the user bets table
+ * until the bet table is done or the invocation is close to timing out, and returns a
+ * {@link MigrationResult}. Invoke again with {"exclusiveStartKey": "..."} from the result to
+ * resume.
+ */
+public class BackfillUserBetsHandler implements RequestStreamHandler {
+    // leave time for the page in flight and the response
+    private static final long MIN_REMAINING_MILLIS = 30_000;
+
+    @Inject
+    ObjectMapper objectMapper;
+    @Inject
+    BetUserIndexBackfill backfill;
+
+    public BackfillUserBetsHandler() {
+        this(BetComponents.get());
+    }
+
+    BackfillUserBetsHandler(final BetComponent betComponent) {
+        betComponent.inject(this);
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+        final JsonNode request = objectMapper.readTree(input);
+        final String exclusiveStartKey = request == null || !request.hasNonNull("exclusiveStartKey")
+                ? null : request.get("exclusiveStartKey").asText();
+        final MigrationResult result = backfill.run(exclusiveStartKey,
+                () -> context == null || context.getRemainingTimeInMillis() > MIN_REMAINING_MILLIS);
+        objectMapper.writeValue(output, result);
+    }
+}
@@ -0,0 +1,115 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.config.BetComponent;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.dao.BetStore;
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.request.BatchGetBetsRequest;
+import com.amazonaws.model.response.ErrorMessage;
+import com.amazonaws.model.response.GetBetsResponse;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import javax.inject.Inject;
+
+public class BatchGetBetsHandler implements BetRequestStreamHandler {
+    static final int MAX_XREFS = 1000;
+    private static final ErrorMessage REQUIRE_XREFS_ERROR = new ErrorMessage(
+            "Require between 1 and " + MAX_XREFS + " xrefs", SC_BAD_REQUEST);
+
+    @Inject
+    ObjectMapper objectMapper;
+    @Inject
+    GatewayResponseWriter responseWriter;
+    @Inject
+    ApiGatewayEventParser eventParser;
+    @Inject
+    BetStore betStore;
+    private final BetComponent betComponent;
+
+    public BatchGetBetsHandler() {
+        this(BetComponents.get());
+    }
+
+    BatchGetBetsHandler(final BetComponent betComponent) {
+        this.betComponent = betComponent;
+        betComponent.inject(this);
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output,
+                              Context context) throws IOException {
+        final ApiGatewayEvent event;
+        try {
+            event = eventParser.parse(input);
+        } catch (JsonProcessingException e) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, e.getMessage());
+            return;
+        }
+        if (event == null) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, "event was null");
+            return;
+        }
+        handleEvent(event, output);
+    }
+
+    void handleEvent(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        final String batchGetRequestBody = event.getBody();
+        if (batchGetRequestBody == null) {
+            responseWriter.write(output,
+                    new ErrorMessage("Body was null", SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        final BatchGetBetsRequest request;
+        try {
+            request = objectMapper.readValue(batchGetRequestBody, BatchGetBetsRequest.class);
+        } catch (JsonParseException | JsonMappingException e) {
+            responseWriter.write(output,
+                    new ErrorMessage("Invalid JSON in body: " + e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        if (request == null) {
+            responseWriter.write(output, REQUEST_WAS_NULL_ERROR, APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        if (request.getXrefs() == null || request.getXrefs().isEmpty() || request.getXrefs().size() > MAX_XREFS) {
+            responseWriter.write(output, REQUIRE_XREFS_ERROR, APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        try {
+            List<Bet> bets = join(request.getXrefs());
+            responseWriter.write(output, new GetBetsResponse(null, bets), APPLICATION_JSON, SC_OK);
+        } catch (TableDoesNotExistException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_INTERNAL_SERVER_ERROR),
+                    APPLICATION_JSON, SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private List<Bet> join(final List<String> xrefs) {
+        try {
+            return betStore.getBetsAsync(xrefs).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.config.BetComponent;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.dao.BetStore;
+import com.amazonaws.exception.BetDoesNotExistException;
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.request.CommentRequest;
+import com.amazonaws.model.response.ErrorMessage;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.inject.Inject;
+
+/**
+ * Adds a comment to a bet on POST and removes one on DELETE. Both are single atomic updates of the
+ * bet's comment set, so concurrent commenters never overwrite each other's comments.
+ */
+public class BetCommentsHandler implements BetRequestStreamHandler {
+    @Inject
+    ObjectMapper objectMapper;
+    @Inject
+    GatewayResponseWriter responseWriter;
+    @Inject
+    ApiGatewayEventParser eventParser;
+    @Inject
+    BetStore betStore;
+    private final BetComponent betComponent;
+
+    public BetCommentsHandler() {
+        this(BetComponents.get());
+    }
+
+    BetCommentsHandler(final BetComponent betComponent) {
+        this.betComponent = betComponent;
+        betComponent.inject(this);
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output,
+                              Context context) throws IOException {
+        final ApiGatewayEvent event;
+        try {
+            event = eventParser.parse(input);
+        } catch (JsonProcessingException e) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, e.getMessage());
+            return;
+        }
+        if (event == null) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, "event was null");
+            return;
+        }
+        handleEvent(event, output);
+    }
+
+    void handleEvent(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        final String betXref = event.getPathParameter("betXref");
+        if (isNullOrEmpty(betXref)) {
+            responseWriter.write(output, BET_XREF_WAS_NOT_SET, APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+
+        final String commentRequestBody = event.getBody();
+        if (commentRequestBody == null) {
+            responseWriter.write(output,
+                    new ErrorMessage("Body was null", SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+
+        final CommentRequest request;
+        try {
+            request = objectMapper.readValue(commentRequestBody, CommentRequest.class);
+        } catch (JsonParseException | JsonMappingException e) {
+            responseWriter.write(output,
+                    new ErrorMessage("Invalid JSON in body: " + e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        if (request == null) {
+            responseWriter.write(output, REQUEST_WAS_NULL_ERROR, APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        try {
+            if ("DELETE".equals(event.getHttpMethod())) {
+                responseWriter.write(output, betStore.removeComment(betXref, request.getComment()),
+                        APPLICATION_JSON, SC_OK);
+            } else {
+                responseWriter.write(output, betStore.addComment(betXref, request.getComment()),
+                        APPLICATION_JSON, SC_OK);
+            }
+        } catch (BetDoesNotExistException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_NOT_FOUND),
+                    APPLICATION_JSON, SC_NOT_FOUND);
+        } catch (TableDoesNotExistException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_INTERNAL_SERVER_ERROR),
+                    APPLICATION_JSON, SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
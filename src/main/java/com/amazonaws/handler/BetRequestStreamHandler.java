@@ -1,9 +1,7 @@
 package com.amazonaws.handler;
 
 import com.amazonaws.model.response.ErrorMessage;
-import com.amazonaws.model.response.GatewayResponse;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -14,6 +12,8 @@ import java.util.Map;
 public interface BetRequestStreamHandler extends RequestStreamHandler {
     int SC_OK = 200;
     int SC_CREATED = 201;
+    int SC_MULTI_STATUS = 207;
+    int SC_NOT_MODIFIED = 304;
     int SC_BAD_REQUEST = 400;
     int SC_NOT_FOUND = 404;
     int SC_CONFLICT = 409;
@@ -25,15 +25,16 @@ public interface BetRequestStreamHandler extends RequestStreamHandler {
     /**
      * This method writes a body has invalid JSON response.
      *
-     * @param objectMapper the mappeter to use for converting the error response to
-     *                     JSON.
-     * @param output       the output stream to write with the mapper.
-     * @param details      a detailed message describing why the JSON was invalid.
+     * @param responseWriter the writer that serializes the error once, into the response envelope.
+     * @param output         the output stream to write the response to.
+     * @param details        a detailed message describing why the JSON was invalid.
      * @throws IOException if there was an issue converting the ErrorMessage object
      *                     to JSON.
      */
-    default void writeInvalidJsonInStreamResponse(ObjectMapper objectMapper, OutputStream output, String details) throws IOException {
-        objectMapper.writeValue(output, new GatewayResponse<>(objectMapper.writeValueAsString(new ErrorMessage("Invalid JSON in body: " + details, SC_BAD_REQUEST)), APPLICATION_JSON, SC_BAD_REQUEST));
+    default void writeInvalidJsonInStreamResponse(GatewayResponseWriter responseWriter, OutputStream output,
+                                                  String details) throws IOException {
+        responseWriter.write(output, new ErrorMessage("Invalid JSON in body: " + details, SC_BAD_REQUEST),
+                APPLICATION_JSON, SC_BAD_REQUEST);
     }
 
     default boolean isNullOrEmpty(final String string) {
@@ -0,0 +1,155 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.config.BetComponent;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.metrics.BetMetrics;
+import com.amazonaws.metrics.StartupTimings;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.response.ErrorMessage;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.inject.Inject;
+
+/**
+ * Serves every bet route from one function so that a single warm container, JIT profile and set
+ * of client connection pools handle all traffic. Routes are keyed by the API Gateway httpMethod
+ * and resource template and dispatch to the same logic as the per-route handlers, which share
+ * this handler's component. Each invocation's latency is recorded against its route and tagged
+ * cold or warm.
+ */
+public class BetRouterHandler implements BetRequestStreamHandler {
+    // metrics key for events that matched no route, so unknown paths cannot grow the dimension set
+    private static final String UNROUTED = "UNROUTED";
+    @Inject
+    GatewayResponseWriter responseWriter;
+    @Inject
+    ApiGatewayEventParser eventParser;
+    @Inject
+    BetMetrics betMetrics;
+    private final BetComponent betComponent;
+    private final Map<String, Route> routes = new HashMap<>();
+    private final Set<String> resources;
+
+    public BetRouterHandler() {
+        this(BetComponents.get());
+    }
+
+    BetRouterHandler(final BetComponent betComponent) {
+        this.betComponent = betComponent;
+        betComponent.inject(this);
+        routes.put(key("GET", "/bets"), new GetBetsHandler(betComponent)::handleEvent);
+        routes.put(key("POST", "/bets"), new CreateBetHandler(betComponent)::handleEvent);
+        routes.put(key("POST", "/bets/batchGet"), new BatchGetBetsHandler(betComponent)::handleEvent);
+        routes.put(key("POST", "/bets/bulk"), new BulkCreateBetsHandler(betComponent)::handleEvent);
+        routes.put(key("GET", "/bets/due"), new FindBetsByDeadlineHandler(betComponent)::handleEvent);
+        routes.put(key("GET", "/bets/{betXref}"), new GetBetHandler(betComponent)::handleEvent);
+        final UpdateBetHandler updateBetHandler = new UpdateBetHandler(betComponent);
+        routes.put(key("POST", "/bets/{betXref}"), updateBetHandler::handleEvent);
+        routes.put(key("PATCH", "/bets/{betXref}"), updateBetHandler::handleEvent);
+        routes.put(key("DELETE", "/bets/{betXref}"), new DeleteBetHandler(betComponent)::handleEvent);
+        final BetCommentsHandler betCommentsHandler = new BetCommentsHandler(betComponent);
+        routes.put(key("POST", "/bets/{betXref}/comments"), betCommentsHandler::handleEvent);
+        routes.put(key("DELETE", "/bets/{betXref}/comments"), betCommentsHandler::handleEvent);
+        routes.put(key("GET", "/users/{userXref}/bets"), new GetUserBetsHandler(betComponent)::handleEvent);
+        final Set<String> templates = new HashSet<>();
+        routes.keySet().forEach(routeKey -> templates.add(routeKey.substring(routeKey.indexOf(' ') + 1)));
+        resources = Collections.unmodifiableSet(templates);
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output,
+                              Context context) throws IOException {
+        record(() -> {
+            final ApiGatewayEvent event;
+            try {
+                event = eventParser.parse(input);
+            } catch (JsonProcessingException e) {
+                writeInvalidJsonInStreamResponse(responseWriter, output, e.getMessage());
+                return UNROUTED;
+            }
+            if (event == null) {
+                writeInvalidJsonInStreamResponse(responseWriter, output, "event was null");
+                return UNROUTED;
+            }
+            return route(event, output);
+        });
+    }
+
+    /**
+     * Dispatches an event that has already been parsed or built, recording it like
+     * {@link #handleRequest}. Used by hosts that adapt their own requests into events.
+     *
+     * @param event  the request
+     * @param output stream the API Gateway proxy response is written to, or a
+     *               {@link DirectResponseStream} to receive the response without the envelope
+     * @throws IOException if the response could not be written
+     */
+    public void handleEvent(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        record(() -> route(event, output));
+    }
+
+    /**
+     * Returns the resource templates that have at least one route, for example "/bets/{betXref}".
+     *
+     * @return the resource templates
+     */
+    public Set<String> resources() {
+        return resources;
+    }
+
+    private void record(final Dispatch dispatch) throws IOException {
+        final long start = System.nanoTime();
+        String routeKey = UNROUTED;
+        try {
+            routeKey = dispatch.run();
+        } catch (IOException | RuntimeException e) {
+            betMetrics.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            final boolean cold = StartupTimings.recordInvoke(start);
+            betMetrics.recordInvocation(routeKey, System.nanoTime() - start, cold);
+            betMetrics.flushIfDue(cold);
+        }
+    }
+
+    /**
+     * Dispatches the event and returns the key of the route that served it, or UNROUTED.
+     */
+    private String route(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        final String httpMethod = event.getHttpMethod();
+        final String resource = event.getResource();
+        final String routeKey = key(httpMethod, resource);
+        final Route route = routes.get(routeKey);
+        if (route == null) {
+            responseWriter.write(output,
+                    new ErrorMessage("No route for " + httpMethod + " " + resource, SC_NOT_FOUND),
+                    APPLICATION_JSON, SC_NOT_FOUND);
+            return UNROUTED;
+        }
+        route.handle(event, output);
+        return routeKey;
+    }
+
+    private static String key(final String httpMethod, final String resource) {
+        return String.valueOf(httpMethod).toUpperCase() + " " + resource;
+    }
+
+    @FunctionalInterface
+    private interface Dispatch {
+        String run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        void handle(ApiGatewayEvent event, OutputStream output) throws IOException;
+    }
+}
@@ -0,0 +1,101 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.config.BetComponent;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.dao.BetStore;
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
+import com.amazonaws.model.response.BulkCreateBetsResponse;
+import com.amazonaws.model.response.ErrorMessage;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import javax.inject.Inject;
+
+public class BulkCreateBetsHandler implements BetRequestStreamHandler {
+    static final int MAX_BETS = 1000;
+    private static final ErrorMessage REQUIRE_BETS_ERROR = new ErrorMessage(
+            "Require between 1 and " + MAX_BETS + " bets", SC_BAD_REQUEST);
+    private static final TypeReference<List<BetRequest>> BET_REQUESTS = new TypeReference<List<BetRequest>>() {
+    };
+
+    @Inject
+    ObjectMapper objectMapper;
+    @Inject
+    GatewayResponseWriter responseWriter;
+    @Inject
+    ApiGatewayEventParser eventParser;
+    @Inject
+    BetStore betStore;
+    private final BetComponent betComponent;
+
+    public BulkCreateBetsHandler() {
+        this(BetComponents.get());
+    }
+
+    BulkCreateBetsHandler(final BetComponent betComponent) {
+        this.betComponent = betComponent;
+        betComponent.inject(this);
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output,
+                              Context context) throws IOException {
+        final ApiGatewayEvent event;
+        try {
+            event = eventParser.parse(input);
+        } catch (JsonProcessingException e) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, e.getMessage());
+            return;
+        }
+        if (event == null) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, "event was null");
+            return;
+        }
+        handleEvent(event, output);
+    }
+
+    void handleEvent(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        final String bulkCreateRequestBody = event.getBody();
+        if (bulkCreateRequestBody == null) {
+            responseWriter.write(output,
+                    new ErrorMessage("Body was null", SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        final List<BetRequest> requests;
+        try {
+            requests = objectMapper.readValue(bulkCreateRequestBody, BET_REQUESTS);
+        } catch (JsonParseException | JsonMappingException e) {
+            responseWriter.write(output,
+                    new ErrorMessage("Invalid JSON in body: " + e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BETS) {
+            responseWriter.write(output, REQUIRE_BETS_ERROR, APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        try {
+            List<BetCreateResult> results = betStore.createBets(requests);
+            final boolean allCreated = results.stream().allMatch(result -> result.getStatusCode() == SC_CREATED);
+            responseWriter.write(output,
+                    new BulkCreateBetsResponse(results),
+                    APPLICATION_JSON, allCreated ? SC_CREATED : SC_MULTI_STATUS);
+        } catch (TableDoesNotExistException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_INTERNAL_SERVER_ERROR),
+                    APPLICATION_JSON, SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
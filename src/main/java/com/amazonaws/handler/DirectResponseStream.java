@@ -0,0 +1,29 @@
+package com.amazonaws.handler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Output for hosts that write HTTP responses themselves, such as the standalone server. Handlers
+ * pass it to {@link GatewayResponseWriter} like any Lambda output stream, and the writer hands it
+ * the status, headers and serialized body instead of an API Gateway proxy response, so the body is
+ * serialized once and never wrapped or parsed back out.
+ */
+public abstract class DirectResponseStream extends OutputStream {
+
+    /**
+     * Sends the response.
+     *
+     * @param statusCode status code of the response
+     * @param headers    headers of the response
+     * @param body       serialized body, empty for a response without one
+     * @throws IOException if the response could not be sent
+     */
+    public abstract void respond(int statusCode, Map<String, String> headers, byte[] body) throws IOException;
+
+    @Override
+    public void write(final int b) throws IOException {
+        throw new IOException("Responses are sent with respond, not written as a stream");
+    }
+}
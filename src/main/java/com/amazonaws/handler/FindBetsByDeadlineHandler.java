@@ -0,0 +1,93 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.config.BetComponent;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.dao.BetStore;
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.Deadline;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.response.ErrorMessage;
+import com.amazonaws.model.response.GetBetsResponse;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import javax.inject.Inject;
+
+/**
+ * GET /bets/due?deadline=conditions|punishment&amp;from=...&amp;to=... with ISO-8601 instants,
+ * returning the bets whose deadline falls in [from, to) a page at a time.
+ */
+public class FindBetsByDeadlineHandler implements BetRequestStreamHandler {
+    @Inject
+    GatewayResponseWriter responseWriter;
+    @Inject
+    ApiGatewayEventParser eventParser;
+    @Inject
+    BetStore betStore;
+    private final BetComponent betComponent;
+
+    public FindBetsByDeadlineHandler() {
+        this(BetComponents.get());
+    }
+
+    FindBetsByDeadlineHandler(final BetComponent betComponent) {
+        this.betComponent = betComponent;
+        betComponent.inject(this);
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output,
+                              Context context) throws IOException {
+        final ApiGatewayEvent event;
+        try {
+            event = eventParser.parse(input);
+        } catch (JsonProcessingException e) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, e.getMessage());
+            return;
+        }
+        if (event == null) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, "event was null");
+            return;
+        }
+        handleEvent(event, output);
+    }
+
+    void handleEvent(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        try {
+            BetPage page = betStore.findByDeadline(
+                    Deadline.parse(event.getQueryStringParameter("deadline")),
+                    parseInstant(event.getQueryStringParameter("from"), "from"),
+                    parseInstant(event.getQueryStringParameter("to"), "to"),
+                    event.getQueryStringParameter("exclusiveStartKey"));
+            responseWriter.write(output,
+                    new GetBetsResponse(page.getLastEvaluatedKey(), page.getBets()),
+                    APPLICATION_JSON, SC_OK);
+        } catch (TableDoesNotExistException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_INTERNAL_SERVER_ERROR),
+                    APPLICATION_JSON, SC_INTERNAL_SERVER_ERROR);
+        } catch (IllegalArgumentException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+        }
+    }
+
+    private static Date parseInstant(final String value, final String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " must be defined");
+        }
+        try {
+            return Date.from(Instant.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 instant such as 2026-10-18T00:00:00Z");
+        }
+    }
+}
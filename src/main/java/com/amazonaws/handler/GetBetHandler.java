@@ -1,73 +1,111 @@
 package com.amazonaws.handler;
 
 import com.amazonaws.config.BetComponent;
-import com.amazonaws.config.DaggerBetComponent;
-import com.amazonaws.dao.BetDao;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.dao.BetStore;
 import com.amazonaws.exception.BetDoesNotExistException;
 import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.ApiGatewayEvent;
 import com.amazonaws.model.response.ErrorMessage;
-import com.amazonaws.model.response.GatewayResponse;
 import com.amazonaws.services.lambda.runtime.Context;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
 import javax.inject.Inject;
 
+/**
+ * Returns a bet with an ETag made from its xref and version, which changes with every write. A
+ * request whose If-None-Match holds the current tag gets a 304 with no body. The tag is checked
+ * against the one read of the bet, so a stale tag is answered with that read rather than a second.
+ */
 public class GetBetHandler implements BetRequestStreamHandler {
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String ETAG = "ETag";
+    // lets cross-origin browser clients read the tag they send back in If-None-Match
+    private static final String EXPOSE_HEADERS = "Access-Control-Expose-Headers";
     @Inject
-    ObjectMapper objectMapper;
+    GatewayResponseWriter responseWriter;
     @Inject
-    BetDao betDao;
+    ApiGatewayEventParser eventParser;
+    @Inject
+    BetStore betStore;
     private final BetComponent betComponent;
 
     public GetBetHandler() {
-        betComponent = DaggerBetComponent.builder().build();
+        this(BetComponents.get());
+    }
+
+    GetBetHandler(final BetComponent betComponent) {
+        this.betComponent = betComponent;
         betComponent.inject(this);
     }
 
     @Override
     public void handleRequest(InputStream input, OutputStream output,
                               Context context) throws IOException {
-        final JsonNode event;
+        final ApiGatewayEvent event;
         try {
-            event = objectMapper.readTree(input);
-        } catch (JsonMappingException e) {
-            writeInvalidJsonInStreamResponse(objectMapper, output, e.getMessage());
+            event = eventParser.parse(input);
+        } catch (JsonProcessingException e) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, e.getMessage());
             return;
         }
         if (event == null) {
-            writeInvalidJsonInStreamResponse(objectMapper, output, "event was null");
+            writeInvalidJsonInStreamResponse(responseWriter, output, "event was null");
             return;
         }
-        final JsonNode pathParameterMap = event.findValue("pathParameters");
-        final String betXref = Optional.ofNullable(pathParameterMap)
-                .map(mapNode -> mapNode.get("betXref"))
-                .map(JsonNode::asText)
-                .orElse(null);
+        handleEvent(event, output);
+    }
+
+    void handleEvent(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        final String betXref = event.getPathParameter("betXref");
         if (isNullOrEmpty(betXref)) {
-            objectMapper.writeValue(output,
-                    new GatewayResponse<>(
-                            objectMapper.writeValueAsString(BET_XREF_WAS_NOT_SET),
-                            APPLICATION_JSON, SC_BAD_REQUEST));
+            responseWriter.write(output, BET_XREF_WAS_NOT_SET, APPLICATION_JSON, SC_BAD_REQUEST);
             return;
         }
         try {
-            Bet bet = betDao.getBet(betXref);
-            objectMapper.writeValue(output,
-                    new GatewayResponse<>(
-                            objectMapper.writeValueAsString(bet),
-                            APPLICATION_JSON, SC_OK));
+            final Bet bet = betStore.getBet(betXref);
+            final String etag = bet.getVersion() == null ? null : etag(bet.getXref(), bet.getVersion());
+            final String ifNoneMatch = event.getHeader(IF_NONE_MATCH);
+            if (etag != null && ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+                final Map<String, String> headers = new HashMap<>(4);
+                headers.put(ETAG, etag);
+                headers.put(EXPOSE_HEADERS, ETAG);
+                responseWriter.writeEmpty(output, headers, SC_NOT_MODIFIED);
+                return;
+            }
+            final Map<String, String> headers = new HashMap<>(APPLICATION_JSON);
+            if (etag != null) {
+                headers.put(ETAG, etag);
+                headers.put(EXPOSE_HEADERS, ETAG);
+            }
+            responseWriter.write(output, bet, headers, SC_OK);
         } catch (BetDoesNotExistException e) {
-            objectMapper.writeValue(output,
-                    new GatewayResponse<>(
-                            objectMapper.writeValueAsString(
-                                    new ErrorMessage(e.getMessage(), SC_NOT_FOUND)),
-                            APPLICATION_JSON, SC_NOT_FOUND));
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_NOT_FOUND),
+                    APPLICATION_JSON, SC_NOT_FOUND);
+        }
+    }
+
+    static String etag(final String xref, final long version) {
+        return "\"" + xref + "-" + version + "\"";
+    }
+
+    /**
+     * Compares If-None-Match with the weak comparison RFC 9110 requires: it matches if it is * or
+     * lists the tag, with or without a W/ prefix.
+     */
+    static boolean matches(final String ifNoneMatch, final String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            final String trimmed = tag.trim();
+            if ("*".equals(trimmed) || etag.equals(trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed)) {
+                return true;
+            }
         }
+        return false;
     }
 }
@@ -0,0 +1,71 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.config.BetComponent;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.dao.BetStore;
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.response.ErrorMessage;
+import com.amazonaws.model.response.GetBetsResponse;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.inject.Inject;
+
+public class GetBetsHandler implements BetRequestStreamHandler {
+    @Inject
+    GatewayResponseWriter responseWriter;
+    @Inject
+    ApiGatewayEventParser eventParser;
+    @Inject
+    BetStore betStore;
+    private final BetComponent betComponent;
+
+    public GetBetsHandler() {
+        this(BetComponents.get());
+    }
+
+    GetBetsHandler(final BetComponent betComponent) {
+        this.betComponent = betComponent;
+        betComponent.inject(this);
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output,
+                              Context context) throws IOException {
+        final ApiGatewayEvent event;
+        try {
+            event = eventParser.parse(input);
+        } catch (JsonProcessingException e) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, e.getMessage());
+            return;
+        }
+        if (event == null) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, "event was null");
+            return;
+        }
+        handleEvent(event, output);
+    }
+
+    void handleEvent(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        final String exclusiveStartKey = event.getQueryStringParameter("exclusiveStartKey");
+        try {
+            BetPage page = betStore.getBets(exclusiveStartKey);
+            responseWriter.write(output,
+                    new GetBetsResponse(page.getLastEvaluatedKey(), page.getBets()),
+                    APPLICATION_JSON, SC_OK);
+        } catch (TableDoesNotExistException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_INTERNAL_SERVER_ERROR),
+                    APPLICATION_JSON, SC_INTERNAL_SERVER_ERROR);
+        } catch (IllegalArgumentException e) {
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
+        }
+    }
+}
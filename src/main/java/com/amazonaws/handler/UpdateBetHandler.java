@@ -1,121 +1,120 @@
 package com.amazonaws.handler;
 
 import com.amazonaws.config.BetComponent;
-import com.amazonaws.config.DaggerBetComponent;
-import com.amazonaws.dao.BetDao;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.dao.BetStore;
 import com.amazonaws.exception.TableDoesNotExistException;
 import com.amazonaws.exception.UnableToUpdateException;
 import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.ApiGatewayEvent;
 import com.amazonaws.model.request.BetRequest;
 import com.amazonaws.model.response.ErrorMessage;
-import com.amazonaws.model.response.GatewayResponse;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Optional;
 import javax.inject.Inject;
 
+/**
+ * Replaces a bet's details on POST and changes only the attributes the body sets on PATCH.
+ */
 public class UpdateBetHandler implements BetRequestStreamHandler {
     @Inject
     ObjectMapper objectMapper;
     @Inject
-    BetDao betDao;
+    GatewayResponseWriter responseWriter;
+    @Inject
+    ApiGatewayEventParser eventParser;
+    @Inject
+    BetStore betStore;
     private final BetComponent betComponent;
 
     public UpdateBetHandler() {
-        betComponent = DaggerBetComponent.builder().build();
+        this(BetComponents.get());
+    }
+
+    UpdateBetHandler(final BetComponent betComponent) {
+        this.betComponent = betComponent;
         betComponent.inject(this);
     }
 
     @Override
     public void handleRequest(InputStream input, OutputStream output,
                               Context context) throws IOException {
-        final JsonNode event;
+        final ApiGatewayEvent event;
         try {
-            event = objectMapper.readTree(input);
-        } catch (JsonMappingException e) {
-            writeInvalidJsonInStreamResponse(objectMapper, output, e.getMessage());
+            event = eventParser.parse(input);
+        } catch (JsonProcessingException e) {
+            writeInvalidJsonInStreamResponse(responseWriter, output, e.getMessage());
             return;
         }
         if (event == null) {
-            writeInvalidJsonInStreamResponse(objectMapper, output, "event was null");
+            writeInvalidJsonInStreamResponse(responseWriter, output, "event was null");
             return;
         }
-        final JsonNode pathParameterMap = event.findValue("pathParameters");
-        final String betXref = Optional.ofNullable(pathParameterMap)
-                .map(mapNode -> mapNode.get("betXref"))
-                .map(JsonNode::asText)
-                .orElse(null);
+        handleEvent(event, output);
+    }
+
+    void handleEvent(final ApiGatewayEvent event, final OutputStream output) throws IOException {
+        final String betXref = event.getPathParameter("betXref");
         if (isNullOrEmpty(betXref)) {
-            objectMapper.writeValue(output,
-                    new GatewayResponse<>(
-                            objectMapper.writeValueAsString(BET_XREF_WAS_NOT_SET),
-                            APPLICATION_JSON, SC_BAD_REQUEST));
+            responseWriter.write(output, BET_XREF_WAS_NOT_SET, APPLICATION_JSON, SC_BAD_REQUEST);
             return;
         }
 
-        JsonNode updateBetRequestBody = event.findValue("body");
+        final String updateBetRequestBody = event.getBody();
         if (updateBetRequestBody == null) {
-            objectMapper.writeValue(output,
-                    new GatewayResponse<>(
-                            objectMapper.writeValueAsString(
-                                    new ErrorMessage("Body was null",
-                                            SC_BAD_REQUEST)),
-                            APPLICATION_JSON, SC_BAD_REQUEST));
+            responseWriter.write(output,
+                    new ErrorMessage("Body was null", SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
             return;
         }
 
         final BetRequest request;
         try {
-            request = objectMapper.readValue(
-                    updateBetRequestBody.asText(), BetRequest.class);
+            request = objectMapper.readValue(updateBetRequestBody, BetRequest.class);
         } catch (JsonParseException | JsonMappingException e) {
-            objectMapper.writeValue(output,
-                    new GatewayResponse<>(
-                            objectMapper.writeValueAsString(
-                                    new ErrorMessage("Invalid JSON in body: "
-                                            + e.getMessage(), SC_BAD_REQUEST)),
-                            APPLICATION_JSON, SC_BAD_REQUEST));
+            responseWriter.write(output,
+                    new ErrorMessage("Invalid JSON in body: " + e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
             return;
         }
         if (request == null) {
-            objectMapper.writeValue(output,
-                    new GatewayResponse<>(
-                            objectMapper.writeValueAsString(REQUEST_WAS_NULL_ERROR),
-                            APPLICATION_JSON, SC_BAD_REQUEST));
+            responseWriter.write(output, REQUEST_WAS_NULL_ERROR, APPLICATION_JSON, SC_BAD_REQUEST);
+            return;
+        }
+        if (request.getXref() != null && !betXref.equals(request.getXref())) {
+            responseWriter.write(output,
+                    new ErrorMessage("xref in body does not match the path", SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
             return;
         }
+        request.setXref(betXref);
         try {
-            Bet updatedBet = betDao.updateBet(request);
-            objectMapper.writeValue(output, new GatewayResponse<>(
-                    objectMapper.writeValueAsString(updatedBet),
-                    APPLICATION_JSON, SC_OK));
+            Bet updatedBet = "PATCH".equals(event.getHttpMethod())
+                    ? betStore.patchBet(request) : betStore.updateBet(request);
+            responseWriter.write(output, updatedBet, APPLICATION_JSON, SC_OK);
         } catch (UnableToUpdateException e) {
-            objectMapper.writeValue(output, new GatewayResponse<>(
-                    objectMapper.writeValueAsString(
-                            new ErrorMessage(e.getMessage(), SC_CONFLICT)),
-                    APPLICATION_JSON, SC_CONFLICT));
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_CONFLICT),
+                    APPLICATION_JSON, SC_CONFLICT);
         } catch (TableDoesNotExistException e) {
-            objectMapper.writeValue(output, new GatewayResponse<>(
-                    objectMapper.writeValueAsString(
-                            new ErrorMessage(e.getMessage(), SC_BAD_REQUEST)),
-                    APPLICATION_JSON, SC_BAD_REQUEST));
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
         } catch (IllegalArgumentException e) {
-            objectMapper.writeValue(output, new GatewayResponse<>(
-                    objectMapper.writeValueAsString(
-                            new ErrorMessage(e.getMessage(), SC_BAD_REQUEST)),
-                    APPLICATION_JSON, SC_BAD_REQUEST));
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_BAD_REQUEST),
+                    APPLICATION_JSON, SC_BAD_REQUEST);
         } catch (IllegalStateException e) {
-            objectMapper.writeValue(output, new GatewayResponse<>(
-                    objectMapper.writeValueAsString(
-                            new ErrorMessage(e.getMessage(), SC_INTERNAL_SERVER_ERROR)),
-                    APPLICATION_JSON, SC_INTERNAL_SERVER_ERROR));
+            responseWriter.write(output,
+                    new ErrorMessage(e.getMessage(), SC_INTERNAL_SERVER_ERROR),
+                    APPLICATION_JSON, SC_INTERNAL_SERVER_ERROR);
         }
     }
 }
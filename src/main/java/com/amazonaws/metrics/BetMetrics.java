@@ -0,0 +1,206 @@
+package com.amazonaws.metrics;
+
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-route and per-store-call latency histograms, DynamoDB call, retry and consumed capacity
+ * counts, and error counts by exception type. Everything is aggregated in memory and written to
+ * stdout in CloudWatch Embedded Metric Format once per flush interval, so recording costs no
+ * network calls and CloudWatch extracts the metrics from the function's log group.
+ *
+ * <p>Invocations are tagged cold or warm. The cold invocation is flushed immediately so it is never
+ * lost with a container that is not invoked again. EMF carries numbers rather than histograms, so
+ * each interval reports p50, p90, p99 and max per dimension alongside the count.
+ */
+public class BetMetrics implements MetricPublisher {
+    private static final String COLD = "cold";
+    private static final String WARM = "warm";
+
+    private final PrintStream out;
+    private final String namespace;
+    private final long flushIntervalMillis;
+    private final LongSupplier clock;
+    private final Map<String, LatencyHistogram> routeLatencies = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> storeLatencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> dynamoDbCalls = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> dynamoDbRetries = new ConcurrentHashMap<>();
+    private final Map<String, DoubleAdder> consumedCapacity = new ConcurrentHashMap<>();
+    private final LatencyHistogram scratch = new LatencyHistogram();
+    private final AtomicLong lastFlushMillis;
+
+    /**
+     * Constructs a BetMetrics.
+     *
+     * @param out                 stream to write EMF documents to
+     * @param namespace           CloudWatch namespace of the metrics
+     * @param flushIntervalMillis how often to write, 0 to write after every invocation
+     */
+    public BetMetrics(final PrintStream out, final String namespace, final long flushIntervalMillis) {
+        this(out, namespace, flushIntervalMillis, System::currentTimeMillis);
+    }
+
+    BetMetrics(final PrintStream out, final String namespace, final long flushIntervalMillis,
+               final LongSupplier clock) {
+        this.out = out;
+        this.namespace = namespace;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.clock = clock;
+        this.lastFlushMillis = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Records one invocation of a route.
+     *
+     * @param route         method and resource template, for example "GET /bets/{betXref}"
+     * @param elapsedNanos  time spent handling it
+     * @param cold          whether it was the first invocation in this container
+     */
+    public void recordInvocation(final String route, final long elapsedNanos, final boolean cold) {
+        routeLatencies.computeIfAbsent(route + '\n' + (cold ? COLD : WARM), key -> new LatencyHistogram())
+                .record(elapsedNanos / 1000);
+    }
+
+    /**
+     * Records one call on the bet store.
+     *
+     * @param operation    name of the store method
+     * @param elapsedNanos time the call took, including failed calls
+     */
+    public void recordStoreCall(final String operation, final long elapsedNanos) {
+        storeLatencies.computeIfAbsent(operation, key -> new LatencyHistogram()).record(elapsedNanos / 1000);
+    }
+
+    /**
+     * Counts one exception of the given type.
+     *
+     * @param errorType simple name of the exception class
+     */
+    public void recordError(final String errorType) {
+        errors.computeIfAbsent(errorType, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Adds the capacity units a DynamoDB call consumed.
+     *
+     * @param operation DynamoDB operation name
+     * @param units     capacity units, read and write combined
+     */
+    public void recordConsumedCapacity(final String operation, final double units) {
+        consumedCapacity.computeIfAbsent(operation, key -> new DoubleAdder()).add(units);
+    }
+
+    /**
+     * Counts each DynamoDB call and its retries from the metrics the SDK publishes after the call.
+     */
+    @Override
+    public void publish(final MetricCollection metrics) {
+        final String operation = metrics.metricValues(CoreMetric.OPERATION_NAME).stream().findFirst()
+                .orElse("Unknown");
+        dynamoDbCalls.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        metrics.metricValues(CoreMetric.RETRY_COUNT)
+                .forEach(retries -> dynamoDbRetries.computeIfAbsent(operation, key -> new LongAdder()).add(retries));
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Writes the metrics if the flush interval has passed since the last write, or if forced.
+     *
+     * @param force write regardless of the interval, used for the cold invocation
+     */
+    public void flushIfDue(final boolean force) {
+        final long now = clock.getAsLong();
+        final long last = lastFlushMillis.get();
+        if ((force || now - last >= flushIntervalMillis) && lastFlushMillis.compareAndSet(last, now)) {
+            flush(now);
+        }
+    }
+
+    private synchronized void flush(final long now) {
+        routeLatencies.forEach((key, histogram) -> {
+            final int split = key.indexOf('\n');
+            writeLatency(now, histogram, "\"Route\",\"Invocation\"",
+                    "\"Route\":\"" + key.substring(0, split) + "\",\"Invocation\":\"" + key.substring(split + 1) + "\"",
+                    "Latency", "Invocations");
+        });
+        storeLatencies.forEach((operation, histogram) -> writeLatency(now, histogram, "\"Operation\"",
+                "\"Operation\":\"" + operation + "\"", "StoreLatency", "StoreCalls"));
+        errors.forEach((type, count) -> writeCount(now, "ErrorType", type, "Errors", count.sumThenReset()));
+        dynamoDbCalls.forEach((operation, calls) -> {
+            final long callCount = calls.sumThenReset();
+            if (callCount == 0) {
+                return;
+            }
+            final LongAdder retries = dynamoDbRetries.get(operation);
+            final DoubleAdder capacity = consumedCapacity.get(operation);
+            out.println(header(now, "\"DynamoDbOperation\"")
+                    + "{\"Name\":\"DynamoDbCalls\",\"Unit\":\"Count\"},"
+                    + "{\"Name\":\"DynamoDbRetries\",\"Unit\":\"Count\"},"
+                    + "{\"Name\":\"ConsumedCapacity\",\"Unit\":\"Count\"}]}]},"
+                    + "\"DynamoDbOperation\":\"" + operation + "\","
+                    + "\"DynamoDbCalls\":" + callCount + ","
+                    + "\"DynamoDbRetries\":" + (retries == null ? 0 : retries.sumThenReset()) + ","
+                    + "\"ConsumedCapacity\":" + format(capacity == null ? 0.0 : capacity.sumThenReset()) + "}");
+        });
+        out.flush();
+    }
+
+    private void writeLatency(final long now, final LatencyHistogram histogram, final String dimensionNames,
+                              final String dimensions, final String latency, final String calls) {
+        scratch.reset();
+        histogram.drainInto(scratch);
+        if (scratch.count() == 0) {
+            return;
+        }
+        out.println(header(now, dimensionNames)
+                + "{\"Name\":\"" + latency + "P50\",\"Unit\":\"Milliseconds\"},"
+                + "{\"Name\":\"" + latency + "P90\",\"Unit\":\"Milliseconds\"},"
+                + "{\"Name\":\"" + latency + "P99\",\"Unit\":\"Milliseconds\"},"
+                + "{\"Name\":\"" + latency + "Max\",\"Unit\":\"Milliseconds\"},"
+                + "{\"Name\":\"" + calls + "\",\"Unit\":\"Count\"}]}]},"
+                + dimensions + ","
+                + "\"" + latency + "P50\":" + millis(scratch.valueAtPercentile(50)) + ","
+                + "\"" + latency + "P90\":" + millis(scratch.valueAtPercentile(90)) + ","
+                + "\"" + latency + "P99\":" + millis(scratch.valueAtPercentile(99)) + ","
+                + "\"" + latency + "Max\":" + millis(scratch.max()) + ","
+                + "\"" + calls + "\":" + scratch.count() + "}");
+    }
+
+    private void writeCount(final long now, final String dimension, final String value, final String name,
+                            final long count) {
+        if (count == 0) {
+            return;
+        }
+        out.println(header(now, "\"" + dimension + "\"")
+                + "{\"Name\":\"" + name + "\",\"Unit\":\"Count\"}]}]},"
+                + "\"" + dimension + "\":\"" + value + "\","
+                + "\"" + name + "\":" + count + "}");
+    }
+
+    private String header(final long now, final String dimensionNames) {
+        return "{\"_aws\":{\"Timestamp\":" + now + ",\"CloudWatchMetrics\":[{\"Namespace\":\"" + namespace
+                + "\",\"Dimensions\":[[" + dimensionNames + "]],\"Metrics\":[";
+    }
+
+    private static String millis(final long micros) {
+        return format(micros / 1000.0);
+    }
+
+    private static String format(final double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
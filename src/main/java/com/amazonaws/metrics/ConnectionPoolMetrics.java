@@ -0,0 +1,86 @@
+package com.amazonaws.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects JDBC connection pool gauges and connection wait times so the pool can be sized
+ * against the concurrency the function actually sees.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Long::max, 0L);
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(final String poolName, final PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(final long elapsedAcquiredNanos) {
+                acquireCount.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(final long elapsedBorrowedMillis) {
+                usageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * Returns the current pool state. Gauges are zero until the pool has been started.
+     *
+     * @return point in time view of the pool
+     */
+    public Snapshot snapshot() {
+        final PoolStats stats = poolStats;
+        final long acquired = acquireCount.sum();
+        return Snapshot.builder()
+                .activeConnections(stats == null ? 0 : stats.getActiveConnections())
+                .idleConnections(stats == null ? 0 : stats.getIdleConnections())
+                .totalConnections(stats == null ? 0 : stats.getTotalConnections())
+                .pendingThreads(stats == null ? 0 : stats.getPendingThreads())
+                .maxConnections(stats == null ? 0 : stats.getMaxConnections())
+                .acquireCount(acquired)
+                .meanAcquireMicros(acquired == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireNanos.sum() / acquired))
+                .maxAcquireMicros(TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()))
+                .totalUsageMillis(usageMillis.sum())
+                .timeouts(timeouts.sum())
+                .build();
+    }
+
+    @Getter
+    @Builder
+    @ToString
+    public static class Snapshot {
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int totalConnections;
+        private final int pendingThreads;
+        private final int maxConnections;
+        private final long acquireCount;
+        private final long meanAcquireMicros;
+        private final long maxAcquireMicros;
+        private final long totalUsageMillis;
+        private final long timeouts;
+    }
+}
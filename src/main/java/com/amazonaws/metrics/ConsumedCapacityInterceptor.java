@@ -0,0 +1,92 @@
+package com.amazonaws.metrics;
+
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.List;
+
+/**
+ * Asks DynamoDB to return the capacity each call consumed and adds it to {@link BetMetrics}, so the
+ * DAO code does not have to set ReturnConsumedCapacity on every request it builds. Requests that
+ * already ask for consumed capacity are left as they are.
+ */
+public class ConsumedCapacityInterceptor implements ExecutionInterceptor {
+    private static final ReturnConsumedCapacity TOTAL = ReturnConsumedCapacity.TOTAL;
+
+    private final BetMetrics betMetrics;
+
+    /**
+     * Constructs a ConsumedCapacityInterceptor.
+     *
+     * @param betMetrics metrics to add consumed capacity to
+     */
+    public ConsumedCapacityInterceptor(final BetMetrics betMetrics) {
+        this.betMetrics = betMetrics;
+    }
+
+    @Override
+    public SdkRequest modifyRequest(final Context.ModifyRequest context, final ExecutionAttributes executionAttributes) {
+        final SdkRequest request = context.request();
+        if (request.getValueForField("ReturnConsumedCapacity", String.class).isPresent()) {
+            return request;
+        }
+        if (request instanceof GetItemRequest) {
+            return ((GetItemRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        } else if (request instanceof QueryRequest) {
+            return ((QueryRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        } else if (request instanceof ScanRequest) {
+            return ((ScanRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        } else if (request instanceof BatchGetItemRequest) {
+            return ((BatchGetItemRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        } else if (request instanceof BatchWriteItemRequest) {
+            return ((BatchWriteItemRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        } else if (request instanceof TransactWriteItemsRequest) {
+            return ((TransactWriteItemsRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        } else if (request instanceof PutItemRequest) {
+            return ((PutItemRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        } else if (request instanceof UpdateItemRequest) {
+            return ((UpdateItemRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        } else if (request instanceof DeleteItemRequest) {
+            return ((DeleteItemRequest) request).toBuilder().returnConsumedCapacity(TOTAL).build();
+        }
+        return request;
+    }
+
+    @Override
+    public void afterExecution(final Context.AfterExecution context, final ExecutionAttributes executionAttributes) {
+        final SdkResponse response = context.response();
+        final String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        response.getValueForField("ConsumedCapacity", Object.class).ifPresent(value -> {
+            double units = 0;
+            if (value instanceof ConsumedCapacity) {
+                units = units((ConsumedCapacity) value);
+            } else if (value instanceof List) {
+                for (Object capacity : (List<?>) value) {
+                    if (capacity instanceof ConsumedCapacity) {
+                        units += units((ConsumedCapacity) capacity);
+                    }
+                }
+            }
+            betMetrics.recordConsumedCapacity(operation == null ? "Unknown" : operation, units);
+        });
+    }
+
+    private static double units(final ConsumedCapacity capacity) {
+        return capacity.capacityUnits() == null ? 0 : capacity.capacityUnits();
+    }
+}
@@ -0,0 +1,112 @@
+package com.amazonaws.metrics;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the SDK's per-call metrics for the DynamoDB HTTP connection pool: lease waits, pool
+ * gauges, retries and backoff, so the pool and timeouts can be sized against burst load rather
+ * than guessed.
+ *
+ * <p>Gauges are the values reported by the most recent request. Clients that do not report a
+ * lease wait (the Apache client before 2.20) leave the acquire figures at zero; the pending
+ * acquires gauge still shows requests queued for a connection.
+ */
+public class HttpClientMetrics implements MetricPublisher {
+    private final LongAdder apiCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder backoffNanos = new LongAdder();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Long::max, 0L);
+    private final LongAccumulator maxPendingAcquires = new LongAccumulator(Long::max, 0L);
+    private volatile int leasedConnections;
+    private volatile int availableConnections;
+    private volatile int pendingAcquires;
+    private volatile int maxConnections;
+
+    @Override
+    public void publish(final MetricCollection metrics) {
+        apiCalls.increment();
+        metrics.metricValues(CoreMetric.API_CALL_SUCCESSFUL).forEach(successful -> {
+            if (!successful) {
+                failedCalls.increment();
+            }
+        });
+        metrics.metricValues(CoreMetric.RETRY_COUNT).forEach(retries::add);
+        record(metrics);
+    }
+
+    private void record(final MetricCollection metrics) {
+        metrics.metricValues(CoreMetric.BACKOFF_DELAY_DURATION).forEach(delay -> backoffNanos.add(delay.toNanos()));
+        for (Duration wait : metrics.metricValues(HttpMetric.CONCURRENCY_ACQUIRE_DURATION)) {
+            acquireCount.increment();
+            acquireNanos.add(wait.toNanos());
+            maxAcquireNanos.accumulate(wait.toNanos());
+        }
+        metrics.metricValues(HttpMetric.LEASED_CONCURRENCY).forEach(value -> leasedConnections = value);
+        metrics.metricValues(HttpMetric.AVAILABLE_CONCURRENCY).forEach(value -> availableConnections = value);
+        metrics.metricValues(HttpMetric.MAX_CONCURRENCY).forEach(value -> maxConnections = value);
+        metrics.metricValues(HttpMetric.PENDING_CONCURRENCY_ACQUIRES).forEach(value -> {
+            pendingAcquires = value;
+            maxPendingAcquires.accumulate(value);
+        });
+        metrics.children().forEach(this::record);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Returns what has been recorded since the client was built.
+     *
+     * @return point in time view of the pool
+     */
+    public Snapshot snapshot() {
+        final long acquired = acquireCount.sum();
+        return Snapshot.builder()
+                .leasedConnections(leasedConnections)
+                .availableConnections(availableConnections)
+                .pendingAcquires(pendingAcquires)
+                .maxPendingAcquires(maxPendingAcquires.get())
+                .maxConnections(maxConnections)
+                .acquireCount(acquired)
+                .meanAcquireMicros(acquired == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireNanos.sum() / acquired))
+                .maxAcquireMicros(TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()))
+                .apiCalls(apiCalls.sum())
+                .failedCalls(failedCalls.sum())
+                .retries(retries.sum())
+                .totalBackoffMillis(TimeUnit.NANOSECONDS.toMillis(backoffNanos.sum()))
+                .build();
+    }
+
+    @Getter
+    @Builder
+    @ToString
+    public static class Snapshot {
+        private final int leasedConnections;
+        private final int availableConnections;
+        private final int pendingAcquires;
+        private final long maxPendingAcquires;
+        private final int maxConnections;
+        private final long acquireCount;
+        private final long meanAcquireMicros;
+        private final long maxAcquireMicros;
+        private final long apiCalls;
+        private final long failedCalls;
+        private final long retries;
+        private final long totalBackoffMillis;
+    }
+}
@@ -0,0 +1,131 @@
+package com.amazonaws.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free histogram of non-negative values in the HdrHistogram style: each power of
+ * two is split into 32 linear buckets, so any recorded value is reported within about 3% of its
+ * true value. Recording never allocates, and the bucket array is sized once for the whole long
+ * range, so there is nothing to tune.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+
+    /**
+     * Records one value. Negative values are recorded as zero.
+     *
+     * @param value value to record, for example a latency in microseconds
+     */
+    public void record(final long value) {
+        final long v = Math.max(0L, value);
+        counts.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * @return number of values recorded
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return largest value recorded, or 0 if nothing was
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return mean of the values recorded, or 0 if nothing was
+     */
+    public long mean() {
+        final long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    /**
+     * Returns the value below which the given share of recorded values fall, reported as the upper
+     * edge of its bucket and never above the largest value recorded.
+     *
+     * @param percentile between 0 and 100
+     * @return value at the percentile, or 0 if nothing was recorded
+     */
+    public long valueAtPercentile(final double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Moves everything recorded so far into target and leaves this histogram empty. Values recorded
+     * concurrently end up in one histogram or the other, never both.
+     *
+     * @param target histogram to add to
+     */
+    public void drainInto(final LatencyHistogram target) {
+        for (int i = 0; i < BUCKETS; i++) {
+            final long bucket = counts.getAndSet(i, 0L);
+            if (bucket != 0) {
+                target.counts.addAndGet(i, bucket);
+            }
+        }
+        target.count.add(count.sumThenReset());
+        target.sum.add(sum.sumThenReset());
+        target.max.accumulate(max.getThenReset());
+    }
+
+    /**
+     * Empties the histogram.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highestEquivalentValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        final long lowest = (long) (SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,54 @@
+package com.amazonaws.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs how long container init and the first invocation took, one JSON line each, so cold start
+ * percentiles can be computed from the function's log group alongside the platform's
+ * Init Duration.
+ *
+ * <pre>
+ * {"startup":"init","jvmUptimeMillis":..,"componentMillis":..,"warmupMillis":..}
+ * {"startup":"firstInvoke","invokeMillis":..,"sinceInitMillis":..}
+ * </pre>
+ */
+public final class StartupTimings {
+    private static final AtomicBoolean FIRST_INVOKE = new AtomicBoolean(true);
+    private static volatile long initEndNanos;
+
+    private StartupTimings() {
+    }
+
+    /**
+     * Records the end of init.
+     *
+     * @param componentNanos time spent building the component
+     * @param warmupNanos    time spent in warmup
+     */
+    public static void recordInit(final long componentNanos, final long warmupNanos) {
+        initEndNanos = System.nanoTime();
+        System.out.println("{\"startup\":\"init\",\"jvmUptimeMillis\":"
+                + ManagementFactory.getRuntimeMXBean().getUptime()
+                + ",\"componentMillis\":" + TimeUnit.NANOSECONDS.toMillis(componentNanos)
+                + ",\"warmupMillis\":" + TimeUnit.NANOSECONDS.toMillis(warmupNanos) + "}");
+    }
+
+    /**
+     * Records an invocation that started at startNanos. Only the first one in the JVM is logged.
+     *
+     * @param startNanos System.nanoTime() when the invocation started
+     * @return true for the first invocation in the JVM, which is the cold one
+     */
+    public static boolean recordInvoke(final long startNanos) {
+        if (!FIRST_INVOKE.get() || !FIRST_INVOKE.compareAndSet(true, false)) {
+            return false;
+        }
+        final long now = System.nanoTime();
+        System.out.println("{\"startup\":\"firstInvoke\",\"invokeMillis\":"
+                + TimeUnit.NANOSECONDS.toMillis(now - startNanos)
+                + ",\"sinceInitMillis\":" + TimeUnit.NANOSECONDS.toMillis(startNanos - initEndNanos) + "}");
+        return true;
+    }
+}
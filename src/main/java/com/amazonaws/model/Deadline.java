@@ -0,0 +1,29 @@
+package com.amazonaws.model;
+
+import java.util.Locale;
+
+/**
+ * The deadlines a bet has, for querying bets by when they fall due.
+ */
+public enum Deadline {
+    CONDITIONS, // conditionsDeadline, when a winner must be decided
+    PUNISHMENT; // punishmentDeadline, when the punishment must be completed
+
+    /**
+     * Parses a deadline name case-insensitively.
+     *
+     * @param name conditions or punishment
+     * @return the deadline
+     * @throws IllegalArgumentException if the name is null or unknown
+     */
+    public static Deadline parse(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("deadline must be defined");
+        }
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("deadline must be conditions or punishment");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.amazonaws.model.request;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The parts of an API Gateway proxy event the handlers use. Everything else in the event
+ * (multiValueHeaders, requestContext, ...) is skipped while parsing.
+ */
+@Getter
+@Builder
+public class ApiGatewayEvent {
+    private final String httpMethod;
+    private final String resource; // resource template, e.g. /bets/{betXref}
+    @Builder.Default
+    private final Map<String, String> pathParameters = Collections.emptyMap();
+    @Builder.Default
+    private final Map<String, String> queryStringParameters = Collections.emptyMap();
+    @Builder.Default
+    private final Map<String, String> headers = Collections.emptyMap();
+    private final String body; // raw request body, null if the request had none
+
+    public String getPathParameter(final String name) {
+        return pathParameters.get(name);
+    }
+
+    public String getQueryStringParameter(final String name) {
+        return queryStringParameters.get(name);
+    }
+
+    /**
+     * Returns a request header. Names are matched ignoring case, since API Gateway passes them on
+     * in whatever case the client sent.
+     *
+     * @param name header name
+     * @return the header's value, or null if the request did not have it
+     */
+    public String getHeader(final String name) {
+        final String value = headers.get(name);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.amazonaws.model.request;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonAutoDetect
+public class BatchGetBetsRequest {
+    private List<String> xrefs; // bets to fetch, returned in this order
+}
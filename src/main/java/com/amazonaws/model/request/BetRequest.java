@@ -31,4 +31,5 @@ public class BetRequest {
     private String resultXref; // url, or video posting
     private List<String> comments; // comments on bet and result
     private Boolean isComplete; // commissioner decided bet punishment is complete or owner
+    private Long version; // version the caller last read, used for optimistic locking on update
 }
@@ -0,0 +1,18 @@
+package com.amazonaws.model.request;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonAutoDetect
+public class CommentRequest {
+    private String comment; // comment to add to or remove from the bet
+}
@@ -0,0 +1,27 @@
+package com.amazonaws.model.response;
+
+import com.amazonaws.model.Bet;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of creating one bet in a bulk request.
+ */
+@Getter
+@AllArgsConstructor
+@JsonAutoDetect
+public class BetCreateResult {
+    private final int index; // position of the request in the submitted array
+    private final int statusCode;
+    private final Bet bet; // set when the bet was created
+    private final String message; // set when it was not
+
+    public static BetCreateResult created(final int index, final Bet bet) {
+        return new BetCreateResult(index, 201, bet, null);
+    }
+
+    public static BetCreateResult failed(final int index, final int statusCode, final String message) {
+        return new BetCreateResult(index, statusCode, null, message);
+    }
+}
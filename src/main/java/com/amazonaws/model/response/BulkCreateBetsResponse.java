@@ -0,0 +1,14 @@
+package com.amazonaws.model.response;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@JsonAutoDetect
+public class BulkCreateBetsResponse {
+    private final List<BetCreateResult> results;
+}
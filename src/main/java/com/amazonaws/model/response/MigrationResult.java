@@ -0,0 +1,18 @@
+package com.amazonaws.model.response;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Progress of a data migration run.
+ */
+@Getter
+@Builder
+@JsonAutoDetect
+public class MigrationResult {
+    private final long scanned; // items read that still needed migrating
+    private final long migrated; // items rewritten
+    private final long skipped; // items changed by another writer before they could be rewritten
+    private final String lastEvaluatedKey; // pass back in to resume, null when the table is done
+}
@@ -0,0 +1,193 @@
+package com.amazonaws.server;
+
+import com.amazonaws.config.BetComponent;
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.handler.BetRouterHandler;
+import com.amazonaws.handler.DirectResponseStream;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.response.ErrorMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the bet routes over plain HTTP from a long-lived process, for hosting in a container or
+ * load testing on one machine without SAM. Each request runs on its own virtual thread, so a
+ * request blocked on DynamoDB or Postgres holds no platform thread. Requests are adapted into the
+ * {@link ApiGatewayEvent} that API Gateway would have sent and dispatched through
+ * {@link BetRouterHandler}, so every route behaves and is measured as it is in Lambda, and all
+ * requests share the one {@link BetComponent} with its caches and connection pools. Responses skip
+ * the proxy envelope and go straight to the client through a {@link DirectResponseStream}.
+ *
+ * <p>Run with {@code java -jar target/aws-sam-java-rest-1.0.0.jar}; the port is read from
+ * {@code SERVER_PORT} (default 8080) and the backend from the same environment as the functions.
+ */
+public final class BetServer {
+    private static final int SC_INTERNAL_SERVER_ERROR = 500;
+    // sendResponseHeaders length for a response without a body
+    private static final long NO_BODY = -1;
+    // getResponseCode before any response was sent
+    private static final int NOT_SENT = -1;
+    private static final int STOP_DELAY_SECONDS = 5;
+
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final BetRouterHandler router;
+    private final ResourceMatcher resourceMatcher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a BetServer bound to address. It does not accept requests until started.
+     *
+     * @param address      address to listen on, port 0 for any free port
+     * @param router       router every request is dispatched through
+     * @param objectMapper mapper used to write error responses the router did not
+     * @throws IOException if the address could not be bound
+     */
+    public BetServer(final InetSocketAddress address, final BetRouterHandler router,
+                     final ObjectMapper objectMapper) throws IOException {
+        this.router = router;
+        this.objectMapper = objectMapper;
+        this.resourceMatcher = new ResourceMatcher(router.resources());
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpServer = HttpServer.create(address, 0);
+        httpServer.createContext("/", this::handle);
+        httpServer.setExecutor(executor);
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final BetComponent component = BetComponents.get();
+        final int port = Integer.parseInt(Optional.ofNullable(System.getenv("SERVER_PORT"))
+                .filter(value -> !value.isEmpty()).orElse("8080"));
+        final BetServer server = new BetServer(new InetSocketAddress(port), new BetRouterHandler(),
+                component.objectMapper());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            component.betMetrics().flushIfDue(true);
+        }));
+        server.start();
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Stops accepting requests, waits a few seconds for those in flight and shuts the threads down.
+     */
+    public void stop() {
+        httpServer.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the address the server is listening on.
+     *
+     * @return the bound address, with the actual port if port 0 was requested
+     */
+    public InetSocketAddress getAddress() {
+        return httpServer.getAddress();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                router.handleEvent(toEvent(exchange), new ExchangeResponse(exchange));
+            } catch (RuntimeException e) {
+                if (exchange.getResponseCode() == NOT_SENT) {
+                    writeError(exchange, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private ApiGatewayEvent toEvent(final HttpExchange exchange) throws IOException {
+        final URI uri = exchange.getRequestURI();
+        final ResourceMatcher.Match match = resourceMatcher.match(uri.getRawPath());
+        final byte[] body = exchange.getRequestBody().readAllBytes();
+        return ApiGatewayEvent.builder()
+                .httpMethod(exchange.getRequestMethod())
+                .resource(match == null ? uri.getPath() : match.getResource())
+                .pathParameters(match == null ? Collections.emptyMap() : match.getPathParameters())
+                .queryStringParameters(queryParameters(uri.getRawQuery()))
+                .headers(headers(exchange))
+                .body(body.length == 0 ? null : new String(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static Map<String, String> headers(final HttpExchange exchange) {
+        final Map<String, String> headers = new HashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!values.isEmpty()) {
+                headers.put(name, values.get(0));
+            }
+        });
+        return headers;
+    }
+
+    /**
+     * Decodes a query string into single values the way API Gateway's queryStringParameters
+     * does: a name given more than once keeps its last value.
+     */
+    static Map<String, String> queryParameters(final String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> parameters = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            final int equals = pair.indexOf('=');
+            final String name = equals < 0 ? pair : pair.substring(0, equals);
+            final String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private void writeError(final HttpExchange exchange, final String message) throws IOException {
+        final byte[] body = objectMapper.writeValueAsBytes(new ErrorMessage(message, SC_INTERNAL_SERVER_ERROR));
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(SC_INTERNAL_SERVER_ERROR, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * Sends each response straight to the exchange, so the body the handler serialized is written
+     * as is rather than encoded into a proxy response and parsed back out.
+     */
+    private static final class ExchangeResponse extends DirectResponseStream {
+        private final HttpExchange exchange;
+
+        ExchangeResponse(final HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void respond(final int statusCode, final Map<String, String> headers, final byte[] body)
+                throws IOException {
+            headers.forEach(exchange.getResponseHeaders()::set);
+            exchange.sendResponseHeaders(statusCode, body.length == 0 ? NO_BODY : body.length);
+            if (body.length > 0) {
+                exchange.getResponseBody().write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.amazonaws.server;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches request paths to API Gateway resource templates such as "/bets/{betXref}" and extracts
+ * the path parameters, the way API Gateway does before invoking the function. Literal segments win
+ * over parameters, so "/bets/due" matches "/bets/due" rather than "/bets/{betXref}".
+ */
+final class ResourceMatcher {
+    private final List<String[]> templates = new ArrayList<>();
+
+    /**
+     * Constructs a ResourceMatcher.
+     *
+     * @param resources resource templates to match against
+     */
+    ResourceMatcher(final Collection<String> resources) {
+        for (String resource : resources) {
+            templates.add(segments(resource));
+        }
+        templates.sort(Comparator.comparingInt(ResourceMatcher::parameterCount)
+                .thenComparing(template -> String.join("/", template)));
+    }
+
+    /**
+     * Finds the template a path matches.
+     *
+     * @param rawPath request path, still percent-encoded
+     * @return the template and its decoded path parameters, or null if no template matches
+     */
+    Match match(final String rawPath) {
+        final String[] path = segments(rawPath);
+        for (String[] template : templates) {
+            if (template.length != path.length) {
+                continue;
+            }
+            final Map<String, String> pathParameters = new HashMap<>();
+            boolean matches = true;
+            for (int i = 0; i < template.length && matches; i++) {
+                if (isParameter(template[i])) {
+                    final String value = decode(path[i]);
+                    pathParameters.put(template[i].substring(1, template[i].length() - 1), value);
+                    matches = !value.isEmpty();
+                } else {
+                    matches = template[i].equals(path[i]);
+                }
+            }
+            if (matches) {
+                return new Match("/" + String.join("/", template), Collections.unmodifiableMap(pathParameters));
+            }
+        }
+        return null;
+    }
+
+    private static String[] segments(final String path) {
+        final String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/", -1);
+    }
+
+    private static boolean isParameter(final String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    private static int parameterCount(final String[] template) {
+        int count = 0;
+        for (String segment : template) {
+            if (isParameter(segment)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String decode(final String segment) {
+        // a '+' in a path is a literal plus, unlike in a query string
+        return URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A matched resource template and the path parameters taken from the request path.
+     */
+    static final class Match {
+        private final String resource;
+        private final Map<String, String> pathParameters;
+
+        Match(final String resource, final Map<String, String> pathParameters) {
+            this.resource = resource;
+            this.pathParameters = pathParameters;
+        }
+
+        String getResource() {
+            return resource;
+        }
+
+        Map<String, String> getPathParameters() {
+            return pathParameters;
+        }
+    }
+}
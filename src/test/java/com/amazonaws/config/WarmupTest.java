@@ -0,0 +1,39 @@
+package com.amazonaws.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import dagger.Lazy;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class WarmupTest {
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private DynamoDbClient dynamoDb = mock(DynamoDbClient.class);
+    private HikariDataSource dataSource = mock(HikariDataSource.class);
+    private Lazy<DynamoDbClient> lazyDynamoDb = () -> dynamoDb;
+    private Lazy<HikariDataSource> lazyDataSource = () -> dataSource;
+
+    @Test
+    public void run_whenPrimeConnectionsOff_doesNotTouchBackend() {
+        new Warmup(objectMapper, lazyDynamoDb, lazyDataSource, "table_name", "dynamodb", false).run();
+        verifyNoInteractions(dynamoDb, dataSource);
+    }
+
+    @Test
+    public void run_whenPrimeConnectionsOnAndDescribeFails_swallowsFailure() {
+        doThrow(new IllegalStateException("no network")).when(dynamoDb).describeTable(any(DescribeTableRequest.class));
+        new Warmup(objectMapper, lazyDynamoDb, lazyDataSource, "table_name", "dynamodb", true).run();
+        verify(dynamoDb).describeTable(any(DescribeTableRequest.class));
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    public void get_returnsOneComponentPerJvm() {
+        assertSame(BetComponents.get(), BetComponents.get());
+    }
+}
@@ -0,0 +1,97 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.model.Bet;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AsyncBetDaoTest {
+    private DynamoDbAsyncClient dynamoDb = mock(DynamoDbAsyncClient.class);
+    private AsyncBetDao sut = new AsyncBetDao(dynamoDb, "table_name");
+
+    @Test
+    public void getBets_whenMoreThan100Xrefs_sendsEveryChunkBeforeAnyCompletes() {
+        List<String> xrefs = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            xrefs.add("xref" + i);
+        }
+        CompletableFuture<BatchGetItemResponse> pending = new CompletableFuture<>();
+        doReturn(pending).when(dynamoDb).batchGetItem(any(BatchGetItemRequest.class));
+
+        CompletableFuture<List<Bet>> bets = sut.getBets(xrefs);
+
+        verify(dynamoDb, times(3)).batchGetItem(any(BatchGetItemRequest.class));
+        assertFalse(bets.isDone());
+        pending.complete(BatchGetItemResponse.builder().responses(Collections.singletonMap("table_name",
+                Collections.singletonList(betItem("xref7")))).build());
+        assertEquals(1, bets.join().size());
+    }
+
+    @Test
+    public void getBets_whenKeysUnprocessed_retriesThemAndPreservesInputOrder() {
+        Map<String, KeysAndAttributes> unprocessed = Collections.singletonMap("table_name", KeysAndAttributes.builder()
+                .keys(Collections.singletonMap("xref", AttributeValue.builder().s("a").build())).build());
+        doReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                        .responses(Collections.singletonMap("table_name", Arrays.asList(betItem("c"), betItem("b"))))
+                        .unprocessedKeys(unprocessed).build()))
+                .doReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                        .responses(Collections.singletonMap("table_name", Collections.singletonList(betItem("a"))))
+                        .build()))
+                .when(dynamoDb).batchGetItem(any(BatchGetItemRequest.class));
+        List<Bet> bets = sut.getBets(Arrays.asList("a", "missing", "b", "c")).join();
+        assertEquals(3, bets.size());
+        assertEquals("a", bets.get(0).getXref());
+        assertEquals("b", bets.get(1).getXref());
+        assertEquals("c", bets.get(2).getXref());
+        verify(dynamoDb, times(2)).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    @Test
+    public void getBets_whenTableDoesNotExist_failsWithTableDoesNotExistException() {
+        CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(ResourceNotFoundException.builder().build());
+        doReturn(failed).when(dynamoDb).batchGetItem(any(BatchGetItemRequest.class));
+        try {
+            sut.getBets(Collections.singletonList("some bet xref")).join();
+            fail("expected the read to fail");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof TableDoesNotExistException);
+        }
+    }
+
+    private static Map<String, AttributeValue> betItem(String xref) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("xref", AttributeValue.builder().s(xref).build());
+        item.put("creatorXref", AttributeValue.builder().s("customer").build());
+        item.put("participants", AttributeValue.builder().ss("customer", "friend").build());
+        item.put("commissionerXref", AttributeValue.builder().s("customer").build());
+        item.put("createdAt", AttributeValue.builder().s(new Date().toString()).build());
+        item.put("title", AttributeValue.builder().s("title").build());
+        item.put("description", AttributeValue.builder().s("description").build());
+        item.put("conditions", AttributeValue.builder().s("conditions").build());
+        item.put("punishment", AttributeValue.builder().s("punishment").build());
+        item.put("conditionsDeadline", AttributeValue.builder().s(new Date().toString()).build());
+        item.put("punishmentDeadline", AttributeValue.builder().s(new Date().toString()).build());
+        item.put("version", AttributeValue.builder().n("1").build());
+        return item;
+    }
+}
@@ -0,0 +1,86 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.model.Bet;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class BetCacheTest {
+    private AtomicLong now = new AtomicLong();
+    private BetCache sut = new BetCache(2, 10, TimeUnit.SECONDS, now::get);
+
+    @Test
+    public void get_whenNotCached_countsMiss() {
+        assertNull(sut.get("a"));
+        assertEquals(1, sut.stats().getMisses());
+    }
+
+    @Test
+    public void get_whenCached_countsHit() {
+        Bet bet = bet("a", 1);
+        sut.put(bet);
+        assertSame(bet, sut.get("a"));
+        assertEquals(1, sut.stats().getHits());
+    }
+
+    @Test
+    public void get_whenTtlPassed_expiresEntry() {
+        sut.put(bet("a", 1));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertNull(sut.get("a"));
+        assertEquals(1, sut.stats().getExpirations());
+        assertEquals(0, sut.stats().getSize());
+    }
+
+    @Test
+    public void put_whenFull_evictsLeastRecentlyUsed() {
+        sut.put(bet("a", 1));
+        sut.put(bet("b", 1));
+        sut.get("a");
+        sut.put(bet("c", 1));
+        assertNull(sut.get("b"));
+        assertEquals("a", sut.get("a").getXref());
+        assertEquals(1, sut.stats().getEvictions());
+    }
+
+    @Test
+    public void put_whenOlderVersionThanCached_keepsNewerBet() {
+        Bet newer = bet("a", 2);
+        sut.put(newer);
+        sut.put(bet("a", 1));
+        assertSame(newer, sut.get("a"));
+        assertEquals(1, sut.stats().getStaleFills());
+    }
+
+    @Test
+    public void put_whenBetWasDeleted_rejectsFillOfDeletedVersion() {
+        sut.putTombstone("a", 3);
+        sut.put(bet("a", 3));
+        assertNull(sut.get("a"));
+        sut.put(bet("a", 4));
+        assertEquals(4L, sut.get("a").getVersion().longValue());
+    }
+
+    @Test
+    public void invalidateOlderThan_dropsOnlyOlderBets() {
+        Bet current = bet("a", 2);
+        sut.put(current);
+        sut.invalidateOlderThan("a", 2);
+        assertSame(current, sut.get("a"));
+        sut.invalidateOlderThan("a", 3);
+        assertNull(sut.get("a"));
+        sut.putTombstone("b", 3);
+        sut.invalidateOlderThan("b", 4);
+        sut.put(bet("b", 3));
+        assertNull(sut.get("b"));
+    }
+
+    private static Bet bet(String xref, long version) {
+        return Bet.builder().xref(xref).version(version).build();
+    }
+}
@@ -4,35 +4,67 @@ import com.amazonaws.exception.CouldNotCreateBetException;
 import com.amazonaws.exception.BetDoesNotExistException;
 import com.amazonaws.exception.TableDoesNotExistException;
 import com.amazonaws.exception.UnableToDeleteException;
+import com.amazonaws.exception.UnableToUpdateException;
 import com.amazonaws.model.Bet;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.Deadline;
 import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
-import static org.mockito.Matchers.any;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 public class BetDaoTest {
     private static final String BET_XREF = "some bet xref";
     private DynamoDbClient dynamoDb = mock(DynamoDbClient.class);
-    private BetDao sut = new BetDao(dynamoDb, "table_name", 10);
+    private BetDao sut = new BetDao(dynamoDb, "table_name", "user_table_name", 10);
 
     @Test(expected = IllegalArgumentException.class)
     @Ignore
@@ -396,5 +428,576 @@ public class BetDaoTest {
         assertEquals("customer", bet.getCreatorXref());
     }
 
+    @Test
+    public void getBet_whenCalledConcurrentlyForOneXref_makesOneGetItemCall() throws Exception {
+        int callers = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        doAnswer(invocation -> {
+            // hold the first call open until every other caller is parked waiting on it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (threads.stream().filter(thread -> thread != Thread.currentThread())
+                    .anyMatch(thread -> thread.getState() != Thread.State.WAITING) && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.await();
+            return GetItemResponse.builder().item(betItem(BET_XREF)).build();
+        }).when(dynamoDb).getItem(any(GetItemRequest.class));
+
+        List<Bet> results = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < callers; i++) {
+            threads.add(new Thread(() -> results.add(sut.getBet(BET_XREF))));
+        }
+        threads.forEach(Thread::start);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(20));
+        }
+
+        assertEquals(callers, results.size());
+        Set<Bet> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(results);
+        assertEquals("each caller gets a Bet of its own", callers, distinct.size());
+        results.forEach(bet -> assertEquals(BET_XREF, bet.getXref()));
+        verify(dynamoDb, times(1)).getItem(any(GetItemRequest.class));
+    }
+
+    @Test
+    public void getBet_afterWriteReturns_doesNotJoinReadStartedBeforeIt() throws Exception {
+        CountDownLatch firstReadStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstRead = new CountDownLatch(1);
+        Map<String, AttributeValue> before = betItem(BET_XREF);
+        Map<String, AttributeValue> after = betItem(BET_XREF);
+        after.put("version", AttributeValue.builder().n("2").build());
+        doAnswer(invocation -> {
+            firstReadStarted.countDown();
+            releaseFirstRead.await();
+            return GetItemResponse.builder().item(before).build();
+        }).doReturn(GetItemResponse.builder().item(after).build())
+                .when(dynamoDb).getItem(any(GetItemRequest.class));
+        doReturn(UpdateItemResponse.builder().attributes(after).build())
+                .when(dynamoDb).updateItem(any(UpdateItemRequest.class));
+        Thread earlyReader = new Thread(() -> sut.getBet(BET_XREF));
+        earlyReader.start();
+        assertTrue(firstReadStarted.await(10, TimeUnit.SECONDS));
+
+        sut.patchBet(BetRequest.builder().xref(BET_XREF).version(1L).isComplete(true).build());
+        // joining the early read would wait for it to be released, which only happens below
+        Bet bet = CompletableFuture.supplyAsync(() -> sut.getBet(BET_XREF)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2L, bet.getVersion().longValue());
+        releaseFirstRead.countDown();
+        earlyReader.join(TimeUnit.SECONDS.toMillis(10));
+        verify(dynamoDb, times(2)).getItem(any(GetItemRequest.class));
+    }
+
     //connection dropped corner cases
+
+    //pagination
+    @Test
+    public void getBets_whenFirstPage_scansWithPageSizeLimitAndNoStartKey() {
+        doReturn(ScanResponse.builder().items(Collections.singletonList(betItem(BET_XREF))).build())
+                .when(dynamoDb).scan(any(ScanRequest.class));
+        BetPage page = sut.getBets((String) null);
+        assertEquals(1, page.getBets().size());
+        assertEquals(BET_XREF, page.getBets().get(0).getXref());
+        assertNull(page.getLastEvaluatedKey());
+        verify(dynamoDb).scan(argThat(new ArgumentMatcher<ScanRequest>() {
+            @Override
+            public boolean matches(ScanRequest request) {
+                return request.limit() == 10 && (request.exclusiveStartKey() == null
+                        || request.exclusiveStartKey().isEmpty());
+            }
+        }));
+    }
+
+    @Test
+    public void getBets_whenMorePagesExist_returnsTokenThatResumesFromLastEvaluatedKey() {
+        Map<String, AttributeValue> lastKey = Collections.singletonMap("xref", AttributeValue.builder().s(BET_XREF).build());
+        doReturn(ScanResponse.builder().items(Arrays.asList(betItem("a"), betItem(BET_XREF))).lastEvaluatedKey(lastKey).build())
+                .when(dynamoDb).scan(any(ScanRequest.class));
+        BetPage page = sut.getBets((String) null);
+        assertNotNull(page.getLastEvaluatedKey());
+        assertFalse(page.getLastEvaluatedKey().contains(BET_XREF));
+
+        sut.getBets(page.getLastEvaluatedKey());
+        verify(dynamoDb).scan(argThat(new ArgumentMatcher<ScanRequest>() {
+            @Override
+            public boolean matches(ScanRequest request) {
+                return lastKey.equals(request.exclusiveStartKey());
+            }
+        }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getBets_whenTokenMalformed_throwsIllegalArgumentException() {
+        sut.getBets("not a token!");
+    }
+
+    @Test(expected = TableDoesNotExistException.class)
+    public void getBets_whenTableDoesNotExist_throwsTableDoesNotExistException() {
+        doThrow(ResourceNotFoundException.builder().build()).when(dynamoDb).scan(any(ScanRequest.class));
+        sut.getBets((String) null);
+    }
+
+    //deadline queries
+    @Test
+    public void findByDeadline_whenDayExhausted_continuesWithNextDayUntilPageFull() {
+        doReturn(QueryResponse.builder().items(Collections.singletonList(betItem("a"))).build())
+                .when(dynamoDb).query(any(QueryRequest.class));
+        Date from = new Date(1700000000000L); // 2023-11-14T22:13:20Z
+        Date to = new Date(from.getTime() + TimeUnit.DAYS.toMillis(30));
+
+        BetPage page = sut.findByDeadline(Deadline.CONDITIONS, from, to, null);
+
+        assertEquals(10, page.getBets().size());
+        verify(dynamoDb, times(10)).query(any(QueryRequest.class));
+        verify(dynamoDb).query(argThat(dayQuery("2023-11-14", 10)));
+        verify(dynamoDb).query(argThat(dayQuery("2023-11-23", 1)));
+        assertNotNull(page.getLastEvaluatedKey());
+
+        sut.findByDeadline(Deadline.CONDITIONS, from, to, page.getLastEvaluatedKey());
+        verify(dynamoDb).query(argThat(dayQuery("2023-11-24", 10)));
+    }
+
+    @Test
+    public void findByDeadline_whenLastDayDone_returnsNoToken() {
+        doReturn(QueryResponse.builder().items(Collections.emptyList()).build())
+                .when(dynamoDb).query(any(QueryRequest.class));
+        Date from = new Date(1700000000000L);
+
+        BetPage page = sut.findByDeadline(Deadline.PUNISHMENT, from, new Date(from.getTime() + 1), null);
+
+        assertNull(page.getLastEvaluatedKey());
+        verify(dynamoDb).query(argThat(new ArgumentMatcher<QueryRequest>() {
+            @Override
+            public boolean matches(QueryRequest request) {
+                return "punishmentDeadlineIndex".equals(request.indexName())
+                        && request.expressionAttributeValues().get(":from").n()
+                        .equals(request.expressionAttributeValues().get(":to").n());
+            }
+        }));
+    }
+
+    @Test
+    public void findByDeadline_whenTokenDayOutsideWindow_throwsWithoutQuerying() {
+        Date from = new Date(1700000000000L); // 2023-11-14T22:13:20Z
+        Date to = new Date(from.getTime() + TimeUnit.DAYS.toMillis(3));
+        for (String day : Arrays.asList("2023-11-13", "2023-11-18", "2024-11-15", "not a day")) {
+            String token = PageTokens.encode(Collections.singletonMap("conditionsDeadlineDay",
+                    AttributeValue.builder().s(day).build()));
+            try {
+                sut.findByDeadline(Deadline.CONDITIONS, from, to, token);
+                fail("expected IllegalArgumentException for " + day);
+            } catch (IllegalArgumentException e) {
+                assertEquals("Invalid page token", e.getMessage());
+            }
+        }
+        verify(dynamoDb, never()).query(any(QueryRequest.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void findByDeadline_whenWindowLongerThanAYear_throwsIllegalArgumentException() {
+        sut.findByDeadline(Deadline.CONDITIONS, new Date(0), new Date(TimeUnit.DAYS.toMillis(400)), null);
+    }
+
+    //per-user copies
+    @Test
+    public void createBet_whenParticipantsPresent_writesBetAndOneCopyPerUserInOneTransaction() {
+        Bet bet = sut.createBet(validRequest());
+
+        ArgumentCaptor<TransactWriteItemsRequest> transaction = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(dynamoDb).transactWriteItems(transaction.capture());
+        List<TransactWriteItem> writes = transaction.getValue().transactItems();
+        assertEquals(3, writes.size());
+        assertEquals("table_name", writes.get(0).put().tableName());
+        assertEquals("attribute_not_exists(xref)", writes.get(0).put().conditionExpression());
+        assertEquals("customer", writes.get(1).put().item().get("userXref").s());
+        assertEquals("friend", writes.get(2).put().item().get("userXref").s());
+        assertTrue(writes.get(2).put().item().get("betKey").s().endsWith("#" + bet.getXref()));
+        assertEquals("title", writes.get(2).put().item().get("title").s());
+    }
+
+    @Test
+    public void createBet_whenXrefCollides_retriesWithNewXref() {
+        doThrow(TransactionCanceledException.builder().cancellationReasons(
+                CancellationReason.builder().code("ConditionalCheckFailed").build()).build())
+                .doReturn(null)
+                .when(dynamoDb).transactWriteItems(any(TransactWriteItemsRequest.class));
+        assertNotNull(sut.createBet(validRequest()));
+        verify(dynamoDb, times(2)).transactWriteItems(any(TransactWriteItemsRequest.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createBet_whenMoreThan99Users_throwsIllegalArgumentException() {
+        List<String> participants = new ArrayList<>();
+        for (int i = 0; i < 99; i++) {
+            participants.add("user" + i);
+        }
+        BetRequest request = validRequest();
+        request.setParticipants(participants);
+        sut.createBet(request);
+    }
+
+    @Test
+    public void updateBet_whenVersionCurrent_bumpsVersionAndRewritesUserCopies() {
+        doReturn(GetItemResponse.builder().item(betItem(BET_XREF)).build())
+                .when(dynamoDb).getItem(any(GetItemRequest.class));
+        BetRequest request = validRequest();
+        request.setXref(BET_XREF);
+        request.setVersion(1L);
+        request.setTitle("new title");
+
+        Bet bet = sut.updateBet(request);
+
+        assertEquals(2L, bet.getVersion().longValue());
+        assertEquals("new title", bet.getTitle());
+        ArgumentCaptor<TransactWriteItemsRequest> transaction = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(dynamoDb).transactWriteItems(transaction.capture());
+        List<TransactWriteItem> writes = transaction.getValue().transactItems();
+        assertEquals(3, writes.size());
+        assertEquals("1", writes.get(0).update().expressionAttributeValues().get(":v").n());
+        assertEquals("2", writes.get(0).update().expressionAttributeValues().get(":nv").n());
+        assertEquals("new title", writes.get(1).put().item().get("title").s());
+        assertEquals("2", writes.get(2).put().item().get("version").n());
+    }
+
+    @Test
+    public void updateBet_whenVersionNotCurrent_throwsWithoutWriting() {
+        doReturn(GetItemResponse.builder().item(betItem(BET_XREF)).build())
+                .when(dynamoDb).getItem(any(GetItemRequest.class));
+        BetRequest request = validRequest();
+        request.setXref(BET_XREF);
+        request.setVersion(2L);
+        try {
+            sut.updateBet(request);
+            fail("expected UnableToUpdateException");
+        } catch (UnableToUpdateException e) {
+            verify(dynamoDb, never()).transactWriteItems(any(TransactWriteItemsRequest.class));
+        }
+    }
+
+    @Test
+    public void patchBet_whenOnlyIsCompleteSet_updatesBetWithoutReadOrTransactionAndReplacesOlderCopies() {
+        Map<String, AttributeValue> updated = betItem(BET_XREF);
+        updated.put("isComplete", AttributeValue.builder().bool(true).build());
+        updated.put("version", AttributeValue.builder().n("2").build());
+        doReturn(UpdateItemResponse.builder().attributes(updated).build())
+                .when(dynamoDb).updateItem(any(UpdateItemRequest.class));
+
+        Bet bet = sut.patchBet(BetRequest.builder().xref(BET_XREF).version(1L).isComplete(true).build());
+
+        assertEquals(2L, bet.getVersion().longValue());
+        assertTrue(bet.getIsComplete());
+        ArgumentCaptor<UpdateItemRequest> update = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDb).updateItem(update.capture());
+        assertEquals("SET isComplete = :com, version = version + :one", update.getValue().updateExpression());
+        assertEquals("attribute_exists(xref) AND version = :v", update.getValue().conditionExpression());
+        assertEquals(new HashSet<>(Arrays.asList(":com", ":one", ":v")),
+                update.getValue().expressionAttributeValues().keySet());
+        assertEquals("1", update.getValue().expressionAttributeValues().get(":v").n());
+        ArgumentCaptor<PutItemRequest> copies = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDb, times(2)).putItem(copies.capture());
+        PutItemRequest copy = copies.getAllValues().get(0);
+        assertEquals("user_table_name", copy.tableName());
+        assertTrue(copy.item().get("isComplete").bool());
+        assertEquals("attribute_exists(userXref) AND version < :nv", copy.conditionExpression());
+        assertEquals("2", copy.expressionAttributeValues().get(":nv").n());
+        verify(dynamoDb, never()).getItem(any(GetItemRequest.class));
+        verify(dynamoDb, never()).transactWriteItems(any(TransactWriteItemsRequest.class));
+    }
+
+    @Test
+    public void patchBet_whenDeadlineSet_alsoWritesItsDay() {
+        Map<String, AttributeValue> updated = betItem(BET_XREF);
+        updated.put("version", AttributeValue.builder().n("2").build());
+        doReturn(UpdateItemResponse.builder().attributes(updated).build())
+                .when(dynamoDb).updateItem(any(UpdateItemRequest.class));
+
+        sut.patchBet(BetRequest.builder().xref(BET_XREF).version(1L).conditionsDeadline(new Date(0)).build());
+
+        ArgumentCaptor<UpdateItemRequest> update = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDb).updateItem(update.capture());
+        assertEquals("SET conditionsDeadline = :cond, conditionsDeadlineDay = :condday, version = version + :one",
+                update.getValue().updateExpression());
+        assertEquals("1970-01-01", update.getValue().expressionAttributeValues().get(":condday").s());
+    }
+
+    @Test(expected = UnableToUpdateException.class)
+    public void patchBet_whenVersionNotCurrent_throwsUnableToUpdateException() {
+        doThrow(ConditionalCheckFailedException.builder().build())
+                .when(dynamoDb).updateItem(any(UpdateItemRequest.class));
+        sut.patchBet(BetRequest.builder().xref(BET_XREF).version(1L).isComplete(true).build());
+    }
+
+    @Test
+    public void patchBet_whenNothingSet_throwsWithoutReading() {
+        try {
+            sut.patchBet(BetRequest.builder().xref(BET_XREF).version(1L).build());
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            verifyNoInteractions(dynamoDb);
+        }
+    }
+
+    @Test
+    public void deleteBet_whenBetExists_deletesBetAndUserCopiesInOneTransaction() {
+        doReturn(GetItemResponse.builder().item(betItem(BET_XREF)).build())
+                .when(dynamoDb).getItem(any(GetItemRequest.class));
+
+        Bet deleted = sut.deleteBet(BET_XREF);
+
+        assertEquals(BET_XREF, deleted.getXref());
+        ArgumentCaptor<TransactWriteItemsRequest> transaction = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(dynamoDb).transactWriteItems(transaction.capture());
+        List<TransactWriteItem> writes = transaction.getValue().transactItems();
+        assertEquals(3, writes.size());
+        assertEquals("version = :v", writes.get(0).delete().conditionExpression());
+        assertEquals("user_table_name", writes.get(1).delete().tableName());
+        assertEquals("friend", writes.get(2).delete().key().get("userXref").s());
+    }
+
+    @Test(expected = UnableToDeleteException.class)
+    public void deleteBet_whenTransactionCancelled_throwsUnableToDeleteException() {
+        doReturn(GetItemResponse.builder().item(betItem(BET_XREF)).build())
+                .when(dynamoDb).getItem(any(GetItemRequest.class));
+        doThrow(TransactionCanceledException.builder().build())
+                .when(dynamoDb).transactWriteItems(any(TransactWriteItemsRequest.class));
+        sut.deleteBet(BET_XREF);
+    }
+
+    @Test
+    public void addComment_whenBetExists_addsToSetWithoutVersionConditionAndRaisesUserCopies() {
+        Map<String, AttributeValue> updated = betItem(BET_XREF);
+        updated.put("comments", AttributeValue.builder().ss("nice").build());
+        updated.put("version", AttributeValue.builder().n("2").build());
+        doReturn(UpdateItemResponse.builder().attributes(updated).build())
+                .when(dynamoDb).updateItem(any(UpdateItemRequest.class));
+
+        Bet bet = sut.addComment(BET_XREF, "nice");
+
+        assertEquals(2L, bet.getVersion().longValue());
+        ArgumentCaptor<UpdateItemRequest> requests = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDb, times(3)).updateItem(requests.capture());
+        UpdateItemRequest betUpdate = requests.getAllValues().get(0);
+        assertEquals("ADD comments :c, version :one", betUpdate.updateExpression());
+        assertEquals("attribute_exists(xref)", betUpdate.conditionExpression());
+        assertEquals(Collections.singletonList("nice"), betUpdate.expressionAttributeValues().get(":c").ss());
+        UpdateItemRequest copyUpdate = requests.getAllValues().get(1);
+        assertEquals("user_table_name", copyUpdate.tableName());
+        assertEquals("2", copyUpdate.expressionAttributeValues().get(":nv").n());
+    }
+
+    @Test
+    public void removeComment_whenBetExists_deletesFromSetAndAddsToVersionInSeparateClauses() {
+        Map<String, AttributeValue> updated = betItem(BET_XREF);
+        updated.put("version", AttributeValue.builder().n("3").build());
+        doReturn(UpdateItemResponse.builder().attributes(updated).build())
+                .when(dynamoDb).updateItem(any(UpdateItemRequest.class));
+
+        Bet bet = sut.removeComment(BET_XREF, "nice");
+
+        assertEquals(3L, bet.getVersion().longValue());
+        ArgumentCaptor<UpdateItemRequest> requests = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDb, times(3)).updateItem(requests.capture());
+        UpdateItemRequest betUpdate = requests.getAllValues().get(0);
+        assertEquals("DELETE comments :c ADD version :one", betUpdate.updateExpression());
+        assertEquals("attribute_exists(xref)", betUpdate.conditionExpression());
+        assertEquals(Collections.singletonList("nice"), betUpdate.expressionAttributeValues().get(":c").ss());
+    }
+
+    @Test(expected = BetDoesNotExistException.class)
+    public void removeComment_whenBetDoesNotExist_throwsBetDoesNotExistException() {
+        doThrow(ConditionalCheckFailedException.builder().build())
+                .when(dynamoDb).updateItem(any(UpdateItemRequest.class));
+        sut.removeComment(BET_XREF, "nice");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addComment_whenCommentTooLong_throwsIllegalArgumentException() {
+        char[] comment = new char[BetDao.MAX_COMMENT_LENGTH + 1];
+        Arrays.fill(comment, 'a');
+        sut.addComment(BET_XREF, new String(comment));
+    }
+
+    @Test
+    public void getBetsForUser_queriesUserTableNewestFirst() {
+        doReturn(QueryResponse.builder().items(Collections.singletonList(betItem("a"))).build())
+                .when(dynamoDb).query(any(QueryRequest.class));
+
+        BetPage page = sut.getBetsForUser("friend", null);
+
+        assertEquals(1, page.getBets().size());
+        assertNull(page.getLastEvaluatedKey());
+        verify(dynamoDb).query(argThat(new ArgumentMatcher<QueryRequest>() {
+            @Override
+            public boolean matches(QueryRequest request) {
+                return "user_table_name".equals(request.tableName()) && !request.scanIndexForward()
+                        && "friend".equals(request.expressionAttributeValues().get(":u").s());
+            }
+        }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getBetsForUser_whenTokenIsForAnotherUser_throwsIllegalArgumentException() {
+        Map<String, AttributeValue> lastKey = new HashMap<>();
+        lastKey.put("userXref", AttributeValue.builder().s("customer").build());
+        lastKey.put("betKey", AttributeValue.builder().s("1700000000000#a").build());
+        sut.getBetsForUser("friend", PageTokens.encode(lastKey));
+    }
+
+    //batch get
+    @Test
+    public void getBets_whenMoreThan100Xrefs_batchesInChunksOf100() {
+        List<String> xrefs = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            xrefs.add("xref" + i);
+        }
+        doReturn(BatchGetItemResponse.builder().responses(Collections.singletonMap("table_name",
+                Collections.singletonList(betItem("xref7")))).build())
+                .when(dynamoDb).batchGetItem(any(BatchGetItemRequest.class));
+        List<Bet> bets = sut.getBets(xrefs);
+        assertEquals(1, bets.size());
+        verify(dynamoDb).batchGetItem(argThat(keyCount(100)));
+        verify(dynamoDb).batchGetItem(argThat(keyCount(50)));
+    }
+
+    @Test
+    public void getBets_whenKeysUnprocessed_retriesThemAndPreservesInputOrder() {
+        Map<String, KeysAndAttributes> unprocessed = Collections.singletonMap("table_name", KeysAndAttributes.builder()
+                .keys(Collections.singletonMap("xref", AttributeValue.builder().s("a").build())).build());
+        doReturn(BatchGetItemResponse.builder()
+                        .responses(Collections.singletonMap("table_name", Arrays.asList(betItem("c"), betItem("b"))))
+                        .unprocessedKeys(unprocessed).build())
+                .doReturn(BatchGetItemResponse.builder()
+                        .responses(Collections.singletonMap("table_name", Collections.singletonList(betItem("a"))))
+                        .build())
+                .when(dynamoDb).batchGetItem(any(BatchGetItemRequest.class));
+        List<Bet> bets = sut.getBets(Arrays.asList("a", "missing", "b", "c"));
+        assertEquals(3, bets.size());
+        assertEquals("a", bets.get(0).getXref());
+        assertEquals("b", bets.get(1).getXref());
+        assertEquals("c", bets.get(2).getXref());
+        verify(dynamoDb, times(2)).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    //bulk create
+    @Test
+    public void createBets_whenMoreThan25Bets_writesInChunksOf25() {
+        doReturn(BatchWriteItemResponse.builder().build())
+                .when(dynamoDb).batchWriteItem(any(BatchWriteItemRequest.class));
+        List<BetRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            requests.add(validRequest());
+        }
+        List<BetCreateResult> results = sut.createBets(requests);
+        assertEquals(30, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(201, results.get(i).getStatusCode());
+            assertNotNull(results.get(i).getBet().getXref());
+        }
+        verify(dynamoDb).batchWriteItem(argThat(writeCount(25)));
+        verify(dynamoDb).batchWriteItem(argThat(writeCount(5)));
+    }
+
+    @Test
+    public void createBets_whenItemsUnprocessed_retriesOnlyThoseItems() {
+        doAnswer(invocation -> {
+            BatchWriteItemRequest request = (BatchWriteItemRequest) invocation.getArguments()[0];
+            List<WriteRequest> writes = request.requestItems().get("table_name");
+            return BatchWriteItemResponse.builder().unprocessedItems(Collections.singletonMap("table_name",
+                    writes.subList(0, 1))).build();
+        }).doReturn(BatchWriteItemResponse.builder().build())
+                .when(dynamoDb).batchWriteItem(any(BatchWriteItemRequest.class));
+        List<BetCreateResult> results = sut.createBets(Arrays.asList(validRequest(), validRequest(), validRequest()));
+        assertTrue(results.stream().allMatch(result -> result.getStatusCode() == 201));
+        verify(dynamoDb).batchWriteItem(argThat(writeCount(3)));
+        verify(dynamoDb).batchWriteItem(argThat(writeCount(1)));
+    }
+
+    @Test
+    public void createBets_whenUserCopiesUnprocessed_failsThatBet() {
+        doAnswer(invocation -> {
+            BatchWriteItemRequest request = (BatchWriteItemRequest) invocation.getArguments()[0];
+            List<WriteRequest> writes = request.requestItems().get("user_table_name");
+            return BatchWriteItemResponse.builder().unprocessedItems(writes == null ? null
+                    : Collections.singletonMap("user_table_name", writes.subList(0, 1))).build();
+        }).when(dynamoDb).batchWriteItem(any(BatchWriteItemRequest.class));
+        List<BetCreateResult> results = sut.createBets(Arrays.asList(validRequest(), validRequest()));
+        assertEquals(500, results.get(0).getStatusCode());
+        assertEquals(201, results.get(1).getStatusCode());
+    }
+
+    @Test
+    public void createBets_whenOneRequestInvalid_failsOnlyThatRequest() {
+        doReturn(BatchWriteItemResponse.builder().build())
+                .when(dynamoDb).batchWriteItem(any(BatchWriteItemRequest.class));
+        BetRequest invalid = validRequest();
+        invalid.setTitle(null);
+        List<BetCreateResult> results = sut.createBets(Arrays.asList(validRequest(), invalid, validRequest()));
+        assertEquals(201, results.get(0).getStatusCode());
+        assertEquals(400, results.get(1).getStatusCode());
+        assertEquals("title must be defined", results.get(1).getMessage());
+        assertNull(results.get(1).getBet());
+        assertEquals(201, results.get(2).getStatusCode());
+        verify(dynamoDb).batchWriteItem(argThat(writeCount(2)));
+    }
+
+    private static ArgumentMatcher<BatchWriteItemRequest> writeCount(int count) {
+        return new ArgumentMatcher<BatchWriteItemRequest>() {
+            @Override
+            public boolean matches(BatchWriteItemRequest argument) {
+                List<WriteRequest> writes = argument.requestItems().get("table_name");
+                return writes != null && writes.size() == count;
+            }
+        };
+    }
+
+    private static BetRequest validRequest() {
+        return BetRequest.builder()
+                .creatorXref("customer")
+                .participants(Arrays.asList("customer", "friend"))
+                .title("title")
+                .conditions("conditions")
+                .punishment("punishment")
+                .conditionsDeadline(new Date())
+                .punishmentDeadline(new Date())
+                .build();
+    }
+
+    private static ArgumentMatcher<QueryRequest> dayQuery(String day, int limit) {
+        return new ArgumentMatcher<QueryRequest>() {
+            @Override
+            public boolean matches(QueryRequest request) {
+                return day.equals(request.expressionAttributeValues().get(":day").s()) && request.limit() == limit;
+            }
+        };
+    }
+
+    private static ArgumentMatcher<BatchGetItemRequest> keyCount(int count) {
+        return new ArgumentMatcher<BatchGetItemRequest>() {
+            @Override
+            public boolean matches(BatchGetItemRequest argument) {
+                return argument.requestItems().get("table_name").keys().size() == count;
+            }
+        };
+    }
+
+    private static Map<String, AttributeValue> betItem(String xref) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("xref", AttributeValue.builder().s(xref).build());
+        item.put("creatorXref", AttributeValue.builder().s("customer").build());
+        item.put("participants", AttributeValue.builder().ss("customer", "friend").build());
+        item.put("commissionerXref", AttributeValue.builder().s("customer").build());
+        item.put("createdAt", AttributeValue.builder().s(new Date().toString()).build());
+        item.put("title", AttributeValue.builder().s("title").build());
+        item.put("description", AttributeValue.builder().s("description").build());
+        item.put("conditions", AttributeValue.builder().s("conditions").build());
+        item.put("punishment", AttributeValue.builder().s("punishment").build());
+        item.put("conditionsDeadline", AttributeValue.builder().s(new Date().toString()).build());
+        item.put("punishmentDeadline", AttributeValue.builder().s(new Date().toString()).build());
+        item.put("version", AttributeValue.builder().n("1").build());
+        return item;
+    }
 }
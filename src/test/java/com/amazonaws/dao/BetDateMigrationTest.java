@@ -0,0 +1,103 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.model.response.MigrationResult;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BetDateMigrationTest {
+    private static final Date CREATED_AT = new Date(1700000000000L);
+    private DynamoDbClient dynamoDb = mock(DynamoDbClient.class);
+    private BetDateMigration sut = new BetDateMigration(dynamoDb, "table_name", 100);
+
+    @Test
+    public void run_whenOnlyCreatedAtIsLegacy_rewritesOnlyCreatedAtAsEpochMillis() {
+        doReturn(ScanResponse.builder().items(Collections.singletonList(item("a"))).build())
+                .when(dynamoDb).scan(any(ScanRequest.class));
+
+        MigrationResult result = sut.run(null, () -> true);
+
+        ArgumentCaptor<UpdateItemRequest> update = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDb).updateItem(update.capture());
+        assertEquals("SET createdAt = :createdAt", update.getValue().updateExpression());
+        assertEquals("createdAt = :oldcreatedAt AND conditionsDeadline = :oldconditionsDeadline "
+                + "AND punishmentDeadline = :oldpunishmentDeadline", update.getValue().conditionExpression());
+        assertEquals(Long.toString(CREATED_AT.getTime()),
+                update.getValue().expressionAttributeValues().get(":createdAt").n());
+        assertEquals(1, result.getMigrated());
+        assertNull(result.getLastEvaluatedKey());
+    }
+
+    @Test
+    public void run_whenDeadlineDaysMissing_fillsThemIn() {
+        Map<String, AttributeValue> item = item("a");
+        item.put("createdAt", BetItemMapper.date(CREATED_AT));
+        item.remove("punishmentDeadlineDay");
+        doReturn(ScanResponse.builder().items(Collections.singletonList(item)).build())
+                .when(dynamoDb).scan(any(ScanRequest.class));
+
+        sut.run(null, () -> true);
+
+        ArgumentCaptor<UpdateItemRequest> update = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDb).updateItem(update.capture());
+        assertEquals("SET punishmentDeadlineDay = :punishmentDeadlineDay", update.getValue().updateExpression());
+        assertEquals(item.get("conditionsDeadlineDay"),
+                update.getValue().expressionAttributeValues().get(":punishmentDeadlineDay"));
+    }
+
+    @Test
+    public void run_whenItemChangedConcurrently_skipsIt() {
+        doReturn(ScanResponse.builder().items(Arrays.asList(item("a"), item("b"))).build())
+                .when(dynamoDb).scan(any(ScanRequest.class));
+        doThrow(ConditionalCheckFailedException.builder().build()).doReturn(null)
+                .when(dynamoDb).updateItem(any(UpdateItemRequest.class));
+
+        MigrationResult result = sut.run(null, () -> true);
+
+        assertEquals(2, result.getScanned());
+        assertEquals(1, result.getMigrated());
+        assertEquals(1, result.getSkipped());
+    }
+
+    @Test
+    public void run_whenOutOfTime_returnsTokenThatResumesFromLastEvaluatedKey() {
+        Map<String, AttributeValue> lastKey = Collections.singletonMap("xref", AttributeValue.builder().s("a").build());
+        doReturn(ScanResponse.builder().items(Collections.singletonList(item("a"))).lastEvaluatedKey(lastKey).build())
+                .when(dynamoDb).scan(any(ScanRequest.class));
+
+        MigrationResult result = sut.run(null, () -> false);
+        verify(dynamoDb, times(1)).scan(any(ScanRequest.class));
+        assertNotNull(result.getLastEvaluatedKey());
+
+        sut.run(result.getLastEvaluatedKey(), () -> false);
+        ArgumentCaptor<ScanRequest> scan = ArgumentCaptor.forClass(ScanRequest.class);
+        verify(dynamoDb, times(2)).scan(scan.capture());
+        assertEquals(lastKey, scan.getAllValues().get(1).exclusiveStartKey());
+    }
+
+    private static Map<String, AttributeValue> item(final String xref) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("xref", AttributeValue.builder().s(xref).build());
+        item.put("createdAt", AttributeValue.builder().s(CREATED_AT.toString()).build());
+        item.put("conditionsDeadline", BetItemMapper.date(new Date()));
+        item.put("punishmentDeadline", BetItemMapper.date(new Date()));
+        item.put("conditionsDeadlineDay", BetItemMapper.day(new Date()));
+        item.put("punishmentDeadlineDay", BetItemMapper.day(new Date()));
+        return item;
+    }
+}
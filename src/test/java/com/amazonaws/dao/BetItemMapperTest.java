@@ -0,0 +1,108 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.BetRequest;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BetItemMapperTest {
+    private static final IdGenerator IDS = new TimeOrderedIdGenerator();
+
+    @Test
+    public void toBet_whenOptionalAttributesAbsent_leavesThemNull() {
+        Map<String, AttributeValue> item = BetItemMapper.toNewItem(validRequest().build(), IDS);
+        Bet bet = BetItemMapper.toBet(item);
+
+        assertEquals(item.get("xref").s(), bet.getXref());
+        assertEquals(1L, bet.getVersion().longValue());
+        assertEquals("customer", bet.getCommissionerXref());
+        assertNull(bet.getDescription());
+        assertNull(bet.getResultXref());
+        assertNull(bet.getComments());
+        assertNull(bet.getIsComplete());
+    }
+
+    @Test
+    public void toBet_whenOptionalAttributesNull_leavesThemNull() {
+        Map<String, AttributeValue> item = BetItemMapper.toNewItem(validRequest().build(), IDS);
+        item.put("resultXref", AttributeValue.builder().nul(true).build());
+        item.put("isComplete", AttributeValue.builder().nul(true).build());
+        Bet bet = BetItemMapper.toBet(item);
+
+        assertNull(bet.getResultXref());
+        assertNull(bet.getIsComplete());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void toBet_whenRequiredAttributeMissing_throwsIllegalStateException() {
+        Map<String, AttributeValue> item = BetItemMapper.toNewItem(validRequest().build(), IDS);
+        item.remove("title");
+        BetItemMapper.toBet(item);
+    }
+
+    @Test
+    public void toNewItem_whenRequiredAttributeMissing_throwsIllegalArgumentExceptionNamingIt() {
+        try {
+            BetItemMapper.toNewItem(validRequest().conditions(null).build(), IDS);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("conditions must be defined", e.getMessage());
+        }
+    }
+
+    @Test
+    public void toUpdateValues_whenOptionalAttributesUnset_bindsEveryPlaceholder() {
+        Map<String, AttributeValue> values = BetItemMapper.toUpdateValues(validRequest().xref("x").build());
+
+        assertEquals(11, values.size());
+        assertTrue(values.get(":rxref").nul());
+        assertTrue(values.get(":com").nul());
+        assertEquals("title", values.get(":t").s());
+    }
+
+    @Test
+    public void toBet_whenItemRoundTrips_keepsParticipants() {
+        Bet bet = BetItemMapper.toBet(BetItemMapper.toNewItem(
+                validRequest().participants(Arrays.asList("a", "b")).build(), IDS));
+        assertEquals(Arrays.asList("a", "b"), bet.getParticipants());
+    }
+
+    @Test
+    public void toNewItem_whenDatesSet_storesThemAsEpochMillis() {
+        Date deadline = new Date(1700000000123L);
+        Map<String, AttributeValue> item = BetItemMapper.toNewItem(validRequest().conditionsDeadline(deadline).build(), IDS);
+        assertEquals("1700000000123", item.get("conditionsDeadline").n());
+        assertNotNull(item.get("createdAt").n());
+    }
+
+    @Test
+    public void toNewItem_whenDeadlinesSet_storesTheirUtcDays() {
+        Date deadline = new Date(1700000000123L); // 2023-11-14T22:13:20.123Z
+        Map<String, AttributeValue> item = BetItemMapper.toNewItem(validRequest().punishmentDeadline(deadline).build(), IDS);
+        assertEquals("2023-11-14", item.get("punishmentDeadlineDay").s());
+    }
+
+    @Test
+    public void toBet_whenDatesAreLegacyStrings_readsThem() {
+        Date deadline = new Date(1700000000000L);
+        Map<String, AttributeValue> item = BetItemMapper.toNewItem(validRequest().build(), IDS);
+        item.put("punishmentDeadline", AttributeValue.builder().s(deadline.toString()).build());
+        assertEquals(deadline, BetItemMapper.toBet(item).getPunishmentDeadline());
+    }
+
+    private static BetRequest.BetRequestBuilder validRequest() {
+        return BetRequest.builder()
+                .creatorXref("customer")
+                .title("title")
+                .conditions("conditions")
+                .punishment("punishment")
+                .conditionsDeadline(new Date())
+                .punishmentDeadline(new Date());
+    }
+}
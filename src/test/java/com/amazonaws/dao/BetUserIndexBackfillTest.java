@@ -0,0 +1,71 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.model.response.MigrationResult;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BetUserIndexBackfillTest {
+    private DynamoDbClient dynamoDb = mock(DynamoDbClient.class);
+    private BetUserIndexBackfill sut = new BetUserIndexBackfill(dynamoDb, "table_name", "user_table_name", 100);
+
+    @Test
+    public void run_whenBetHasParticipants_writesACopyPerUserIfBetUnchanged() {
+        doReturn(ScanResponse.builder().items(Collections.singletonList(item("a"))).build())
+                .when(dynamoDb).scan(any(ScanRequest.class));
+
+        MigrationResult result = sut.run(null, () -> true);
+
+        ArgumentCaptor<TransactWriteItemsRequest> transaction = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(dynamoDb).transactWriteItems(transaction.capture());
+        List<TransactWriteItem> writes = transaction.getValue().transactItems();
+        assertEquals(3, writes.size());
+        assertEquals("version = :v", writes.get(0).conditionCheck().conditionExpression());
+        assertEquals("customer", writes.get(1).put().item().get("userXref").s());
+        assertEquals("1700000000000#a", writes.get(1).put().item().get("betKey").s());
+        assertEquals("friend", writes.get(2).put().item().get("userXref").s());
+        assertEquals("attribute_not_exists(userXref) OR version <= :v", writes.get(2).put().conditionExpression());
+        assertEquals(1, result.getMigrated());
+        assertNull(result.getLastEvaluatedKey());
+    }
+
+    @Test
+    public void run_whenBetChangedConcurrently_skipsIt() {
+        doReturn(ScanResponse.builder().items(Arrays.asList(item("a"), item("b"))).build())
+                .when(dynamoDb).scan(any(ScanRequest.class));
+        doThrow(TransactionCanceledException.builder().build()).doReturn(null)
+                .when(dynamoDb).transactWriteItems(any(TransactWriteItemsRequest.class));
+
+        MigrationResult result = sut.run(null, () -> true);
+
+        assertEquals(2, result.getScanned());
+        assertEquals(1, result.getMigrated());
+        assertEquals(1, result.getSkipped());
+    }
+
+    private static Map<String, AttributeValue> item(final String xref) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("xref", AttributeValue.builder().s(xref).build());
+        item.put("version", AttributeValue.builder().n("3").build());
+        item.put("createdAt", AttributeValue.builder().n("1700000000000").build());
+        item.put("creatorXref", AttributeValue.builder().s("customer").build());
+        item.put("participants", AttributeValue.builder().ss("customer", "friend").build());
+        return item;
+    }
+}
@@ -0,0 +1,115 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.UnableToUpdateException;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.BetPage;
+import com.amazonaws.model.request.BetRequest;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CachingBetStoreTest {
+    private static final String BET_XREF = "some bet xref";
+    private BetStore delegate = mock(BetStore.class);
+    private BetCache cache = new BetCache(10, 1, TimeUnit.MINUTES);
+    private CachingBetStore sut = new CachingBetStore(delegate, cache);
+
+    @Test
+    public void getBet_whenCalledTwice_readsThroughOnce() {
+        Bet bet = bet(1);
+        doReturn(bet).when(delegate).getBet(BET_XREF);
+        assertSame(bet, sut.getBet(BET_XREF));
+        assertSame(bet, sut.getBet(BET_XREF));
+        verify(delegate, times(1)).getBet(BET_XREF);
+    }
+
+    @Test
+    public void updateBet_whenSuccessful_refreshesCachedBet() {
+        doReturn(bet(1)).when(delegate).getBet(BET_XREF);
+        sut.getBet(BET_XREF);
+        Bet updated = bet(2);
+        doReturn(updated).when(delegate).updateBet(any(BetRequest.class));
+        sut.updateBet(BetRequest.builder().xref(BET_XREF).build());
+        assertSame(updated, sut.getBet(BET_XREF));
+        verify(delegate, times(1)).getBet(BET_XREF);
+    }
+
+    @Test
+    public void updateBet_whenConflict_invalidatesCachedBet() {
+        doReturn(bet(1)).when(delegate).getBet(BET_XREF);
+        sut.getBet(BET_XREF);
+        doThrow(new UnableToUpdateException("conflict")).when(delegate).updateBet(any(BetRequest.class));
+        try {
+            sut.updateBet(BetRequest.builder().xref(BET_XREF).build());
+        } catch (UnableToUpdateException expected) {
+        }
+        sut.getBet(BET_XREF);
+        verify(delegate, times(2)).getBet(BET_XREF);
+    }
+
+    @Test
+    public void deleteBet_whenSuccessful_readsThroughAfterwards() {
+        doReturn(bet(1)).when(delegate).getBet(BET_XREF);
+        sut.getBet(BET_XREF);
+        doReturn(bet(1)).when(delegate).deleteBet(BET_XREF);
+        sut.deleteBet(BET_XREF);
+        sut.getBet(BET_XREF);
+        verify(delegate, times(2)).getBet(BET_XREF);
+        assertEquals(1, cache.stats().getSize());
+    }
+
+    @Test
+    public void getBet_afterListingUserBets_returnsBetWithComments() {
+        Bet withoutComments = bet(1);
+        doReturn(BetPage.builder().bets(Collections.singletonList(withoutComments)).build())
+                .when(delegate).getBetsForUser("user", null);
+        Bet withComments = Bet.builder().xref(BET_XREF).version(1L).comments(Collections.singletonList("nice")).build();
+        doReturn(withComments).when(delegate).getBet(BET_XREF);
+
+        sut.getBetsForUser("user", null);
+
+        assertEquals(Collections.singletonList("nice"), sut.getBet(BET_XREF).getComments());
+    }
+
+    @Test
+    public void getBet_afterListingNewerUserCopy_rereadsInsteadOfServingOlderCachedBet() {
+        doReturn(bet(1)).doReturn(bet(2)).when(delegate).getBet(BET_XREF);
+        sut.getBet(BET_XREF);
+        doReturn(BetPage.builder().bets(Collections.singletonList(bet(2))).build())
+                .when(delegate).getBetsForUser("user", null);
+
+        sut.getBetsForUser("user", null);
+
+        assertEquals(2L, sut.getBet(BET_XREF).getVersion().longValue());
+        verify(delegate, times(2)).getBet(BET_XREF);
+    }
+
+    @Test
+    public void getBetsAsync_whenSomeCached_fetchesOnlyMissesAndPreservesInputOrder() {
+        doReturn(bet(1)).when(delegate).getBet(BET_XREF);
+        sut.getBet(BET_XREF);
+        Bet other = Bet.builder().xref("other").version(1L).build();
+        doReturn(CompletableFuture.completedFuture(Collections.singletonList(other)))
+                .when(delegate).getBetsAsync(Collections.singletonList("other"));
+
+        List<Bet> bets = sut.getBetsAsync(Arrays.asList("other", BET_XREF)).join();
+
+        assertEquals(2, bets.size());
+        assertSame(other, bets.get(0));
+        assertEquals(BET_XREF, bets.get(1).getXref());
+        assertSame(other, sut.getBet("other"));
+    }
+
+    private static Bet bet(long version) {
+        return Bet.builder().xref(BET_XREF).version(version).build();
+    }
+}
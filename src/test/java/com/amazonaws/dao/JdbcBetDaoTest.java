@@ -0,0 +1,220 @@
+package com.amazonaws.dao;
+
+import com.amazonaws.exception.BetDoesNotExistException;
+import com.amazonaws.exception.TableDoesNotExistException;
+import com.amazonaws.exception.UnableToDeleteException;
+import com.amazonaws.exception.UnableToUpdateException;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.Deadline;
+import com.amazonaws.model.request.BetRequest;
+import com.amazonaws.model.response.BetCreateResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+public class JdbcBetDaoTest {
+    private static final String BET_XREF = "some bet xref";
+    private DataSource dataSource = mock(DataSource.class);
+    private Connection connection = mock(Connection.class);
+    private PreparedStatement statement = mock(PreparedStatement.class);
+    private PreparedStatement participantStatement = mock(PreparedStatement.class);
+    private ResultSet emptyResultSet = mock(ResultSet.class);
+    private JdbcBetDao sut = new JdbcBetDao(dataSource, 10);
+
+    @Before
+    public void setup() throws SQLException {
+        doReturn(connection).when(dataSource).getConnection();
+        doReturn(statement).when(connection).prepareStatement(anyString());
+        doReturn(participantStatement).when(connection).prepareStatement(startsWith("insert into user_bet_relation"));
+        doReturn(mock(Array.class)).when(connection).createArrayOf(anyString(), any(Object[].class));
+        doReturn(false).when(emptyResultSet).next();
+    }
+
+    @Test(expected = BetDoesNotExistException.class)
+    public void getBet_whenNoRow_throwsBetDoesNotExistException() throws SQLException {
+        doReturn(emptyResultSet).when(statement).executeQuery();
+        sut.getBet(BET_XREF);
+    }
+
+    @Test(expected = TableDoesNotExistException.class)
+    public void getBet_whenTableDoesNotExist_throwsTableDoesNotExistException() throws SQLException {
+        doThrow(new SQLException("relation \"bet\" does not exist", "42P01")).when(statement).executeQuery();
+        sut.getBet(BET_XREF);
+    }
+
+    @Test(expected = UnableToUpdateException.class)
+    public void updateBet_whenVersionNotCurrent_throwsUnableToUpdateException() throws SQLException {
+        doReturn(emptyResultSet).when(statement).executeQuery();
+        sut.updateBet(validRequest().xref(BET_XREF).version(1L).build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void updateBet_whenVersionMissing_throwsIllegalArgumentException() {
+        sut.updateBet(validRequest().xref(BET_XREF).build());
+    }
+
+    @Test(expected = UnableToUpdateException.class)
+    public void patchBet_whenOnlyIsCompleteSet_updatesOnlyThatColumn() throws SQLException {
+        doReturn(emptyResultSet).when(statement).executeQuery();
+        try {
+            sut.patchBet(BetRequest.builder().xref(BET_XREF).version(1L).isComplete(true).build());
+        } finally {
+            verify(connection).prepareStatement(startsWith(
+                    "update bet set is_complete = ?, version = version + 1 where xref = ? and version = ?"));
+            verify(statement).setObject(1, true);
+            verify(statement).setLong(3, 1L);
+        }
+    }
+
+    @Test
+    public void addComment_whenBetDoesNotExist_rollsBackAndThrowsBetDoesNotExistException() throws SQLException {
+        doReturn(emptyResultSet).when(statement).executeQuery();
+        try {
+            sut.addComment(BET_XREF, "nice");
+            fail("expected BetDoesNotExistException");
+        } catch (BetDoesNotExistException e) {
+            verify(connection).rollback();
+            verify(statement, never()).executeUpdate();
+        }
+    }
+
+    @Test
+    public void createBet_whenParticipantsPresent_insertsThemInOneBatch() throws SQLException {
+        doReturn(new int[]{1, 1, 1}).when(participantStatement).executeBatch();
+        Bet bet = sut.createBet(validRequest().participants(Arrays.asList("a", "b", "c")).build());
+
+        assertNotNull(bet.getXref());
+        assertEquals(1L, bet.getVersion().longValue());
+        assertEquals("customer", bet.getCommissionerXref());
+        verify(statement).executeUpdate();
+        verify(participantStatement, times(3)).addBatch();
+        verify(participantStatement).executeBatch();
+        verify(connection).commit();
+    }
+
+    @Test
+    public void createBet_whenParticipantIsNotAUser_rollsBackAndThrowsIllegalArgumentException() throws SQLException {
+        doReturn(new int[]{1, 0}).when(participantStatement).executeBatch();
+        try {
+            sut.createBet(validRequest().participants(Arrays.asList("a", "nobody", "a")).build());
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("participant nobody does not exist", e.getMessage());
+            verify(participantStatement, times(2)).addBatch();
+            verify(connection).rollback();
+            verify(connection, never()).commit();
+        }
+    }
+
+    @Test
+    public void deleteBet_whenVersionChangedAfterRead_rollsBackAndThrowsUnableToDeleteException()
+            throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        doReturn(true).doReturn(false).when(row).next();
+        doReturn("bet-id").when(row).getString("id");
+        doReturn(3L).when(row).getLong("version");
+        doReturn(row).doReturn(emptyResultSet).when(statement).executeQuery();
+        try {
+            sut.deleteBet(BET_XREF);
+            fail("expected UnableToDeleteException");
+        } catch (UnableToDeleteException e) {
+            verify(connection).prepareStatement(contains("where id = ? and version = ?"));
+            verify(statement).setLong(2, 3L);
+            verify(connection).rollback();
+        }
+    }
+
+    @Test
+    public void createBets_whenParticipantIsNotAUser_failsOnlyThatRequest() throws SQLException {
+        ResultSet users = mock(ResultSet.class);
+        doReturn(true).doReturn(false).when(users).next();
+        doReturn("a").when(users).getString(1);
+        doReturn(users).when(statement).executeQuery();
+        doReturn(new int[]{1}).when(participantStatement).executeBatch();
+        List<BetCreateResult> results = sut.createBets(Arrays.asList(
+                validRequest().participants(Arrays.asList("a")).build(),
+                validRequest().participants(Arrays.asList("a", "nobody")).build()));
+        assertEquals(201, results.get(0).getStatusCode());
+        assertEquals(400, results.get(1).getStatusCode());
+        verify(statement, times(1)).addBatch();
+        verify(connection).commit();
+    }
+
+    @Test
+    public void createBet_whenXrefCollides_retriesWithNewIds() throws SQLException {
+        doThrow(new SQLException("duplicate key", "23505")).doReturn(1).when(statement).executeUpdate();
+        assertNotNull(sut.createBet(validRequest().build()));
+        verify(connection).rollback();
+        verify(statement, times(2)).executeUpdate();
+    }
+
+    @Test
+    public void createBets_whenBatchRejected_failsEveryValidRequestAndRollsBack() throws SQLException {
+        doThrow(new SQLException("duplicate key", "23505")).when(statement).executeBatch();
+        List<BetCreateResult> results = sut.createBets(Arrays.asList(
+                validRequest().build(), validRequest().title(null).build()));
+        assertEquals(500, results.get(0).getStatusCode());
+        assertEquals(400, results.get(1).getStatusCode());
+        verify(statement).addBatch();
+        verify(connection).rollback();
+    }
+
+    @Test
+    public void findByDeadline_whenTokenGiven_resumesAfterDeadlineAndXref() throws SQLException {
+        doReturn(emptyResultSet).when(statement).executeQuery();
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1700000000000 some-xref".getBytes());
+        sut.findByDeadline(Deadline.PUNISHMENT, new Date(1690000000000L), new Date(1710000000000L), token);
+        verify(connection).prepareStatement(contains("(punishment_deadline, xref) > (?, ?)"));
+        verify(statement).setTimestamp(3, new Timestamp(1700000000000L));
+        verify(statement).setString(4, "some-xref");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void findByDeadline_whenTokenMalformed_throwsIllegalArgumentException() {
+        sut.findByDeadline(Deadline.CONDITIONS, new Date(0), new Date(1), "bm90LWEtdG9rZW4");
+    }
+
+    @Test
+    public void getBetsForUser_whenTokenGiven_resumesBeforeCreatedAtAndXref() throws SQLException {
+        doReturn(emptyResultSet).when(statement).executeQuery();
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1700000000000 some-xref".getBytes());
+        sut.getBetsForUser("customer", token);
+        verify(connection).prepareStatement(contains("(created_at, xref) < (?, ?)"));
+        verify(statement).setString(1, "customer");
+        verify(statement).setString(2, "customer");
+        verify(statement).setTimestamp(3, new Timestamp(1700000000000L));
+        verify(statement).setString(4, "some-xref");
+    }
+
+    private static BetRequest.BetRequestBuilder validRequest() {
+        return BetRequest.builder()
+                .creatorXref("customer")
+                .title("title")
+                .conditions("conditions")
+                .punishment("punishment")
+                .conditionsDeadline(new Date())
+                .punishmentDeadline(new Date());
+    }
+}
@@ -0,0 +1,58 @@
+package com.amazonaws.dao;
+
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeOrderedIdGeneratorTest {
+
+    @Test
+    public void newUuid_setsVersion7VariantAndClockMillis() {
+        TimeOrderedIdGenerator sut = new TimeOrderedIdGenerator(() -> 1700000000123L);
+        UUID uuid = sut.newUuid();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(1700000000123L, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    public void newId_whenClockStandsStillOrStepsBack_keepsIncreasing() {
+        AtomicLong clock = new AtomicLong(1700000000000L);
+        TimeOrderedIdGenerator sut = new TimeOrderedIdGenerator(clock::get);
+        String previous = sut.newId();
+        for (int i = 0; i < 10000; i++) {
+            if (i == 5000) {
+                clock.addAndGet(-1000);
+            }
+            String next = sut.newId();
+            assertTrue(previous + " then " + next, next.compareTo(previous) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void newId_whenCalledFromManyThreads_neverRepeats() throws InterruptedException {
+        TimeOrderedIdGenerator sut = new TimeOrderedIdGenerator(() -> 1700000000000L);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    ids.add(sut.newId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(80000, ids.size());
+    }
+}
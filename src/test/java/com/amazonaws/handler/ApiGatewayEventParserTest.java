@@ -0,0 +1,64 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ApiGatewayEventParserTest {
+    private ApiGatewayEventParser sut = new ApiGatewayEventParser(new ObjectMapper());
+
+    @Test
+    public void parse_whenProxyEvent_keepsRouteParametersAndBodyAndSkipsTheRest() throws IOException {
+        String input = "{\"resource\": \"/bets/{betXref}\", \"path\": \"/bets/abc\", \"httpMethod\": \"POST\","
+                + "\"headers\": {\"Accept\": \"*/*\", \"body\": \"not the body\"},"
+                + "\"multiValueHeaders\": {\"Accept\": [\"*/*\"]},"
+                + "\"queryStringParameters\": {\"exclusiveStartKey\": \"token\"},"
+                + "\"pathParameters\": {\"betXref\": \"abc\"},"
+                + "\"requestContext\": {\"identity\": {\"sourceIp\": \"127.0.0.1\"}, \"httpMethod\": \"GET\"},"
+                + "\"body\": \"{\\\"title\\\": \\\"t\\\"}\", \"isBase64Encoded\": false}";
+        ApiGatewayEvent event = sut.parse(stream(input));
+        assertEquals("POST", event.getHttpMethod());
+        assertEquals("/bets/{betXref}", event.getResource());
+        assertEquals("abc", event.getPathParameter("betXref"));
+        assertEquals("token", event.getQueryStringParameter("exclusiveStartKey"));
+        assertEquals("*/*", event.getHeader("accept"));
+        assertEquals("{\"title\": \"t\"}", event.getBody());
+    }
+
+    @Test
+    public void parse_whenParametersAndBodyNull_returnsEmptyParametersAndNullBody() throws IOException {
+        ApiGatewayEvent event = sut.parse(stream(
+                "{\"pathParameters\": null, \"queryStringParameters\": null, \"body\": null}"));
+        assertTrue(event.getPathParameters().isEmpty());
+        assertNull(event.getQueryStringParameter("exclusiveStartKey"));
+        assertNull(event.getBody());
+    }
+
+    @Test
+    public void parse_whenInputEmpty_returnsNull() throws IOException {
+        assertNull(sut.parse(stream("")));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void parse_whenInputNotAnObject_throwsJsonParseException() throws IOException {
+        sut.parse(stream("[1, 2]"));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void parse_whenInputMalformed_throwsJsonParseException() throws IOException {
+        sut.parse(stream("{\"body\": "));
+    }
+
+    private static InputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes());
+    }
+}
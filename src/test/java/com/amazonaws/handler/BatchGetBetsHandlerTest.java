@@ -0,0 +1,40 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.services.lambda.runtime.TestContext;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertTrue;
+
+public class BatchGetBetsHandlerTest {
+    private BatchGetBetsHandler sut = new BatchGetBetsHandler();
+
+    @Test
+    public void handleRequest_whenBatchGetInputStreamEmpty_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.handleRequest(new ByteArrayInputStream(new byte[0]), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Invalid JSON"));
+        assertTrue(os.toString().contains("400"));
+    }
+
+    @Test
+    public void handleRequest_whenBatchGetInputStreamHasNoBody_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Body was null"));
+        assertTrue(os.toString().contains("400"));
+    }
+
+    @Test
+    public void handleRequest_whenBatchGetBodyHasNoXrefs_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"body\": \"{\\\"xrefs\\\": []}\"}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Require between 1 and"));
+        assertTrue(os.toString().contains("400"));
+    }
+}
@@ -0,0 +1,23 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.services.lambda.runtime.TestContext;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertTrue;
+
+public class BetCommentsHandlerTest {
+    private BetCommentsHandler sut = new BetCommentsHandler();
+
+    @Test
+    public void handleRequest_whenBodyMissing_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"httpMethod\": \"POST\", \"pathParameters\": {\"betXref\": \"a\"}}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Body was null"));
+        assertTrue(os.toString().contains("400"));
+    }
+}
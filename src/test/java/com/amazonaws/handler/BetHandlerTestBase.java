@@ -21,6 +21,7 @@ import javax.inject.Inject;
  */
 public abstract class BetHandlerTestBase {
     private static final String TABLE_NAME = "bet";
+    private static final String USER_BETS_TABLE_NAME = "user_bet";
 
     private final BetTestComponent betComponent;
 
@@ -38,11 +39,37 @@ public abstract class BetHandlerTestBase {
                 .tableName(TABLE_NAME)
                 .keySchema(KeySchemaElement.builder()
                         .keyType(KeyType.HASH)
-                        .attributeName("betXref")
+                        .attributeName("xref")
                         .build())
                 .attributeDefinitions(
                         AttributeDefinition.builder()
-                                .attributeName("betXref")
+                                .attributeName("xref")
+                                .attributeType(ScalarAttributeType.S)
+                                .build())
+                .provisionedThroughput(
+                        ProvisionedThroughput.builder()
+                                .readCapacityUnits(1L)
+                                .writeCapacityUnits(1L)
+                                .build())
+                .build());
+        dynamoDb.createTable(CreateTableRequest.builder()
+                .tableName(USER_BETS_TABLE_NAME)
+                .keySchema(
+                        KeySchemaElement.builder()
+                                .keyType(KeyType.HASH)
+                                .attributeName("userXref")
+                                .build(),
+                        KeySchemaElement.builder()
+                                .keyType(KeyType.RANGE)
+                                .attributeName("betKey")
+                                .build())
+                .attributeDefinitions(
+                        AttributeDefinition.builder()
+                                .attributeName("userXref")
+                                .attributeType(ScalarAttributeType.S)
+                                .build(),
+                        AttributeDefinition.builder()
+                                .attributeName("betKey")
                                 .attributeType(ScalarAttributeType.S)
                                 .build())
                 .provisionedThroughput(
@@ -51,11 +78,11 @@ public abstract class BetHandlerTestBase {
                                 .writeCapacityUnits(1L)
                                 .build())
                 .build());
-
     }
 
     @After
     public void teardown() {
         dynamoDb.deleteTable(DeleteTableRequest.builder().tableName(TABLE_NAME).build());
+        dynamoDb.deleteTable(DeleteTableRequest.builder().tableName(USER_BETS_TABLE_NAME).build());
     }
 }
@@ -0,0 +1,51 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.services.lambda.runtime.TestContext;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertTrue;
+
+public class BetRouterHandlerTest {
+    private BetRouterHandler sut = new BetRouterHandler();
+
+    @Test
+    public void handleRequest_whenInputStreamEmpty_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.handleRequest(new ByteArrayInputStream(new byte[0]), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Invalid JSON"));
+        assertTrue(os.toString().contains("400"));
+    }
+
+    @Test
+    public void handleRequest_whenRouteUnknown_puts404InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"httpMethod\": \"PUT\", \"resource\": \"/bets\"}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("No route for PUT /bets"));
+        assertTrue(os.toString().contains("404"));
+    }
+
+    @Test
+    public void handleRequest_whenGetBetHasNoPathParameters_dispatchesToGetBetAndPuts400InOutputStream()
+            throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"httpMethod\": \"GET\", \"resource\": \"/bets/{betXref}\"}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("betXref was not set"));
+        assertTrue(os.toString().contains("400"));
+    }
+
+    @Test
+    public void handleRequest_whenBulkCreateHasNoBody_dispatchesToBulkCreateAndPuts400InOutputStream()
+            throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"httpMethod\": \"POST\", \"resource\": \"/bets/bulk\"}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Body was null"));
+        assertTrue(os.toString().contains("400"));
+    }
+}
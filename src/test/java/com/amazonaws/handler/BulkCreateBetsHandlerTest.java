@@ -0,0 +1,41 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.services.lambda.runtime.TestContext;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertTrue;
+
+public class BulkCreateBetsHandlerTest {
+    private BulkCreateBetsHandler sut = new BulkCreateBetsHandler();
+
+    @Test
+    public void handleRequest_whenBulkCreateInputStreamHasNoBody_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Body was null"));
+        assertTrue(os.toString().contains("400"));
+    }
+
+    @Test
+    public void handleRequest_whenBulkCreateBodyIsNotAnArray_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"body\": \"{\\\"title\\\": \\\"t\\\"}\"}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Invalid JSON"));
+        assertTrue(os.toString().contains("400"));
+    }
+
+    @Test
+    public void handleRequest_whenBulkCreateBodyIsEmptyArray_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"body\": \"[]\"}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Require between 1 and"));
+        assertTrue(os.toString().contains("400"));
+    }
+}
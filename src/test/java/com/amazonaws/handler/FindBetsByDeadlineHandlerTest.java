@@ -0,0 +1,34 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.services.lambda.runtime.TestContext;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertTrue;
+
+public class FindBetsByDeadlineHandlerTest {
+    private FindBetsByDeadlineHandler sut = new FindBetsByDeadlineHandler();
+
+    @Test
+    public void handleRequest_whenDeadlineUnknown_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"queryStringParameters\": {\"deadline\": \"soon\", \"from\": \"2026-10-18T00:00:00Z\", "
+                + "\"to\": \"2026-10-19T00:00:00Z\"}}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("deadline must be conditions or punishment"));
+        assertTrue(os.toString().contains("400"));
+    }
+
+    @Test
+    public void handleRequest_whenFromNotAnInstant_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"queryStringParameters\": {\"deadline\": \"conditions\", \"from\": \"yesterday\", "
+                + "\"to\": \"2026-10-19T00:00:00Z\"}}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("from must be an ISO-8601 instant"));
+        assertTrue(os.toString().contains("400"));
+    }
+}
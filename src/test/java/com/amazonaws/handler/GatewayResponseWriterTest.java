@@ -0,0 +1,90 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.response.ErrorMessage;
+import com.amazonaws.model.response.GatewayResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class GatewayResponseWriterTest {
+    private static final Map<String, String> HEADERS = Collections.singletonMap("Content-Type", "application/json");
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private GatewayResponseWriter sut = new GatewayResponseWriter(objectMapper);
+
+    @Test
+    public void write_whenBodyHasCharactersNeedingEscapes_matchesDoubleSerializedEnvelope() throws IOException {
+        Bet bet = Bet.builder()
+                .xref("xref")
+                .title("say \"hi\" \\ bye")
+                .description("line one\nline two\ttabbed \u0001 control")
+                .conditions("caf\u00e9 \u2603")
+                .participants(Arrays.asList("a", "b"))
+                .createdAt(new Date(0))
+                .version(3L)
+                .build();
+        assertWritesSameAsGatewayResponse(bet, 200);
+    }
+
+    @Test
+    public void write_whenOutputIsDirect_handsOverBodyBytesWithoutEnvelope() throws IOException {
+        ErrorMessage body = new ErrorMessage("not found", 404);
+        Object[] response = new Object[3];
+        sut.write(new DirectResponseStream() {
+            @Override
+            public void respond(int statusCode, Map<String, String> headers, byte[] bytes) {
+                response[0] = statusCode;
+                response[1] = headers;
+                response[2] = bytes;
+            }
+        }, body, HEADERS, 404);
+        assertEquals(404, response[0]);
+        assertEquals(HEADERS, response[1]);
+        assertEquals(objectMapper.writeValueAsString(body), new String((byte[]) response[2], StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_whenBodyHasSupplementaryCharacters_bodyParsesToSameJson() throws IOException {
+        ErrorMessage body = new ErrorMessage("touchdown \ud83c\udfc8", 200);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.write(os, body, HEADERS, 200);
+        JsonNode written = objectMapper.readTree(os.toByteArray());
+        assertEquals(objectMapper.valueToTree(body), objectMapper.readTree(written.get("body").asText()));
+        assertEquals(200, written.get("statusCode").asInt());
+    }
+
+    @Test
+    public void write_whenBodyIsErrorMessage_matchesDoubleSerializedEnvelope() throws IOException {
+        assertWritesSameAsGatewayResponse(new ErrorMessage("Body was null", 400), 400);
+    }
+
+    @Test
+    public void write_whenBodyIsNull_matchesDoubleSerializedEnvelope() throws IOException {
+        assertWritesSameAsGatewayResponse(null, 200);
+    }
+
+    @Test
+    public void write_whenBodyLargerThanBuffer_matchesDoubleSerializedEnvelope() throws IOException {
+        char[] quotes = new char[20000];
+        Arrays.fill(quotes, '"');
+        assertWritesSameAsGatewayResponse(new ErrorMessage(new String(quotes), 500), 500);
+    }
+
+    private void assertWritesSameAsGatewayResponse(Object body, int statusCode) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.write(os, body, HEADERS, statusCode);
+        String expected = objectMapper.writeValueAsString(
+                new GatewayResponse<>(objectMapper.writeValueAsString(body), HEADERS, statusCode));
+        assertEquals(expected, new String(os.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
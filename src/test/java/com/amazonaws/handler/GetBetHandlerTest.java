@@ -1,5 +1,8 @@
 package com.amazonaws.handler;
 
+import com.amazonaws.dao.BetStore;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.ApiGatewayEvent;
 import com.amazonaws.services.lambda.runtime.TestContext;
 import com.amazonaws.model.response.GatewayResponse;
 import org.apache.http.HttpStatus;
@@ -9,9 +12,15 @@ import org.junit.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 public class GetBetHandlerTest {
     private GetBetHandler sut = new GetBetHandler();
@@ -33,4 +42,37 @@ public class GetBetHandlerTest {
         assertTrue(os.toString().contains("bet_id was not set"));
         assertTrue(os.toString().contains("400"));
     }
+
+    @Test
+    public void handleEvent_whenIfNoneMatchIsCurrentTag_puts304WithoutBody() throws IOException {
+        BetStore betStore = mock(BetStore.class);
+        sut.betStore = betStore;
+        doReturn(Bet.builder().xref("a").version(3L).title("unchanged").build()).when(betStore).getBet("a");
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.handleEvent(event("W/\"a-2\", W/\"a-3\""), os);
+        assertTrue(os.toString().contains("\"statusCode\":304"));
+        assertTrue(os.toString().contains("\"body\":\"\""));
+        assertFalse(os.toString().contains("unchanged"));
+        assertTrue(os.toString().contains("\"Access-Control-Expose-Headers\":\"ETag\""));
+    }
+
+    @Test
+    public void handleEvent_whenIfNoneMatchIsStale_puts200WithCurrentTagFromOneRead() throws IOException {
+        BetStore betStore = mock(BetStore.class);
+        sut.betStore = betStore;
+        doReturn(Bet.builder().xref("a").version(4L).build()).when(betStore).getBet("a");
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.handleEvent(event("\"a-3\""), os);
+        assertTrue(os.toString().contains("\"statusCode\":200"));
+        assertTrue(os.toString().contains("\"ETag\":\"\\\"a-4\\\"\""));
+        assertTrue(os.toString().contains("\"Access-Control-Expose-Headers\":\"ETag\""));
+        verify(betStore).getBet("a");
+        verifyNoMoreInteractions(betStore);
+    }
+
+    private static ApiGatewayEvent event(String ifNoneMatch) {
+        return ApiGatewayEvent.builder().httpMethod("GET")
+                .pathParameters(Collections.singletonMap("betXref", "a"))
+                .headers(Collections.singletonMap("if-none-match", ifNoneMatch)).build();
+    }
 }
@@ -0,0 +1,31 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.services.lambda.runtime.TestContext;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertTrue;
+
+public class GetBetsHandlerTest {
+    private GetBetsHandler sut = new GetBetsHandler();
+
+    @Test
+    public void handleRequest_whenGetBetsInputStreamEmpty_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.handleRequest(new ByteArrayInputStream(new byte[0]), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Invalid JSON"));
+        assertTrue(os.toString().contains("400"));
+    }
+
+    @Test
+    public void handleRequest_whenExclusiveStartKeyMalformed_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"queryStringParameters\": { \"exclusiveStartKey\": \"not a token!\" }}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("Invalid page token"));
+        assertTrue(os.toString().contains("400"));
+    }
+}
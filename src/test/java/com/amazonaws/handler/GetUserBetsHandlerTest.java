@@ -0,0 +1,23 @@
+package com.amazonaws.handler;
+
+import com.amazonaws.services.lambda.runtime.TestContext;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertTrue;
+
+public class GetUserBetsHandlerTest {
+    private GetUserBetsHandler sut = new GetUserBetsHandler();
+
+    @Test
+    public void handleRequest_whenUserXrefMissing_puts400InOutputStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String input = "{\"pathParameters\": {}}";
+        sut.handleRequest(new ByteArrayInputStream(input.getBytes()), os, TestContext.builder().build());
+        assertTrue(os.toString().contains("userXref was null or empty"));
+        assertTrue(os.toString().contains("400"));
+    }
+}
@@ -1,5 +1,9 @@
 package com.amazonaws.handler;
 
+import com.amazonaws.dao.BetStore;
+import com.amazonaws.model.Bet;
+import com.amazonaws.model.request.ApiGatewayEvent;
+import com.amazonaws.model.request.BetRequest;
 import com.amazonaws.services.lambda.runtime.TestContext;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -7,8 +11,15 @@ import org.junit.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collections;
 
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 public class UpdateBetHandlerTest {
     private UpdateBetHandler sut = new UpdateBetHandler();
@@ -90,4 +101,31 @@ public class UpdateBetHandlerTest {
         assertTrue(os.toString().contains("postTaxAmount was null"));
         assertTrue(os.toString().contains("400"));
     }
+
+    @Test
+    public void handleEvent_whenBodyXrefDiffersFromPath_puts400WithoutUpdating() throws IOException {
+        BetStore betStore = mock(BetStore.class);
+        sut.betStore = betStore;
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.handleEvent(event("PATCH", "{\"xref\": \"b\", \"version\": 1, \"isComplete\": true}"), os);
+        assertTrue(os.toString().contains("does not match the path"));
+        assertTrue(os.toString().contains("400"));
+        verifyNoInteractions(betStore);
+    }
+
+    @Test
+    public void handleEvent_whenBodyHasNoXref_updatesBetInPath() throws IOException {
+        BetStore betStore = mock(BetStore.class);
+        sut.betStore = betStore;
+        doReturn(Bet.builder().xref("a").version(2L).build()).when(betStore).patchBet(any(BetRequest.class));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        sut.handleEvent(event("PATCH", "{\"version\": 1, \"isComplete\": true}"), os);
+        assertTrue(os.toString().contains("\"statusCode\":200"));
+        verify(betStore).patchBet(argThat(request -> "a".equals(request.getXref())));
+    }
+
+    private static ApiGatewayEvent event(String method, String body) {
+        return ApiGatewayEvent.builder().httpMethod(method)
+                .pathParameters(Collections.singletonMap("betXref", "a")).body(body).build();
+    }
 }
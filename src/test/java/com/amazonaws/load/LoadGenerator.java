@@ -0,0 +1,456 @@
+package com.amazonaws.load;
+
+import com.amazonaws.metrics.LatencyHistogram;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the bet API. Requests are started at a target arrival rate no
+ * matter how quickly earlier ones complete, each on its own virtual thread, and every request's
+ * latency is measured from the time it was scheduled to start rather than the time it was sent.
+ * A stalled server or a generator that falls behind therefore shows up in the percentiles instead
+ * of quietly lowering the offered load (coordinated omission). Latencies are recorded per route
+ * in {@link LatencyHistogram}s and summarized as JSON.
+ *
+ * <p>It needs nothing but a server: {@code BetServer}, {@code sam local start-api}, or either of
+ * those backed by DynamoDB Local. Options, all optional:
+ * <pre>
+ * --url       base URL of the API                  (http://localhost:8080)
+ * --rate      requests started per second          (100)
+ * --duration  seconds to generate load for         (60)
+ * --warmup    leading seconds left out of results  (10)
+ * --arrivals  poisson or uniform inter-arrivals    (poisson)
+ * --mix       weights per operation                (create=1,get=6,update=2,delete=1)
+ * --bets      bets created before the run starts   (50)
+ * --timeout   seconds before a request fails       (10)
+ * --seed      seed for arrivals and the mix        (1)
+ * --out       file the JSON summary is written to  (target/load-summary.json)
+ * </pre>
+ */
+public final class LoadGenerator {
+    /**
+     * The operations the generator mixes, each named after the route that serves it.
+     */
+    enum Operation {
+        CREATE("POST /bets"),
+        GET("GET /bets/{betXref}"),
+        UPDATE("POST /bets/{betXref}"),
+        DELETE("DELETE /bets/{betXref}");
+
+        private final String route;
+
+        Operation(final String route) {
+            this.route = route;
+        }
+    }
+
+    private final Options options;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, RouteStats> stats = new EnumMap<>(Operation.class);
+    private final BetPool betPool = new BetPool();
+    private final AtomicLong maxScheduleLagNanos = new AtomicLong();
+
+    /**
+     * Constructs a LoadGenerator.
+     *
+     * @param options what to run and where
+     */
+    LoadGenerator(final Options options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(options.timeoutSeconds))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new RouteStats());
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Options options = Options.parse(args);
+        final ObjectNode summary = new LoadGenerator(options).run();
+        final File out = new File(options.out);
+        if (out.getParentFile() != null) {
+            out.getParentFile().mkdirs();
+        }
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, summary);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(summary));
+    }
+
+    /**
+     * Creates the initial bets, generates load for the configured duration and waits for every
+     * request that was started to finish.
+     *
+     * @return the summary
+     * @throws InterruptedException if interrupted while creating the initial bets
+     */
+    ObjectNode run() throws InterruptedException {
+        prefill();
+        final Random random = new Random(options.seed);
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        final long start = System.nanoTime();
+        final long recordFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        final long end = start + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        long scheduled = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long intended = start;
+            while (intended < end) {
+                final long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                maxScheduleLagNanos.accumulateAndGet(System.nanoTime() - intended, Math::max);
+                final Operation operation = options.mix.next(random);
+                final long intendedStart = intended;
+                executor.execute(() -> execute(operation, intendedStart, intendedStart >= recordFrom));
+                scheduled++;
+                intended += options.poisson
+                        ? (long) (-Math.log(1 - random.nextDouble()) * intervalNanos)
+                        : intervalNanos;
+            }
+        }
+        return summary(scheduled, System.nanoTime() - start);
+    }
+
+    private void prefill() throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.bets; i++) {
+                executor.execute(() -> {
+                    try {
+                        create();
+                    } catch (IOException e) {
+                        // the run reports the server's errors; a short pool only skews the mix
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void execute(final Operation scheduled, final long intendedStart, final boolean record) {
+        // with no bets left to read, update or delete, create one rather than skip the arrival
+        final String xref = scheduled == Operation.CREATE ? null
+                : scheduled == Operation.DELETE ? betPool.take() : betPool.pick();
+        final Operation operation = xref == null ? Operation.CREATE : scheduled;
+        final long sent = System.nanoTime();
+        int status = 0;
+        try {
+            switch (operation) {
+                case CREATE:
+                    status = create();
+                    break;
+                case GET:
+                    status = send(HttpRequest.newBuilder(uri("/bets/" + xref)).GET()).statusCode();
+                    break;
+                case UPDATE:
+                    status = update(xref);
+                    break;
+                default:
+                    status = send(HttpRequest.newBuilder(uri("/bets/" + xref)).DELETE()).statusCode();
+                    break;
+            }
+        } catch (IOException e) {
+            stats.get(operation).errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (record) {
+            final long done = System.nanoTime();
+            stats.get(operation).record(status, done - intendedStart, done - sent);
+        }
+    }
+
+    private int create() throws IOException, InterruptedException {
+        final HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/bets"))
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(bet(null, null)))));
+        if (response.statusCode() == 201) {
+            remember(response.body());
+        }
+        return response.statusCode();
+    }
+
+    private int update(final String xref) throws IOException, InterruptedException {
+        final HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/bets/" + xref))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(bet(xref, betPool.version(xref))))));
+        if (response.statusCode() == 200) {
+            remember(response.body());
+        }
+        return response.statusCode();
+    }
+
+    private void remember(final String body) throws IOException {
+        final JsonNode bet = objectMapper.readTree(body);
+        if (bet.hasNonNull("xref")) {
+            betPool.put(bet.get("xref").asText(), bet.path("version").asLong());
+        }
+    }
+
+    private Map<String, Object> bet(final String xref, final Long version) {
+        final long now = System.currentTimeMillis();
+        final String creator = "load-user-" + ThreadLocalRandom.current().nextInt(50);
+        final Map<String, Object> bet = new HashMap<>();
+        bet.put("xref", xref);
+        bet.put("version", version);
+        bet.put("creatorXref", creator);
+        bet.put("participants", Arrays.asList(creator, "load-user-" + ThreadLocalRandom.current().nextInt(50)));
+        bet.put("title", "load " + now);
+        bet.put("conditions", "conditions");
+        bet.put("punishment", "punishment");
+        bet.put("conditionsDeadline", now + TimeUnit.DAYS.toMillis(1));
+        bet.put("punishmentDeadline", now + TimeUnit.DAYS.toMillis(2));
+        return bet;
+    }
+
+    private HttpResponse<String> send(final HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.timeout(Duration.ofSeconds(options.timeoutSeconds)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(final String path) {
+        return URI.create(options.url + path);
+    }
+
+    private ObjectNode summary(final long scheduled, final long elapsedNanos) {
+        final ObjectNode summary = objectMapper.createObjectNode();
+        summary.put("url", options.url);
+        summary.put("targetRate", options.rate);
+        summary.put("arrivals", options.poisson ? "poisson" : "uniform");
+        summary.put("durationSeconds", options.durationSeconds);
+        summary.put("warmupSeconds", options.warmupSeconds);
+        summary.put("scheduled", scheduled);
+        summary.put("achievedRate", scheduled * 1e9 / elapsedNanos);
+        summary.put("maxScheduleLagMillis", maxScheduleLagNanos.get() / 1e6);
+        final ObjectNode routes = summary.putObject("routes");
+        stats.forEach((operation, routeStats) -> {
+            if (routeStats.latency.count() > 0 || routeStats.errors.sum() > 0) {
+                routes.set(operation.route, routeStats.toJson(objectMapper));
+            }
+        });
+        return summary;
+    }
+
+    /**
+     * Latency from intended start, service time from the actual send, and outcomes for one route.
+     */
+    private static final class RouteStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+
+        void record(final int status, final long latencyNanos, final long serviceNanos) {
+            latency.record(latencyNanos / 1000);
+            serviceTime.record(serviceNanos / 1000);
+            if (status != 0) {
+                statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+
+        ObjectNode toJson(final ObjectMapper objectMapper) {
+            final ObjectNode json = objectMapper.createObjectNode();
+            json.put("count", latency.count());
+            json.put("errors", errors.sum());
+            final ObjectNode statusCounts = json.putObject("statuses");
+            new TreeMap<>(statuses).forEach((status, count) -> statusCounts.put(status.toString(), count.sum()));
+            json.set("latencyMillis", percentiles(objectMapper, latency));
+            json.set("serviceTimeMillis", percentiles(objectMapper, serviceTime));
+            return json;
+        }
+
+        private static ObjectNode percentiles(final ObjectMapper objectMapper, final LatencyHistogram histogram) {
+            final ObjectNode json = objectMapper.createObjectNode();
+            json.put("mean", histogram.mean() / 1000.0);
+            for (double percentile : new double[]{50, 90, 99, 99.9}) {
+                json.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                        : String.valueOf(percentile)), histogram.valueAtPercentile(percentile) / 1000.0);
+            }
+            json.put("max", histogram.max() / 1000.0);
+            return json;
+        }
+    }
+
+    /**
+     * Xrefs and last seen versions of the bets the generator created and has not deleted.
+     */
+    private static final class BetPool {
+        private final List<String> xrefs = new ArrayList<>();
+        private final Map<String, Long> versions = new HashMap<>();
+
+        synchronized void put(final String xref, final long version) {
+            if (versions.put(xref, version) == null) {
+                xrefs.add(xref);
+            }
+        }
+
+        synchronized String pick() {
+            return xrefs.isEmpty() ? null : xrefs.get(ThreadLocalRandom.current().nextInt(xrefs.size()));
+        }
+
+        synchronized String take() {
+            if (xrefs.isEmpty()) {
+                return null;
+            }
+            final int index = ThreadLocalRandom.current().nextInt(xrefs.size());
+            final String xref = xrefs.get(index);
+            xrefs.set(index, xrefs.get(xrefs.size() - 1));
+            xrefs.remove(xrefs.size() - 1);
+            versions.remove(xref);
+            return xref;
+        }
+
+        synchronized Long version(final String xref) {
+            return versions.get(xref);
+        }
+    }
+
+    /**
+     * Weighted choice between the operations.
+     */
+    static final class Mix {
+        private final Operation[] operations;
+        private final int[] cumulativeWeights;
+
+        /**
+         * Parses weights such as "create=1,get=6,update=2,delete=1"; operations left out get none.
+         */
+        static Mix parse(final String spec) {
+            final Map<Operation, Integer> weights = new LinkedHashMap<>();
+            for (String part : spec.split(",")) {
+                final String[] weight = part.trim().split("=");
+                if (weight.length != 2) {
+                    throw new IllegalArgumentException("mix entries must look like get=6, got " + part);
+                }
+                weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+            }
+            return new Mix(weights);
+        }
+
+        private Mix(final Map<Operation, Integer> weights) {
+            operations = new Operation[weights.size()];
+            cumulativeWeights = new int[weights.size()];
+            int total = 0;
+            int i = 0;
+            for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+                if (weight.getValue() < 0) {
+                    throw new IllegalArgumentException("mix weights must not be negative");
+                }
+                total += weight.getValue();
+                operations[i] = weight.getKey();
+                cumulativeWeights[i++] = total;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("mix must give at least one operation a weight");
+            }
+        }
+
+        Operation next(final Random random) {
+            final int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int i = 0;
+            while (draw >= cumulativeWeights[i]) {
+                i++;
+            }
+            return operations[i];
+        }
+    }
+
+    /**
+     * Command line options, see the class comment.
+     */
+    static final class Options {
+        String url = "http://localhost:8080";
+        int rate = 100;
+        int durationSeconds = 60;
+        int warmupSeconds = 10;
+        boolean poisson = true;
+        Mix mix = Mix.parse("create=1,get=6,update=2,delete=1");
+        int bets = 50;
+        int timeoutSeconds = 10;
+        long seed = 1;
+        String out = "target/load-summary.json";
+
+        static Options parse(final String[] args) {
+            final Options options = new Options();
+            if (args.length % 2 != 0) {
+                throw new IllegalArgumentException("options must come in --name value pairs");
+            }
+            for (int i = 0; i < args.length; i += 2) {
+                final String value = args[i + 1];
+                switch (args[i]) {
+                    case "--url":
+                        options.url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                        break;
+                    case "--rate":
+                        options.rate = Integer.parseInt(value);
+                        break;
+                    case "--duration":
+                        options.durationSeconds = Integer.parseInt(value);
+                        break;
+                    case "--warmup":
+                        options.warmupSeconds = Integer.parseInt(value);
+                        break;
+                    case "--arrivals":
+                        if (!"poisson".equals(value) && !"uniform".equals(value)) {
+                            throw new IllegalArgumentException("--arrivals must be poisson or uniform");
+                        }
+                        options.poisson = "poisson".equals(value);
+                        break;
+                    case "--mix":
+                        options.mix = Mix.parse(value);
+                        break;
+                    case "--bets":
+                        options.bets = Integer.parseInt(value);
+                        break;
+                    case "--timeout":
+                        options.timeoutSeconds = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        options.seed = Long.parseLong(value);
+                        break;
+                    case "--out":
+                        options.out = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            if (options.rate <= 0 || options.durationSeconds <= 0 || options.warmupSeconds < 0) {
+                throw new IllegalArgumentException("--rate and --duration must be positive and --warmup not negative");
+            }
+            return options;
+        }
+    }
+}
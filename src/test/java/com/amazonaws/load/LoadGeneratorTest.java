@@ -0,0 +1,98 @@
+package com.amazonaws.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LoadGeneratorTest {
+    private HttpServer server;
+    private final AtomicInteger ids = new AtomicInteger();
+    private volatile long getDelayMillis;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @After
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void run_whenResponsesSlowerThanArrivalInterval_keepsStartingRequestsAtTargetRate() throws Exception {
+        getDelayMillis = 200;
+        JsonNode summary = new LoadGenerator(options("get=1")).run();
+
+        JsonNode get = summary.path("routes").path("GET /bets/{betXref}");
+        assertEquals(summary.path("scheduled").asLong(), get.path("count").asLong());
+        assertTrue(get.path("count").asLong() >= 90);
+        assertTrue(get.path("latencyMillis").path("p50").asDouble() >= 190);
+    }
+
+    @Test
+    public void run_whenMixed_recordsStatusesPerRoute() throws Exception {
+        JsonNode summary = new LoadGenerator(options("create=1,get=1,update=1,delete=1")).run();
+
+        JsonNode routes = summary.path("routes");
+        assertEquals(4, routes.size());
+        assertTrue(routes.path("POST /bets").path("statuses").path("201").asLong() > 0);
+        assertTrue(routes.path("DELETE /bets/{betXref}").path("statuses").path("200").asLong() > 0);
+        assertEquals(0, routes.path("POST /bets/{betXref}").path("errors").asLong());
+    }
+
+    @Test
+    public void mixNext_followsWeights() {
+        LoadGenerator.Mix mix = LoadGenerator.Mix.parse("create=1,get=0,delete=3");
+        Random random = new Random(1);
+        int deletes = 0;
+        for (int i = 0; i < 4000; i++) {
+            LoadGenerator.Operation operation = mix.next(random);
+            assertTrue(operation != LoadGenerator.Operation.GET);
+            deletes += operation == LoadGenerator.Operation.DELETE ? 1 : 0;
+        }
+        assertTrue(deletes > 2800 && deletes < 3200);
+    }
+
+    private LoadGenerator.Options options(final String mix) {
+        return LoadGenerator.Options.parse(new String[]{
+                "--url", "http://localhost:" + server.getAddress().getPort(),
+                "--rate", "100", "--duration", "1", "--warmup", "0", "--arrivals", "uniform",
+                "--bets", "5", "--mix", mix});
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            final String path = exchange.getRequestURI().getPath();
+            final boolean create = "POST".equals(exchange.getRequestMethod()) && "/bets".equals(path);
+            if ("GET".equals(exchange.getRequestMethod()) && getDelayMillis > 0) {
+                try {
+                    Thread.sleep(getDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            final String xref = create ? "bet" + ids.incrementAndGet() : path.substring("/bets/".length());
+            final byte[] body = ("{\"xref\":\"" + xref + "\",\"version\":1}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(create ? 201 : 200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+}
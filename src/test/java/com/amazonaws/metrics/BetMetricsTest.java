@@ -0,0 +1,59 @@
+package com.amazonaws.metrics;
+
+import org.junit.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BetMetricsTest {
+    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private AtomicLong now = new AtomicLong(1700000000000L);
+    private BetMetrics sut = new BetMetrics(new PrintStream(out), "HiLow", 10000, now::get);
+
+    @Test
+    public void flushIfDue_whenColdInvocation_writesImmediatelyTaggedCold() {
+        sut.recordInvocation("GET /bets/{betXref}", TimeUnit.MILLISECONDS.toNanos(120), true);
+        sut.flushIfDue(true);
+        String emf = out.toString();
+        assertTrue(emf, emf.contains("\"Namespace\":\"HiLow\""));
+        assertTrue(emf, emf.contains("\"Dimensions\":[[\"Route\",\"Invocation\"]]"));
+        assertTrue(emf, emf.contains("\"Route\":\"GET /bets/{betXref}\",\"Invocation\":\"cold\""));
+        assertTrue(emf, emf.contains("\"Invocations\":1"));
+    }
+
+    @Test
+    public void flushIfDue_whenIntervalNotElapsed_writesNothingUntilItHas() {
+        sut.recordInvocation("GET /bets", TimeUnit.MILLISECONDS.toNanos(5), false);
+        sut.recordError("BetDoesNotExistException");
+        sut.flushIfDue(false);
+        assertEquals(0, out.size());
+
+        now.addAndGet(10000);
+        sut.flushIfDue(false);
+        String emf = out.toString();
+        assertTrue(emf, emf.contains("\"Invocation\":\"warm\""));
+        assertTrue(emf, emf.contains("\"ErrorType\":\"BetDoesNotExistException\",\"Errors\":1"));
+    }
+
+    @Test
+    public void publish_whenSdkReportsRetries_writesCallsRetriesAndCapacityPerOperation() {
+        MetricCollector call = MetricCollector.create("ApiCall");
+        call.reportMetric(CoreMetric.OPERATION_NAME, "GetItem");
+        call.reportMetric(CoreMetric.RETRY_COUNT, 2);
+        sut.publish(call.collect());
+        sut.recordConsumedCapacity("GetItem", 0.5);
+
+        sut.flushIfDue(true);
+
+        String emf = out.toString();
+        assertTrue(emf, emf.contains("\"DynamoDbOperation\":\"GetItem\",\"DynamoDbCalls\":1,"
+                + "\"DynamoDbRetries\":2,\"ConsumedCapacity\":0.500"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.amazonaws.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConnectionPoolMetricsTest {
+    private ConnectionPoolMetrics sut = new ConnectionPoolMetrics();
+
+    @Test
+    public void snapshot_whenPoolNotStarted_returnsZeroGauges() {
+        ConnectionPoolMetrics.Snapshot snapshot = sut.snapshot();
+        assertEquals(0, snapshot.getActiveConnections());
+        assertEquals(0, snapshot.getAcquireCount());
+        assertEquals(0, snapshot.getMeanAcquireMicros());
+    }
+
+    @Test
+    public void snapshot_whenConnectionsAcquired_reportsGaugesAndWaitTimes() {
+        IMetricsTracker tracker = sut.create("pool", new PoolStats(0) {
+            @Override
+            protected void update() {
+                totalConnections = 2;
+                idleConnections = 1;
+                activeConnections = 1;
+                pendingThreads = 3;
+                maxConnections = 2;
+            }
+        });
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(300));
+        tracker.recordConnectionTimeout();
+
+        ConnectionPoolMetrics.Snapshot snapshot = sut.snapshot();
+        assertEquals(1, snapshot.getActiveConnections());
+        assertEquals(1, snapshot.getIdleConnections());
+        assertEquals(3, snapshot.getPendingThreads());
+        assertEquals(2, snapshot.getAcquireCount());
+        assertEquals(200, snapshot.getMeanAcquireMicros());
+        assertEquals(300, snapshot.getMaxAcquireMicros());
+        assertEquals(1, snapshot.getTimeouts());
+    }
+}
@@ -0,0 +1,53 @@
+package com.amazonaws.metrics;
+
+import org.junit.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+
+public class HttpClientMetricsTest {
+    private HttpClientMetrics sut = new HttpClientMetrics();
+
+    @Test
+    public void snapshot_whenNothingPublished_returnsZeroes() {
+        HttpClientMetrics.Snapshot snapshot = sut.snapshot();
+        assertEquals(0, snapshot.getApiCalls());
+        assertEquals(0, snapshot.getAcquireCount());
+        assertEquals(0, snapshot.getMeanAcquireMicros());
+    }
+
+    @Test
+    public void publish_whenAttemptsReportLeaseWaits_recordsThemFromNestedCollections() {
+        MetricCollector call = MetricCollector.create("ApiCall");
+        call.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, false);
+        call.reportMetric(CoreMetric.RETRY_COUNT, 1);
+        attempt(call, Duration.ofMillis(2), 4, 50, 3);
+        attempt(call, Duration.ofMillis(6), 5, 50, 0);
+
+        sut.publish(call.collect());
+
+        HttpClientMetrics.Snapshot snapshot = sut.snapshot();
+        assertEquals(1, snapshot.getApiCalls());
+        assertEquals(1, snapshot.getFailedCalls());
+        assertEquals(1, snapshot.getRetries());
+        assertEquals(2, snapshot.getAcquireCount());
+        assertEquals(4000, snapshot.getMeanAcquireMicros());
+        assertEquals(6000, snapshot.getMaxAcquireMicros());
+        assertEquals(5, snapshot.getLeasedConnections());
+        assertEquals(50, snapshot.getMaxConnections());
+        assertEquals(0, snapshot.getPendingAcquires());
+        assertEquals(3, snapshot.getMaxPendingAcquires());
+    }
+
+    private static void attempt(MetricCollector call, Duration leaseWait, int leased, int max, int pending) {
+        MetricCollector http = call.createChild("ApiCallAttempt").createChild("HttpClient");
+        http.reportMetric(HttpMetric.CONCURRENCY_ACQUIRE_DURATION, leaseWait);
+        http.reportMetric(HttpMetric.LEASED_CONCURRENCY, leased);
+        http.reportMetric(HttpMetric.MAX_CONCURRENCY, max);
+        http.reportMetric(HttpMetric.PENDING_CONCURRENCY_ACQUIRES, pending);
+    }
+}
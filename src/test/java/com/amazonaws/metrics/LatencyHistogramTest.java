@@ -0,0 +1,57 @@
+package com.amazonaws.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    private LatencyHistogram sut = new LatencyHistogram();
+
+    @Test
+    public void valueAtPercentile_whenEmpty_returnsZero() {
+        assertEquals(0, sut.valueAtPercentile(99));
+        assertEquals(0, sut.count());
+    }
+
+    @Test
+    public void valueAtPercentile_whenUniformValues_isWithinBucketPrecision() {
+        for (long i = 1; i <= 10000; i++) {
+            sut.record(i);
+        }
+        assertEquals(10000, sut.count());
+        assertEquals(10000, sut.max());
+        assertEquals(5000, sut.mean());
+        assertWithin(5000, sut.valueAtPercentile(50));
+        assertWithin(9900, sut.valueAtPercentile(99));
+        assertEquals(10000, sut.valueAtPercentile(100));
+    }
+
+    @Test
+    public void index_whenValueAtEdgeOfBucket_mapsBackToThatBucket() {
+        for (long value : new long[]{0, 31, 32, 33, 1000, 65535, 1L << 40, Long.MAX_VALUE}) {
+            long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.index(value));
+            assertTrue(value + " above " + highest, value <= highest);
+            assertEquals(LatencyHistogram.index(value), LatencyHistogram.index(highest));
+        }
+    }
+
+    @Test
+    public void drainInto_whenCalled_movesEverythingAndEmptiesSource() {
+        sut.record(10);
+        sut.record(2000);
+        LatencyHistogram target = new LatencyHistogram();
+        target.record(5);
+
+        sut.drainInto(target);
+
+        assertEquals(0, sut.count());
+        assertEquals(0, sut.valueAtPercentile(100));
+        assertEquals(3, target.count());
+        assertEquals(2000, target.max());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(expected + " vs " + actual, Math.abs(actual - expected) <= expected / 32 + 1);
+    }
+}
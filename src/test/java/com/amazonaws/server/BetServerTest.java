@@ -0,0 +1,83 @@
+package com.amazonaws.server;
+
+import com.amazonaws.config.BetComponents;
+import com.amazonaws.handler.BetRouterHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BetServerTest {
+    private BetServer sut;
+    private HttpClient client = HttpClient.newHttpClient();
+
+    @Before
+    public void setup() throws IOException {
+        sut = new BetServer(new InetSocketAddress("localhost", 0), new BetRouterHandler(),
+                BetComponents.get().objectMapper());
+        sut.start();
+    }
+
+    @After
+    public void teardown() {
+        sut.stop();
+    }
+
+    @Test
+    public void handle_whenPathMatchesTemplate_dispatchesToRouteAndWritesItsResponse() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/bets/bulk"))
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        assertEquals(400, response.statusCode());
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+        assertTrue(response.body().contains("Body was null"));
+    }
+
+    @Test
+    public void handle_whenBatchGetBodyIsMalformed_writes400() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/bets/batchGet"))
+                .POST(HttpRequest.BodyPublishers.ofString("{not json")));
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("Invalid JSON in body"));
+    }
+
+    @Test
+    public void handle_whenBulkCreateBodyIsMalformed_writes400() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/bets/bulk"))
+                .POST(HttpRequest.BodyPublishers.ofString("[{not json")));
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("Invalid JSON in body"));
+    }
+
+    @Test
+    public void handle_whenNoRouteForPath_writes404() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/nothing/here")).GET());
+        assertEquals(404, response.statusCode());
+        assertTrue(response.body().contains("No route for GET /nothing/here"));
+    }
+
+    @Test
+    public void queryParameters_whenNameRepeated_keepsLastDecodedValue() {
+        Map<String, String> parameters = BetServer.queryParameters("deadline=conditions&from=a%3Ab&from=c+d&flag");
+        assertEquals("conditions", parameters.get("deadline"));
+        assertEquals("c d", parameters.get("from"));
+        assertEquals("", parameters.get("flag"));
+    }
+
+    private HttpResponse<String> send(final HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + sut.getAddress().getPort() + path);
+    }
+}
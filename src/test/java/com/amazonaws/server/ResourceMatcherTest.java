@@ -0,0 +1,33 @@
+package com.amazonaws.server;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ResourceMatcherTest {
+    private ResourceMatcher sut = new ResourceMatcher(Arrays.asList(
+            "/bets", "/bets/{betXref}", "/bets/due", "/bets/{betXref}/comments", "/users/{userXref}/bets"));
+
+    @Test
+    public void match_whenLiteralAndParameterBothMatch_prefersLiteral() {
+        ResourceMatcher.Match match = sut.match("/bets/due");
+        assertEquals("/bets/due", match.getResource());
+        assertEquals(0, match.getPathParameters().size());
+    }
+
+    @Test
+    public void match_whenSegmentEncoded_decodesPathParameterKeepingPlus() {
+        ResourceMatcher.Match match = sut.match("/users/a%2Fb+c/bets");
+        assertEquals("/users/{userXref}/bets", match.getResource());
+        assertEquals("a/b+c", match.getPathParameters().get("userXref"));
+    }
+
+    @Test
+    public void match_whenParameterSegmentEmpty_returnsNull() {
+        assertNull(sut.match("/bets/"));
+        assertNull(sut.match("/bets//comments"));
+    }
+}